@@ -5,13 +5,44 @@ import org.eclipse.jdt.core.dom.ASTNode;
 
 public class ASTInformationGenerator {
 
-	private static ITypeRoot iTypeRoot;
+	private static volatile ITypeRoot iTypeRoot;
+	//type root set by a worker thread, takes precedence over the shared iTypeRoot within that thread
+	private static final ThreadLocal<ITypeRoot> workerITypeRoot = new ThreadLocal<ITypeRoot>();
+	//marks the threads whose type root is confined to the thread, set by the workers of parallel analyses
+	private static final ThreadLocal<Boolean> workerThread = new ThreadLocal<Boolean>();
 	
 	public static void setCurrentITypeRoot(ITypeRoot typeRoot) {
-		iTypeRoot = typeRoot;
+		if(workerThread.get() != null)
+			setCurrentWorkerITypeRoot(typeRoot);
+		else
+			iTypeRoot = typeRoot;
+	}
+
+	/**
+	 * Within a worker thread the type root set by setCurrentITypeRoot is visible only to the same thread,
+	 * so that concurrent analyses do not overwrite each other's type root.
+	 */
+	public static void setWorkerThread(boolean worker) {
+		if(worker) {
+			workerThread.set(Boolean.TRUE);
+		}
+		else {
+			workerThread.remove();
+			workerITypeRoot.remove();
+		}
+	}
+
+	public static void setCurrentWorkerITypeRoot(ITypeRoot typeRoot) {
+		if(typeRoot != null)
+			workerITypeRoot.set(typeRoot);
+		else
+			workerITypeRoot.remove();
 	}
 
 	public static ASTInformation generateASTInformation(ASTNode astNode) {
-		return new ASTInformation(iTypeRoot, astNode);
+		ITypeRoot typeRoot = workerITypeRoot.get();
+		if(typeRoot == null && workerThread.get() == null)
+			typeRoot = iTypeRoot;
+		return new ASTInformation(typeRoot, astNode);
 	}
 }
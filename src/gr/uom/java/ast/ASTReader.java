@@ -12,7 +12,9 @@ import org.eclipse.core.resources.IncrementalProjectBuilder;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IJavaModelMarker;
@@ -23,6 +25,7 @@ import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.ASTRequestor;
 import org.eclipse.jdt.core.dom.AbstractTypeDeclaration;
 import org.eclipse.jdt.core.dom.Annotation;
 import org.eclipse.jdt.core.dom.AnonymousClassDeclaration;
@@ -48,23 +51,36 @@ import org.eclipse.jdt.core.dom.Type;
 import org.eclipse.jdt.core.dom.TypeDeclaration;
 import org.eclipse.jdt.core.dom.TypeDeclarationStatement;
 import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
+import org.eclipse.jface.preference.IPreferenceStore;
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.IDocument;
 
 import gr.uom.java.ast.decomposition.AbstractExpression;
 import gr.uom.java.ast.decomposition.MethodBodyObject;
 import gr.uom.java.ast.util.StatementExtractor;
+import gr.uom.java.jdeodorant.preferences.PreferenceConstants;
+import gr.uom.java.jdeodorant.refactoring.Activator;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 public class ASTReader {
 
 	private static SystemObject systemObject;
 	private static IJavaProject examinedProject;
 	public static final int JLS = AST.JLS4;
+	private static final int PARSING_BATCH_SIZE = 50;
 
 	public ASTReader(IJavaProject iJavaProject, IProgressMonitor monitor) throws CompilationErrorDetectedException {
 		List<IMarker> markers = buildProject(iJavaProject, monitor);
@@ -75,27 +91,25 @@ public class ASTReader {
 			monitor.beginTask("Parsing selected Java Project", getNumberOfCompilationUnits(iJavaProject));
 		systemObject = new SystemObject();
 		examinedProject = iJavaProject;
-		try {
-			IPackageFragmentRoot[] iPackageFragmentRoots = iJavaProject.getPackageFragmentRoots();
-			for(IPackageFragmentRoot iPackageFragmentRoot : iPackageFragmentRoots) {
-				IJavaElement[] children = iPackageFragmentRoot.getChildren();
-				for(IJavaElement child : children) {
-					if(child.getElementType() == IJavaElement.PACKAGE_FRAGMENT) {
-						IPackageFragment iPackageFragment = (IPackageFragment)child;
-						ICompilationUnit[] iCompilationUnits = iPackageFragment.getCompilationUnits();
-						for(ICompilationUnit iCompilationUnit : iCompilationUnits) {
-							if(monitor != null && monitor.isCanceled())
-				    			throw new OperationCanceledException();
-							systemObject.addClasses(parseAST(iCompilationUnit));
-							if(monitor != null)
-								monitor.worked(1);
-						}
-					}
-				}
+		List<ICompilationUnit> compilationUnits = getCompilationUnits(iJavaProject);
+		IPreferenceStore store = Activator.getDefault().getPreferenceStore();
+		int numberOfThreads = store.getInt(PreferenceConstants.P_NUMBER_OF_WORKER_THREADS);
+		long startTime = System.currentTimeMillis();
+		if(numberOfThreads > 1 && compilationUnits.size() > 1) {
+			parseASTInParallel(compilationUnits, numberOfThreads, monitor);
+		}
+		else {
+			numberOfThreads = 1;
+			for(ICompilationUnit iCompilationUnit : compilationUnits) {
+				if(monitor != null && monitor.isCanceled())
+	    			throw new OperationCanceledException();
+				systemObject.addClasses(parseAST(iCompilationUnit));
+				if(monitor != null)
+					monitor.worked(1);
 			}
-		} catch (JavaModelException e) {
-			e.printStackTrace();
 		}
+		long endTime = System.currentTimeMillis();
+		reportParsingTime(iJavaProject, compilationUnits.size(), numberOfThreads, endTime - startTime);
 		if(monitor != null)
 			monitor.done();
 	}
@@ -171,6 +185,116 @@ public class ASTReader {
 		return result;
 	}
 
+	static List<ICompilationUnit> getCompilationUnits(IJavaProject iJavaProject) {
+		List<ICompilationUnit> compilationUnits = new ArrayList<ICompilationUnit>();
+		try {
+			IPackageFragmentRoot[] iPackageFragmentRoots = iJavaProject.getPackageFragmentRoots();
+			for(IPackageFragmentRoot iPackageFragmentRoot : iPackageFragmentRoots) {
+				IJavaElement[] children = iPackageFragmentRoot.getChildren();
+				for(IJavaElement child : children) {
+					if(child.getElementType() == IJavaElement.PACKAGE_FRAGMENT) {
+						IPackageFragment iPackageFragment = (IPackageFragment)child;
+						ICompilationUnit[] iCompilationUnits = iPackageFragment.getCompilationUnits();
+						for(ICompilationUnit iCompilationUnit : iCompilationUnits) {
+							compilationUnits.add(iCompilationUnit);
+						}
+					}
+				}
+			}
+		} catch (JavaModelException e) {
+			e.printStackTrace();
+		}
+		return compilationUnits;
+	}
+
+	private void parseASTInParallel(List<ICompilationUnit> compilationUnits, int numberOfThreads, IProgressMonitor monitor) {
+		//each batch is parsed with a single ASTParser.createASTs call, so that its compilation units share the same binding environment
+		List<List<ICompilationUnit>> batches = new ArrayList<List<ICompilationUnit>>();
+		for(int i=0; i<compilationUnits.size(); i+=PARSING_BATCH_SIZE) {
+			batches.add(compilationUnits.subList(i, Math.min(i + PARSING_BATCH_SIZE, compilationUnits.size())));
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+		try {
+			List<Future<List<List<ClassObject>>>> futures = new ArrayList<Future<List<List<ClassObject>>>>();
+			for(final List<ICompilationUnit> batch : batches) {
+				futures.add(executor.submit(new Callable<List<List<ClassObject>>>() {
+					public List<List<ClassObject>> call() {
+						return parseBatch(batch);
+					}
+				}));
+			}
+			//the batches are merged in the order of the compilation units, so the resulting SystemObject is identical to the one of the sequential parsing
+			for(int i=0; i<futures.size(); i++) {
+				Future<List<List<ClassObject>>> future = futures.get(i);
+				List<List<ClassObject>> batchClassObjects = null;
+				while(batchClassObjects == null) {
+					if(monitor != null && monitor.isCanceled())
+						throw new OperationCanceledException();
+					try {
+						batchClassObjects = future.get(100, TimeUnit.MILLISECONDS);
+					} catch (TimeoutException e) {
+						//poll again for cancellation
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						throw new OperationCanceledException();
+					} catch (ExecutionException e) {
+						//a failed batch is thrown as the sequential parsing would throw it, instead of leaving its classes out of the SystemObject
+						Throwable cause = e.getCause();
+						if(cause instanceof RuntimeException)
+							throw (RuntimeException)cause;
+						if(cause instanceof Error)
+							throw (Error)cause;
+						throw new IllegalStateException(cause);
+					}
+				}
+				for(List<ClassObject> classObjects : batchClassObjects) {
+					addAccessorMethods(classObjects);
+					systemObject.addClasses(classObjects);
+				}
+				if(monitor != null)
+					monitor.worked(batches.get(i).size());
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private List<List<ClassObject>> parseBatch(List<ICompilationUnit> batch) {
+		final Map<ICompilationUnit, List<ClassObject>> classObjectMap = new HashMap<ICompilationUnit, List<ClassObject>>();
+		ASTParser parser = ASTParser.newParser(JLS);
+		parser.setKind(ASTParser.K_COMPILATION_UNIT);
+		parser.setProject(examinedProject);
+		parser.setResolveBindings(true); // we need bindings later on
+		ASTRequestor requestor = new ASTRequestor() {
+			public void acceptAST(ICompilationUnit source, CompilationUnit compilationUnit) {
+				if(Thread.currentThread().isInterrupted())
+					return;
+				ASTInformationGenerator.setCurrentWorkerITypeRoot(source);
+				try {
+					classObjectMap.put(source, parseAST(compilationUnit, (IFile)source.getResource()));
+				}
+				finally {
+					ASTInformationGenerator.setCurrentWorkerITypeRoot(null);
+				}
+			}
+		};
+		parser.createASTs(batch.toArray(new ICompilationUnit[batch.size()]), new String[0], requestor, null);
+		List<List<ClassObject>> batchClassObjects = new ArrayList<List<ClassObject>>();
+		for(ICompilationUnit iCompilationUnit : batch) {
+			List<ClassObject> classObjects = classObjectMap.get(iCompilationUnit);
+			if(classObjects != null)
+				batchClassObjects.add(classObjects);
+		}
+		return batchClassObjects;
+	}
+
+	private void reportParsingTime(IJavaProject iJavaProject, int numberOfCompilationUnits, int numberOfThreads, long time) {
+		String message = "Parsed " + numberOfCompilationUnits + " compilation units of project " + iJavaProject.getElementName() +
+				" in " + time + " ms (" + (numberOfThreads > 1 ? "parallel, " + numberOfThreads + " threads" : "sequential") + ")";
+		Activator.getDefault().getLog().log(new Status(IStatus.INFO, Activator.PLUGIN_ID, message));
+	}
+
 	public static int getNumberOfCompilationUnits(IJavaProject iJavaProject) {
 		int numberOfCompilationUnits = 0;
 		try {
@@ -232,7 +356,28 @@ public class ASTReader {
         parser.setResolveBindings(true); // we need bindings later on
         CompilationUnit compilationUnit = (CompilationUnit)parser.createAST(null);
         
-        return parseAST(compilationUnit, iFile);
+        List<ClassObject> classObjects = parseAST(compilationUnit, iFile);
+        addAccessorMethods(classObjects);
+        return classObjects;
+	}
+
+	private void addAccessorMethods(List<ClassObject> classObjects) {
+		for(ClassObject classObject : classObjects) {
+			for(MethodObject methodObject : classObject.getMethodList()) {
+				FieldInstructionObject fieldInstruction = methodObject.isGetter();
+				if(fieldInstruction != null)
+					systemObject.addGetter(methodObject.generateMethodInvocation(), fieldInstruction);
+				fieldInstruction = methodObject.isSetter();
+				if(fieldInstruction != null)
+					systemObject.addSetter(methodObject.generateMethodInvocation(), fieldInstruction);
+				fieldInstruction = methodObject.isCollectionAdder();
+				if(fieldInstruction != null)
+					systemObject.addCollectionAdder(methodObject.generateMethodInvocation(), fieldInstruction);
+				MethodInvocationObject methodInvocation = methodObject.isDelegate();
+				if(methodInvocation != null)
+					systemObject.addDelegate(methodObject.generateMethodInvocation(), methodInvocation);
+			}
+		}
 	}
 
 	private List<ClassObject> parseAST(CompilationUnit compilationUnit, IFile iFile) {
@@ -587,18 +732,6 @@ public class ASTReader {
 				methodObject.setNative(true);
 			
 			classObject.addMethod(methodObject);
-			FieldInstructionObject fieldInstruction = methodObject.isGetter();
-			if(fieldInstruction != null)
-				systemObject.addGetter(methodObject.generateMethodInvocation(), fieldInstruction);
-			fieldInstruction = methodObject.isSetter();
-			if(fieldInstruction != null)
-				systemObject.addSetter(methodObject.generateMethodInvocation(), fieldInstruction);
-			fieldInstruction = methodObject.isCollectionAdder();
-			if(fieldInstruction != null)
-				systemObject.addCollectionAdder(methodObject.generateMethodInvocation(), fieldInstruction);
-			MethodInvocationObject methodInvocation = methodObject.isDelegate();
-			if(methodInvocation != null)
-				systemObject.addDelegate(methodObject.generateMethodInvocation(), methodInvocation);
 		}
 	}
 
@@ -4,29 +4,52 @@ import gr.uom.java.ast.decomposition.cfg.AbstractVariable;
 import gr.uom.java.jdeodorant.preferences.PreferenceConstants;
 import gr.uom.java.jdeodorant.refactoring.Activator;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.jdt.core.IClassFile;
 import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.ITypeRoot;
 import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.ASTParser;
 import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.IMethodBinding;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
 import org.eclipse.jface.preference.IPreferenceStore;
 
 public class CompilationUnitCache extends Indexer {
+	//the interprocedural indexes are filled while the PDGs are constructed and they are not thread-safe,
+	//so the PDG construction and the index queries performed by concurrent analyses are serialized on this lock
+	public static final Object INDEX_LOCK = new Object();
 
 	private static CompilationUnitCache instance;
-	private LinkedList<ITypeRoot> iTypeRootList;
-	private LinkedList<CompilationUnit> compilationUnitList;
-	private List<ITypeRoot> lockedTypeRoots;
+	private static final int BYTES_PER_MEGABYTE = 1024 * 1024;
+	//access-ordered map, iteration starts from the least recently used ITypeRoot
+	private LinkedHashMap<ITypeRoot, CompilationUnit> compilationUnitMap;
+	//estimated size in bytes of each cached CompilationUnit, as reported by ASTNode.subtreeBytes()
+	private Map<ITypeRoot, Integer> compilationUnitSizeMap;
+	private long cachedBytes;
+	//estimated size in bytes of the indexes attached to the nodes of each cached CompilationUnit, updated without the monitor of the cache
+	private Map<CompilationUnit, IndexBytes> indexBytesMap;
+	private AtomicLong cachedIndexBytes;
+	//the compilation units currently parsed by some thread, outside the monitor of the cache
+	private Map<ITypeRoot, FutureTask<CompilationUnit>> pendingCompilationUnitMap;
+	private Set<ITypeRoot> lockedTypeRoots;
 	private Set<ICompilationUnit> changedCompilationUnits;
 	private Set<ICompilationUnit> addedCompilationUnits;
 	private Set<ICompilationUnit> removedCompilationUnits;
@@ -36,6 +59,13 @@ public class CompilationUnitCache extends Indexer {
 	private Map<String, LinkedHashSet<AbstractVariable>> definedFieldsForMethodExpressionMap;
 	//String key corresponds to MethodDeclaration.resolveBinding.getKey()
 	private Map<String, LinkedHashSet<String>> thrownExceptionTypesForMethodExpressionMap;
+	private ProjectIndexStore indexStore;
+	private IJavaProject snapshotProject;
+	private int snapshotCallGraphAnalysisDepth;
+	private boolean snapshotModified;
+	//String value corresponds to MethodDeclaration.resolveBinding.getKey()
+	private Map<ICompilationUnit, Set<String>> indexedMethodMap;
+	private Set<IType> indexedSuperTypes;
 
 	public void addUsedFieldForMethodExpression(AbstractVariable field, AbstractMethodDeclaration mo) {
 		String methodBindingKey = mo.getMethodDeclaration().resolveBinding().getKey();
@@ -81,6 +111,7 @@ public class CompilationUnitCache extends Indexer {
 	}
 
 	public boolean containsMethodExpression(AbstractMethodDeclaration mo) {
+		loadProjectSnapshot();
 		String methodBindingKey = mo.getMethodDeclaration().resolveBinding().getKey();
 		if(usedFieldsForMethodExpressionMap.containsKey(methodBindingKey))
 			return true;
@@ -106,68 +137,153 @@ public class CompilationUnitCache extends Indexer {
 
 	private CompilationUnitCache() {
 		super();
-		this.iTypeRootList = new LinkedList<ITypeRoot>();
-		this.lockedTypeRoots = new ArrayList<ITypeRoot>();
-		this.compilationUnitList = new LinkedList<CompilationUnit>();
+		this.compilationUnitMap = new LinkedHashMap<ITypeRoot, CompilationUnit>(16, 0.75f, true);
+		this.compilationUnitSizeMap = new HashMap<ITypeRoot, Integer>();
+		this.cachedBytes = 0;
+		this.indexBytesMap = new ConcurrentHashMap<CompilationUnit, IndexBytes>();
+		this.cachedIndexBytes = new AtomicLong();
+		this.pendingCompilationUnitMap = new HashMap<ITypeRoot, FutureTask<CompilationUnit>>();
+		this.lockedTypeRoots = new LinkedHashSet<ITypeRoot>();
 		this.changedCompilationUnits = new LinkedHashSet<ICompilationUnit>();
 		this.addedCompilationUnits = new LinkedHashSet<ICompilationUnit>();
 		this.removedCompilationUnits = new LinkedHashSet<ICompilationUnit>();
 		this.usedFieldsForMethodExpressionMap = new HashMap<String, LinkedHashSet<AbstractVariable>>();
 		this.definedFieldsForMethodExpressionMap = new HashMap<String, LinkedHashSet<AbstractVariable>>();
 		this.thrownExceptionTypesForMethodExpressionMap = new HashMap<String, LinkedHashSet<String>>();
+		this.indexStore = new ProjectIndexStore(ProjectIndexStore.getDefaultDirectory());
+		this.indexedMethodMap = new HashMap<ICompilationUnit, Set<String>>();
+		this.indexedSuperTypes = new LinkedHashSet<IType>();
 	}
 
-	public static CompilationUnitCache getInstance() {
+	public static synchronized CompilationUnitCache getInstance() {
 		if(instance == null) {
 			instance = new CompilationUnitCache();
 		}
 		return instance;
 	}
 
-	public CompilationUnit getCompilationUnit(ITypeRoot iTypeRoot) {
+	/**
+	 * The parsing of a compilation unit is performed outside the monitor of the cache, so that concurrent analyses
+	 * parsing different compilation units do not wait for each other. A thread requesting a compilation unit that is
+	 * being parsed by another thread waits for the result of that parse instead of parsing it again.
+	 */
+	public CompilationUnit getCompilationUnit(final ITypeRoot iTypeRoot) {
 		if(iTypeRoot instanceof IClassFile) {
 			IClassFile classFile = (IClassFile)iTypeRoot;
 			return LibraryClassStorage.getInstance().getCompilationUnit(classFile);
 		}
 		else {
-			if(iTypeRootList.contains(iTypeRoot)) {
-				int position = iTypeRootList.indexOf(iTypeRoot);
-				return compilationUnitList.get(position);
-			}
-			else {
-				ASTParser parser = ASTParser.newParser(ASTReader.JLS);
-				parser.setKind(ASTParser.K_COMPILATION_UNIT);
-				parser.setSource(iTypeRoot);
-				parser.setResolveBindings(true);
-				CompilationUnit compilationUnit = (CompilationUnit)parser.createAST(null);
-				
-				IPreferenceStore store = Activator.getDefault().getPreferenceStore();
-				int maximumCacheSize = store.getInt(PreferenceConstants.P_PROJECT_COMPILATION_UNIT_CACHE_SIZE);
-				if(iTypeRootList.size() < maximumCacheSize) {
-					iTypeRootList.add(iTypeRoot);
-					compilationUnitList.add(compilationUnit);
-				}
-				else {
-					if(!lockedTypeRoots.isEmpty()) {
-						int indexToBeRemoved = 0;
-						int counter = 0;
-						for(ITypeRoot lockedTypeRoot : lockedTypeRoots) {
-							if(iTypeRootList.get(counter).equals(lockedTypeRoot)) {
-								indexToBeRemoved++;
-							}
-							counter++;
+			FutureTask<CompilationUnit> parseTask = null;
+			boolean parsedByCurrentThread = false;
+			synchronized(this) {
+				CompilationUnit cachedCompilationUnit = compilationUnitMap.get(iTypeRoot);
+				if(cachedCompilationUnit != null)
+					return cachedCompilationUnit;
+				parseTask = pendingCompilationUnitMap.get(iTypeRoot);
+				if(parseTask == null) {
+					parseTask = new FutureTask<CompilationUnit>(new Callable<CompilationUnit>() {
+						public CompilationUnit call() {
+							ASTParser parser = ASTParser.newParser(ASTReader.JLS);
+							parser.setKind(ASTParser.K_COMPILATION_UNIT);
+							parser.setSource(iTypeRoot);
+							parser.setResolveBindings(true);
+							return (CompilationUnit)parser.createAST(null);
 						}
-						iTypeRootList.remove(indexToBeRemoved);
-						compilationUnitList.remove(indexToBeRemoved);
-					}
-					else {
-						iTypeRootList.removeFirst();
-						compilationUnitList.removeFirst();
+					});
+					pendingCompilationUnitMap.put(iTypeRoot, parseTask);
+					parsedByCurrentThread = true;
+				}
+			}
+			if(parsedByCurrentThread) {
+				parseTask.run();
+				synchronized(this) {
+					//the cache may have been cleared while parsing, in which case the parsed compilation unit is not cached
+					if(pendingCompilationUnitMap.get(iTypeRoot) == parseTask) {
+						pendingCompilationUnitMap.remove(iTypeRoot);
+						CompilationUnit compilationUnit = getParsedCompilationUnit(parseTask);
+						IPreferenceStore store = Activator.getDefault().getPreferenceStore();
+						long maximumCacheBytes = (long)store.getInt(PreferenceConstants.P_PROJECT_COMPILATION_UNIT_CACHE_MEMORY_SIZE) * BYTES_PER_MEGABYTE;
+						int compilationUnitBytes = compilationUnit.subtreeBytes();
+						compilationUnitMap.put(iTypeRoot, compilationUnit);
+						compilationUnitSizeMap.put(iTypeRoot, compilationUnitBytes);
+						indexBytesMap.put(compilationUnit, new IndexBytes());
+						cachedBytes += compilationUnitBytes;
+						evictLeastRecentlyUsed(maximumCacheBytes, iTypeRoot);
+						return compilationUnit;
 					}
-					iTypeRootList.add(iTypeRoot);
-					compilationUnitList.add(compilationUnit);
 				}
-				return compilationUnit;
+			}
+			return getParsedCompilationUnit(parseTask);
+		}
+	}
+
+	//waits for the given parse to complete, the parse failures are thrown to every thread waiting for the compilation unit
+	private CompilationUnit getParsedCompilationUnit(FutureTask<CompilationUnit> parseTask) {
+		boolean interrupted = false;
+		try {
+			while(true) {
+				try {
+					return parseTask.get();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					if(cause instanceof RuntimeException)
+						throw (RuntimeException)cause;
+					if(cause instanceof Error)
+						throw (Error)cause;
+					throw new IllegalStateException(cause);
+				}
+			}
+		}
+		finally {
+			if(interrupted)
+				Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Adds the estimated size of the indexes attached to the nodes of a cached CompilationUnit to the size of the cache,
+	 * so that the memory used by the indexes is also bounded by the size of the cache.
+	 * It is invoked by every index query, so it only updates the counter of the compilation unit without taking the monitor of the cache,
+	 * and the added bytes are taken into account by the eviction performed when the next compilation unit is cached.
+	 */
+	public void addIndexBytes(ASTNode root, int bytes) {
+		IndexBytes indexBytes = indexBytesMap.get(root);
+		if(indexBytes != null)
+			indexBytes.add(bytes);
+	}
+
+	private void evictLeastRecentlyUsed(long maximumCacheBytes, ITypeRoot lastAddedTypeRoot) {
+		Iterator<Map.Entry<ITypeRoot, CompilationUnit>> iterator = compilationUnitMap.entrySet().iterator();
+		while(cachedBytes + cachedIndexBytes.get() > maximumCacheBytes && iterator.hasNext()) {
+			Map.Entry<ITypeRoot, CompilationUnit> entry = iterator.next();
+			ITypeRoot typeRoot = entry.getKey();
+			//locked type roots are pinned, and the last added one is always kept even if it exceeds the budget alone
+			if(!lockedTypeRoots.contains(typeRoot) && !typeRoot.equals(lastAddedTypeRoot)) {
+				iterator.remove();
+				cachedBytes -= compilationUnitSizeMap.remove(typeRoot);
+				indexBytesMap.remove(entry.getValue()).discard();
+			}
+		}
+	}
+
+	//the index bytes of an evicted compilation unit are no longer counted, even if its nodes are still queried by a running analysis
+	private class IndexBytes {
+		private long bytes;
+		private boolean discarded;
+
+		synchronized void add(int bytes) {
+			if(!discarded) {
+				this.bytes += bytes;
+				cachedIndexBytes.addAndGet(bytes);
+			}
+		}
+
+		synchronized void discard() {
+			if(!discarded) {
+				discarded = true;
+				cachedIndexBytes.addAndGet(-bytes);
 			}
 		}
 	}
@@ -176,6 +292,7 @@ public class CompilationUnitCache extends Indexer {
 		try {
 			if(compilationUnit.getCorrespondingResource() != null) {
 				changedCompilationUnits.add(compilationUnit);
+				invalidateCompilationUnit(compilationUnit);
 			}
 		} catch (JavaModelException e) {
 			e.printStackTrace();
@@ -186,6 +303,7 @@ public class CompilationUnitCache extends Indexer {
 		try {
 			if(compilationUnit.getCorrespondingResource() != null) {
 				addedCompilationUnits.add(compilationUnit);
+				invalidateSubTypes();
 			}
 		} catch (JavaModelException e) {
 			e.printStackTrace();
@@ -197,12 +315,18 @@ public class CompilationUnitCache extends Indexer {
 			if(compilationUnit.getCorrespondingResource() != null) {
 				addedCompilationUnits.remove(compilationUnit);
 				removedCompilationUnits.add(compilationUnit);
+				invalidateCompilationUnit(compilationUnit);
 			}
 		} catch (JavaModelException e) {
 			e.printStackTrace();
 		}
 	}
 
+	public boolean isAffected(ICompilationUnit compilationUnit) {
+		return changedCompilationUnits.contains(compilationUnit) || addedCompilationUnits.contains(compilationUnit) ||
+				removedCompilationUnits.contains(compilationUnit);
+	}
+
 	public Set<ICompilationUnit> getChangedCompilationUnits() {
 		return changedCompilationUnits;
 	}
@@ -215,17 +339,19 @@ public class CompilationUnitCache extends Indexer {
 		return removedCompilationUnits;
 	}
 
-	public void lock(ITypeRoot iTypeRoot) {
-		if(!lockedTypeRoots.contains(iTypeRoot))
-			lockedTypeRoots.add(iTypeRoot);
+	public synchronized void lock(ITypeRoot iTypeRoot) {
+		lockedTypeRoots.add(iTypeRoot);
 	}
 
 	public void releaseLock() {
-		lockedTypeRoots.clear();
-		usedFieldsForMethodArgumentsMap.clear();
-		definedFieldsForMethodArgumentsMap.clear();
-		usedFieldsForMethodExpressionMap.clear();
-		definedFieldsForMethodExpressionMap.clear();
+		synchronized(this) {
+			lockedTypeRoots.clear();
+		}
+		clearTransitiveSummaries();
+	}
+
+	public synchronized void releaseLock(ITypeRoot iTypeRoot) {
+		lockedTypeRoots.remove(iTypeRoot);
 	}
 
 	public void clearAffectedCompilationUnits() {
@@ -248,9 +374,153 @@ public class CompilationUnitCache extends Indexer {
 		return affectedProjects;
 	}
 
-	public void clearCache() {
+	public synchronized void clearCache() {
+		pendingCompilationUnitMap.clear();
 		lockedTypeRoots.clear();
-		iTypeRootList.clear();
-		compilationUnitList.clear();
+		compilationUnitMap.clear();
+		compilationUnitSizeMap.clear();
+		for(IndexBytes indexBytes : indexBytesMap.values()) {
+			indexBytes.discard();
+		}
+		indexBytesMap.clear();
+		cachedBytes = 0;
+	}
+
+	public boolean isAnalyzed(String methodBindingKey) {
+		loadProjectSnapshot();
+		return super.isAnalyzed(methodBindingKey);
+	}
+
+	public boolean containsMethodArgument(String methodBindingKey, int argPosition) {
+		loadProjectSnapshot();
+		return super.containsMethodArgument(methodBindingKey, argPosition);
+	}
+
+	public Set<IType> getSubTypes(IType superType) {
+		loadProjectSnapshot();
+		return super.getSubTypes(superType);
+	}
+
+	protected void methodIndexed(MethodDeclaration methodDeclaration) {
+		IMethodBinding methodBinding = methodDeclaration.resolveBinding();
+		if(methodBinding != null && methodBinding.getJavaElement() != null) {
+			ICompilationUnit compilationUnit = (ICompilationUnit)methodBinding.getJavaElement().getAncestor(IJavaElement.COMPILATION_UNIT);
+			if(compilationUnit != null) {
+				Set<String> methodBindingKeys = indexedMethodMap.get(compilationUnit);
+				if(methodBindingKeys == null) {
+					methodBindingKeys = new LinkedHashSet<String>();
+					indexedMethodMap.put(compilationUnit, methodBindingKeys);
+				}
+				methodBindingKeys.add(methodBinding.getKey());
+				snapshotModified = true;
+			}
+		}
+	}
+
+	protected void subTypesIndexed(IType superType) {
+		indexedSuperTypes.add(superType);
+		snapshotModified = true;
+	}
+
+	//the entries of the methods declared in the given compilation unit are outdated, the rest of the per-method index is kept,
+	//while the transitive summaries of the methods calling them in other compilation units may be outdated too, so they are discarded
+	private void invalidateCompilationUnit(ICompilationUnit compilationUnit) {
+		synchronized(INDEX_LOCK) {
+			Set<String> methodBindingKeys = indexedMethodMap.remove(compilationUnit);
+			if(methodBindingKeys != null) {
+				for(String methodBindingKey : methodBindingKeys) {
+					removeMethod(methodBindingKey);
+				}
+			}
+			clearTransitiveSummaries();
+			invalidateSubTypes();
+		}
+	}
+
+	//the used and defined fields of method expressions and method arguments and the thrown exception types are collected through the called methods,
+	//so they are kept only until the end of an analysis and they are never persisted
+	private void clearTransitiveSummaries() {
+		synchronized(INDEX_LOCK) {
+			usedFieldsForMethodArgumentsMap.clear();
+			definedFieldsForMethodArgumentsMap.clear();
+			usedFieldsForMethodExpressionMap.clear();
+			definedFieldsForMethodExpressionMap.clear();
+			thrownExceptionTypesForMethodExpressionMap.clear();
+		}
+	}
+
+	//the index of the previous project or call graph analysis depth is discarded after it has been saved
+	private void discardIndexedMethods() {
+		for(Set<String> methodBindingKeys : indexedMethodMap.values()) {
+			for(String methodBindingKey : methodBindingKeys) {
+				removeMethod(methodBindingKey);
+			}
+		}
+		indexedMethodMap.clear();
+		removeSubTypes();
+		indexedSuperTypes.clear();
+		clearTransitiveSummaries();
+	}
+
+	//any change may add or remove subtypes, so the type hierarchy is invalidated as a whole
+	//the overriding methods and the methods invoked through references of every method are resolved through the subtypes,
+	//so they are outdated together with them
+	private void invalidateSubTypes() {
+		synchronized(INDEX_LOCK) {
+			removeSubTypes();
+			removeHierarchyDependentMethodInformation();
+			indexedSuperTypes.clear();
+			snapshotModified = true;
+		}
+	}
+
+	//the methods are analyzed up to the maximum call graph analysis depth, so there is a separate snapshot for every depth
+	private void loadProjectSnapshot() {
+		IJavaProject project = ASTReader.getExaminedProject();
+		IPreferenceStore store = Activator.getDefault().getPreferenceStore();
+		int callGraphAnalysisDepth = store.getInt(PreferenceConstants.P_MAXIMUM_CALL_GRAPH_ANALYSIS_DEPTH);
+		if(project != null && (!project.equals(snapshotProject) || callGraphAnalysisDepth != snapshotCallGraphAnalysisDepth)) {
+			saveProjectSnapshot();
+			discardIndexedMethods();
+			snapshotProject = project;
+			snapshotCallGraphAnalysisDepth = callGraphAnalysisDepth;
+			indexStore.load(project, callGraphAnalysisDepth, this);
+		}
+	}
+
+	//the index maps are serialized, so the snapshot is saved under the same lock that guards their construction
+	public void saveProjectSnapshot() {
+		synchronized(INDEX_LOCK) {
+			if(snapshotProject != null && snapshotModified) {
+				indexStore.save(snapshotProject, snapshotCallGraphAnalysisDepth, this);
+				snapshotModified = false;
+			}
+		}
+	}
+
+	void writeCompilationUnitSummary(IndexerSummaryOutput output, ICompilationUnit compilationUnit) throws IOException {
+		Set<String> methodBindingKeys = indexedMethodMap.get(compilationUnit);
+		if(methodBindingKeys == null)
+			methodBindingKeys = Collections.emptySet();
+		writeSummary(output, methodBindingKeys, Collections.<IType>emptySet(), false);
+	}
+
+	void readCompilationUnitSummary(IndexerSummaryInput input, IJavaProject project, ICompilationUnit compilationUnit) throws IOException {
+		Set<String> methodBindingKeys = new LinkedHashSet<String>();
+		readSummary(input, project, methodBindingKeys, new LinkedHashSet<IType>());
+		Set<String> indexedMethodBindingKeys = indexedMethodMap.get(compilationUnit);
+		if(indexedMethodBindingKeys == null) {
+			indexedMethodBindingKeys = new LinkedHashSet<String>();
+			indexedMethodMap.put(compilationUnit, indexedMethodBindingKeys);
+		}
+		indexedMethodBindingKeys.addAll(methodBindingKeys);
+	}
+
+	void writeHierarchySummary(IndexerSummaryOutput output) throws IOException {
+		writeSummary(output, Collections.<String>emptySet(), indexedSuperTypes, false);
+	}
+
+	void readHierarchySummary(IndexerSummaryInput input, IJavaProject project) throws IOException {
+		readSummary(input, project, new LinkedHashSet<String>(), indexedSuperTypes);
 	}
 }
@@ -4,15 +4,20 @@ import gr.uom.java.ast.decomposition.cfg.AbstractVariable;
 import gr.uom.java.ast.decomposition.cfg.CompositeVariable;
 import gr.uom.java.ast.decomposition.cfg.PlainVariable;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.jdt.core.Flags;
 import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IPackageFragment;
 import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.JavaModelException;
@@ -96,6 +101,7 @@ public class Indexer {
 				searchEngine.search(searchPattern, new SearchParticipant[] {SearchEngine.getDefaultSearchParticipant()},
 						scope, requestor, null);
 				subTypeMap.put(superType, subTypes);
+				subTypesIndexed(superType);
 				for(IType subType: subTypes) {
 					if(Flags.isAbstract(subType.getFlags()) && !subType.equals(superType)) {
 						subTypesOfAbstractSubTypes.addAll(getSubTypes(subType));
@@ -116,6 +122,8 @@ public class Indexer {
 	public void addInvokedMethod(MethodDeclaration originalMethod, MethodDeclaration invokedMethod) {
 		String originalMethodBindingKey = originalMethod.resolveBinding().getKey();
 		String invokedMethodBindingKey = invokedMethod.resolveBinding().getKey();
+		methodIndexed(originalMethod);
+		methodIndexed(invokedMethod);
 		//check if the invoked method is abstract or native
 		if(invokedMethod.getBody() == null)
 			abstractMethodSet.add(invokedMethodBindingKey);
@@ -135,6 +143,8 @@ public class Indexer {
 	public void addInvokedMethodThroughReference(MethodDeclaration originalMethod, MethodDeclaration invokedMethod, PlainVariable fieldReference) {
 		String originalMethodBindingKey = originalMethod.resolveBinding().getKey();
 		String invokedMethodBindingKey = invokedMethod.resolveBinding().getKey();
+		methodIndexed(originalMethod);
+		methodIndexed(invokedMethod);
 		//check if the invoked method is abstract or native
 		if(invokedMethod.getBody() == null)
 			abstractMethodSet.add(invokedMethodBindingKey);
@@ -204,6 +214,8 @@ public class Indexer {
 	public void addOverridingMethod(MethodDeclaration abstractMethod, MethodDeclaration overridingMethod) {
 		String abstractMethodBindingKey = abstractMethod.resolveBinding().getKey();
 		String overridingMethodBindingKey = overridingMethod.resolveBinding().getKey();
+		methodIndexed(abstractMethod);
+		methodIndexed(overridingMethod);
 		//check if the overriding method is abstract or native
 		if(overridingMethod.getBody() == null)
 			abstractMethodSet.add(overridingMethodBindingKey);
@@ -222,16 +234,19 @@ public class Indexer {
 	
 	public void setDefinedFields(MethodDeclaration method, LinkedHashSet<PlainVariable> fields) {
 		String methodBindingKey = method.resolveBinding().getKey();
+		methodIndexed(method);
 		definedFieldMap.put(methodBindingKey, fields);
 	}
 	
 	public void setUsedFields(MethodDeclaration method, LinkedHashSet<PlainVariable> fields) {
 		String methodBindingKey = method.resolveBinding().getKey();
+		methodIndexed(method);
 		usedFieldMap.put(methodBindingKey, fields);
 	}
 	
 	public void setThrownExceptionTypes(MethodDeclaration method, LinkedHashSet<String> exceptionTypes) {
 		String methodBindingKey = method.resolveBinding().getKey();
+		methodIndexed(method);
 		thrownExceptionTypeMap.put(methodBindingKey, exceptionTypes);
 	}
 	
@@ -567,4 +582,198 @@ public class Indexer {
 		}
 		return new LinkedHashSet<AbstractVariable>();
 	}
+
+	//invoked whenever information about the given method is stored, subclasses can track the indexed methods
+	protected void methodIndexed(MethodDeclaration methodDeclaration) {
+	}
+
+	//invoked whenever the subtypes of the given type are stored, subclasses can track the indexed types
+	protected void subTypesIndexed(IType superType) {
+	}
+
+	//removes all the information stored for the given method, subclasses use it to discard outdated entries
+	protected void removeMethod(String methodBindingKey) {
+		methodInvocationMap.remove(methodBindingKey);
+		definedFieldMap.remove(methodBindingKey);
+		usedFieldMap.remove(methodBindingKey);
+		overridingMethodMap.remove(methodBindingKey);
+		methodInvocationThroughReferenceMap.remove(methodBindingKey);
+		abstractMethodSet.remove(methodBindingKey);
+		nativeMethodSet.remove(methodBindingKey);
+		thrownExceptionTypeMap.remove(methodBindingKey);
+		usedFieldsForMethodArgumentsMap.remove(methodBindingKey);
+		definedFieldsForMethodArgumentsMap.remove(methodBindingKey);
+	}
+
+	//removes all the information stored for the methods, subclasses use it to discard an index built with different preferences
+	protected void removeAllMethods() {
+		methodInvocationMap.clear();
+		definedFieldMap.clear();
+		usedFieldMap.clear();
+		overridingMethodMap.clear();
+		methodInvocationThroughReferenceMap.clear();
+		abstractMethodSet.clear();
+		nativeMethodSet.clear();
+		thrownExceptionTypeMap.clear();
+		usedFieldsForMethodArgumentsMap.clear();
+		definedFieldsForMethodArgumentsMap.clear();
+	}
+
+	protected void removeSubTypes() {
+		subTypeMap.clear();
+	}
+
+	//removes the overriding methods and the methods invoked through references, which are resolved through the subtypes of other types
+	protected void removeHierarchyDependentMethodInformation() {
+		overridingMethodMap.clear();
+		methodInvocationThroughReferenceMap.clear();
+	}
+
+	public void writeSummary(IndexerSummaryOutput output, Collection<String> methodBindingKeys, Collection<IType> superTypes) throws IOException {
+		writeSummary(output, methodBindingKeys, superTypes, true);
+	}
+
+	//the fields used and defined through the method arguments are collected through the called methods, which may belong to other
+	//compilation units or libraries, so they are never written. The overriding methods and the methods invoked through references
+	//depend on the subtypes of other types and are written only when includeHierarchyDependent is true
+	protected void writeSummary(IndexerSummaryOutput output, Collection<String> methodBindingKeys, Collection<IType> superTypes, boolean includeHierarchyDependent) throws IOException {
+		output.writeInt(methodBindingKeys.size());
+		for(String methodBindingKey : methodBindingKeys) {
+			output.writeString(methodBindingKey);
+			output.writeBoolean(abstractMethodSet.contains(methodBindingKey));
+			output.writeBoolean(nativeMethodSet.contains(methodBindingKey));
+			writeStrings(output, methodInvocationMap.get(methodBindingKey));
+			writeVariables(output, definedFieldMap.get(methodBindingKey));
+			writeVariables(output, usedFieldMap.get(methodBindingKey));
+			writeStrings(output, includeHierarchyDependent ? overridingMethodMap.get(methodBindingKey) : null);
+			writeStrings(output, thrownExceptionTypeMap.get(methodBindingKey));
+			HashMap<PlainVariable, LinkedHashSet<String>> invokedMethodsThroughReference = includeHierarchyDependent ? methodInvocationThroughReferenceMap.get(methodBindingKey) : null;
+			if(invokedMethodsThroughReference != null) {
+				output.writeInt(invokedMethodsThroughReference.size());
+				for(PlainVariable reference : invokedMethodsThroughReference.keySet()) {
+					output.writeVariable(reference);
+					writeStrings(output, invokedMethodsThroughReference.get(reference));
+				}
+			}
+			else {
+				output.writeInt(-1);
+			}
+		}
+		output.writeInt(superTypes.size());
+		for(IType superType : superTypes) {
+			output.writeString(superType.getFullyQualifiedName('.'));
+			LinkedHashSet<IType> subTypes = subTypeMap.get(superType);
+			output.writeInt(subTypes.size());
+			for(IType subType : subTypes) {
+				output.writeString(subType.getFullyQualifiedName('.'));
+			}
+		}
+	}
+
+	//subtypes are stored by name and resolved again within the given project
+	public void readSummary(IndexerSummaryInput input, IJavaProject project, Set<String> methodBindingKeys, Set<IType> superTypes) throws IOException {
+		int numberOfMethods = input.readInt();
+		for(int i=0; i<numberOfMethods; i++) {
+			String methodBindingKey = input.readString();
+			methodBindingKeys.add(methodBindingKey);
+			if(input.readBoolean())
+				abstractMethodSet.add(methodBindingKey);
+			if(input.readBoolean())
+				nativeMethodSet.add(methodBindingKey);
+			LinkedHashSet<String> invokedMethods = readStrings(input);
+			if(invokedMethods != null)
+				methodInvocationMap.put(methodBindingKey, invokedMethods);
+			LinkedHashSet<PlainVariable> definedFields = readVariables(input);
+			if(definedFields != null)
+				definedFieldMap.put(methodBindingKey, definedFields);
+			LinkedHashSet<PlainVariable> usedFields = readVariables(input);
+			if(usedFields != null)
+				usedFieldMap.put(methodBindingKey, usedFields);
+			LinkedHashSet<String> overridingMethods = readStrings(input);
+			if(overridingMethods != null)
+				overridingMethodMap.put(methodBindingKey, overridingMethods);
+			LinkedHashSet<String> thrownExceptionTypes = readStrings(input);
+			if(thrownExceptionTypes != null)
+				thrownExceptionTypeMap.put(methodBindingKey, thrownExceptionTypes);
+			int numberOfReferences = input.readInt();
+			if(numberOfReferences >= 0) {
+				HashMap<PlainVariable, LinkedHashSet<String>> invokedMethodsThroughReference = new HashMap<PlainVariable, LinkedHashSet<String>>();
+				for(int j=0; j<numberOfReferences; j++) {
+					PlainVariable reference = (PlainVariable)input.readVariable();
+					invokedMethodsThroughReference.put(reference, readStrings(input));
+				}
+				methodInvocationThroughReferenceMap.put(methodBindingKey, invokedMethodsThroughReference);
+			}
+		}
+		int numberOfSuperTypes = input.readInt();
+		for(int i=0; i<numberOfSuperTypes; i++) {
+			String superTypeName = input.readString();
+			int numberOfSubTypes = input.readInt();
+			List<String> subTypeNames = new ArrayList<String>();
+			for(int j=0; j<numberOfSubTypes; j++) {
+				subTypeNames.add(input.readString());
+			}
+			try {
+				IType superType = project.findType(superTypeName);
+				if(superType != null) {
+					LinkedHashSet<IType> subTypes = new LinkedHashSet<IType>();
+					for(String subTypeName : subTypeNames) {
+						IType subType = project.findType(subTypeName);
+						if(subType != null)
+							subTypes.add(subType);
+					}
+					subTypeMap.put(superType, subTypes);
+					superTypes.add(superType);
+				}
+			} catch (JavaModelException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	protected void writeStrings(IndexerSummaryOutput output, Set<String> strings) throws IOException {
+		if(strings != null) {
+			output.writeInt(strings.size());
+			for(String s : strings) {
+				output.writeString(s);
+			}
+		}
+		else {
+			output.writeInt(-1);
+		}
+	}
+
+	protected LinkedHashSet<String> readStrings(IndexerSummaryInput input) throws IOException {
+		int size = input.readInt();
+		if(size < 0)
+			return null;
+		LinkedHashSet<String> strings = new LinkedHashSet<String>();
+		for(int i=0; i<size; i++) {
+			strings.add(input.readString());
+		}
+		return strings;
+	}
+
+	protected void writeVariables(IndexerSummaryOutput output, Set<? extends AbstractVariable> variables) throws IOException {
+		if(variables != null) {
+			output.writeInt(variables.size());
+			for(AbstractVariable variable : variables) {
+				output.writeVariable(variable);
+			}
+		}
+		else {
+			output.writeInt(-1);
+		}
+	}
+
+	private LinkedHashSet<PlainVariable> readVariables(IndexerSummaryInput input) throws IOException {
+		int size = input.readInt();
+		if(size < 0)
+			return null;
+		LinkedHashSet<PlainVariable> variables = new LinkedHashSet<PlainVariable>();
+		for(int i=0; i<size; i++) {
+			variables.add((PlainVariable)input.readVariable());
+		}
+		return variables;
+	}
 }
@@ -0,0 +1,112 @@
+package gr.uom.java.ast;
+
+import gr.uom.java.ast.decomposition.cfg.AbstractVariable;
+import gr.uom.java.ast.decomposition.cfg.CompositeVariable;
+import gr.uom.java.ast.decomposition.cfg.PlainVariable;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Binary reader for the summaries written by IndexerSummaryOutput.
+ * The buffer is typically a memory-mapped file, so only the string table is decoded eagerly.
+ */
+public class IndexerSummaryInput {
+	static final String CHARSET = "UTF-8";
+	static final int FIELD = 1;
+	static final int PARAMETER = 2;
+	static final int STATIC = 4;
+	private String[] stringTable;
+	private ByteBuffer data;
+
+	public IndexerSummaryInput(ByteBuffer buffer) throws IOException {
+		try {
+			int numberOfStrings = buffer.getInt();
+			this.stringTable = new String[numberOfStrings];
+			for(int i=0; i<numberOfStrings; i++) {
+				byte[] bytes = new byte[buffer.getInt()];
+				buffer.get(bytes);
+				stringTable[i] = new String(bytes, CHARSET);
+			}
+			int dataLength = buffer.getInt();
+			if(dataLength > buffer.remaining())
+				throw new IOException("Truncated summary data");
+			this.data = buffer.slice();
+			this.data.limit(dataLength);
+		}
+		catch(BufferUnderflowException e) {
+			throw new IOException("Truncated summary string table");
+		}
+		catch(UnsupportedEncodingException e) {
+			throw new IOException(e.getMessage());
+		}
+	}
+
+	public void seek(int position) throws IOException {
+		if(position < 0 || position > data.limit())
+			throw new IOException("Invalid summary position " + position);
+		data.position(position);
+	}
+
+	public String readString() throws IOException {
+		int index = readInt();
+		if(index < 0 || index >= stringTable.length)
+			throw new IOException("Invalid string index " + index);
+		return stringTable[index];
+	}
+
+	public int readInt() throws IOException {
+		try {
+			return data.getInt();
+		}
+		catch(BufferUnderflowException e) {
+			throw new IOException("Truncated summary data");
+		}
+	}
+
+	public long readLong() throws IOException {
+		try {
+			return data.getLong();
+		}
+		catch(BufferUnderflowException e) {
+			throw new IOException("Truncated summary data");
+		}
+	}
+
+	public boolean readBoolean() throws IOException {
+		try {
+			return data.get() != 0;
+		}
+		catch(BufferUnderflowException e) {
+			throw new IOException("Truncated summary data");
+		}
+	}
+
+	public AbstractVariable readVariable() throws IOException {
+		int numberOfParts = readInt();
+		if(numberOfParts <= 0)
+			throw new IOException("Invalid variable");
+		PlainVariable[] parts = new PlainVariable[numberOfParts];
+		for(int i=0; i<numberOfParts; i++) {
+			String variableBindingKey = readString();
+			String variableName = readString();
+			String variableType = readString();
+			int flags;
+			try {
+				flags = data.get();
+			}
+			catch(BufferUnderflowException e) {
+				throw new IOException("Truncated summary data");
+			}
+			parts[i] = new PlainVariable(variableBindingKey, variableName, variableType,
+					(flags & FIELD) != 0, (flags & PARAMETER) != 0, (flags & STATIC) != 0);
+		}
+		AbstractVariable variable = parts[numberOfParts-1];
+		for(int i=numberOfParts-2; i>=0; i--) {
+			variable = new CompositeVariable(parts[i], variable);
+		}
+		return variable;
+	}
+}
@@ -0,0 +1,94 @@
+package gr.uom.java.ast;
+
+import gr.uom.java.ast.decomposition.cfg.AbstractVariable;
+import gr.uom.java.ast.decomposition.cfg.CompositeVariable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary writer for Indexer summaries. Every string (binding key, variable name, type name) is interned
+ * in a string table that is written once in front of the data, and the data refers to it by index.
+ */
+public class IndexerSummaryOutput {
+	private Map<String, Integer> stringIndexMap;
+	private List<String> stringTable;
+	private ByteArrayOutputStream buffer;
+	private DataOutputStream data;
+
+	public IndexerSummaryOutput() {
+		this.stringIndexMap = new HashMap<String, Integer>();
+		this.stringTable = new ArrayList<String>();
+		this.buffer = new ByteArrayOutputStream();
+		this.data = new DataOutputStream(buffer);
+	}
+
+	public void writeString(String s) throws IOException {
+		Integer index = stringIndexMap.get(s);
+		if(index == null) {
+			index = stringTable.size();
+			stringIndexMap.put(s, index);
+			stringTable.add(s);
+		}
+		data.writeInt(index);
+	}
+
+	public void writeInt(int i) throws IOException {
+		data.writeInt(i);
+	}
+
+	public void writeLong(long l) throws IOException {
+		data.writeLong(l);
+	}
+
+	public void writeBoolean(boolean b) throws IOException {
+		data.writeBoolean(b);
+	}
+
+	public void writeVariable(AbstractVariable variable) throws IOException {
+		//a composite variable "one.two.three" is written as the sequence of its plain parts
+		List<AbstractVariable> parts = new ArrayList<AbstractVariable>();
+		AbstractVariable current = variable;
+		while(current instanceof CompositeVariable) {
+			parts.add(current);
+			current = ((CompositeVariable)current).getRightPart();
+		}
+		parts.add(current);
+		data.writeInt(parts.size());
+		for(AbstractVariable part : parts) {
+			writeString(part.getVariableBindingKey());
+			writeString(part.getVariableName());
+			writeString(part.getVariableType());
+			int flags = 0;
+			if(part.isField())
+				flags |= IndexerSummaryInput.FIELD;
+			if(part.isParameter())
+				flags |= IndexerSummaryInput.PARAMETER;
+			if(part.isStatic())
+				flags |= IndexerSummaryInput.STATIC;
+			data.writeByte(flags);
+		}
+	}
+
+	//number of data bytes written so far, it can be used as a position for IndexerSummaryInput.seek()
+	public int size() {
+		return data.size();
+	}
+
+	public void writeTo(DataOutputStream out) throws IOException {
+		data.flush();
+		out.writeInt(stringTable.size());
+		for(String s : stringTable) {
+			byte[] bytes = s.getBytes(IndexerSummaryInput.CHARSET);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+		out.writeInt(buffer.size());
+		buffer.writeTo(out);
+	}
+}
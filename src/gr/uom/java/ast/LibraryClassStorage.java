@@ -3,39 +3,67 @@ package gr.uom.java.ast;
 import gr.uom.java.jdeodorant.preferences.PreferenceConstants;
 import gr.uom.java.jdeodorant.refactoring.Activator;
 
+import java.io.File;
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
-import java.util.LinkedList;
+import java.util.Map;
 import java.util.Set;
 
+import org.eclipse.core.resources.IResource;
 import org.eclipse.jdt.core.IClassFile;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.dom.ASTParser;
 import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.IMethodBinding;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
 import org.eclipse.jface.preference.IPreferenceStore;
 
 public class LibraryClassStorage extends Indexer {
 	private static LibraryClassStorage instance;
-	private LinkedList<IClassFile> iClassFileList;
-	private LinkedList<CompilationUnit> compilationUnitList;
+	//access-ordered map, the CompilationUnits are softly referenced so that they can be reclaimed under memory pressure
+	private LinkedHashMap<IClassFile, SoftReference<CompilationUnit>> compilationUnitMap;
 	private Set<IClassFile> unMatchedClassFiles;
+	private LibrarySummaryStore summaryStore;
+	private IJavaProject summaryProject;
+	private int summaryCallGraphAnalysisDepth;
+	private Set<File> loadedLibraries;
+	private Set<File> modifiedLibraries;
+	//File key corresponds to the location of the library, String value corresponds to MethodDeclaration.resolveBinding.getKey()
+	private Map<File, Set<String>> indexedMethodMap;
+	private Map<File, Set<IType>> indexedSuperTypeMap;
 	
 	private LibraryClassStorage() {
 		super();
-		this.iClassFileList = new LinkedList<IClassFile>();
-		this.compilationUnitList = new LinkedList<CompilationUnit>();
+		this.compilationUnitMap = new LinkedHashMap<IClassFile, SoftReference<CompilationUnit>>(16, 0.75f, true);
 		this.unMatchedClassFiles = new LinkedHashSet<IClassFile>();
+		this.summaryStore = new LibrarySummaryStore(LibrarySummaryStore.getDefaultDirectory());
+		this.loadedLibraries = new LinkedHashSet<File>();
+		this.modifiedLibraries = new LinkedHashSet<File>();
+		this.indexedMethodMap = new HashMap<File, Set<String>>();
+		this.indexedSuperTypeMap = new HashMap<File, Set<IType>>();
+		IPreferenceStore store = Activator.getDefault().getPreferenceStore();
+		this.summaryCallGraphAnalysisDepth = store.getInt(PreferenceConstants.P_MAXIMUM_CALL_GRAPH_ANALYSIS_DEPTH);
 	}
 	
-	public static LibraryClassStorage getInstance() {
+	public static synchronized LibraryClassStorage getInstance() {
 		if(instance == null) {
 			instance = new LibraryClassStorage();
 		}
 		return instance;
 	}
 	
-	public CompilationUnit getCompilationUnit(IClassFile classFile) {
-		if(iClassFileList.contains(classFile)) {
-			int position = iClassFileList.indexOf(classFile);
-			return compilationUnitList.get(position);
+	public synchronized CompilationUnit getCompilationUnit(IClassFile classFile) {
+		SoftReference<CompilationUnit> reference = compilationUnitMap.get(classFile);
+		CompilationUnit cachedCompilationUnit = reference != null ? reference.get() : null;
+		if(cachedCompilationUnit != null) {
+			return cachedCompilationUnit;
 		}
 		else {
 			CompilationUnit compilationUnit = null;
@@ -48,16 +76,8 @@ public class LibraryClassStorage extends Indexer {
 					
 					IPreferenceStore store = Activator.getDefault().getPreferenceStore();
 					int maximumCacheSize = store.getInt(PreferenceConstants.P_LIBRARY_COMPILATION_UNIT_CACHE_SIZE);
-					if(iClassFileList.size() < maximumCacheSize) {
-						iClassFileList.add(classFile);
-						compilationUnitList.add(compilationUnit);
-					}
-					else {
-						iClassFileList.removeFirst();
-						compilationUnitList.removeFirst();
-						iClassFileList.add(classFile);
-						compilationUnitList.add(compilationUnit);
-					}
+					compilationUnitMap.put(classFile, new SoftReference<CompilationUnit>(compilationUnit));
+					evictLeastRecentlyUsed(maximumCacheSize);
 				}
 			}
 			catch(IllegalStateException e) {
@@ -66,4 +86,145 @@ public class LibraryClassStorage extends Indexer {
 			return compilationUnit;
 		}
 	}
+
+	private void evictLeastRecentlyUsed(int maximumCacheSize) {
+		Iterator<SoftReference<CompilationUnit>> iterator = compilationUnitMap.values().iterator();
+		while(iterator.hasNext()) {
+			//entries already reclaimed by the garbage collector are removed first
+			if(iterator.next().get() == null)
+				iterator.remove();
+		}
+		iterator = compilationUnitMap.values().iterator();
+		while(compilationUnitMap.size() > maximumCacheSize && iterator.hasNext()) {
+			iterator.next();
+			iterator.remove();
+		}
+	}
+
+	public boolean isAnalyzed(String methodBindingKey) {
+		loadLibrarySummaries();
+		return super.isAnalyzed(methodBindingKey);
+	}
+
+	public boolean containsMethodArgument(String methodBindingKey, int argPosition) {
+		loadLibrarySummaries();
+		return super.containsMethodArgument(methodBindingKey, argPosition);
+	}
+
+	public Set<IType> getSubTypes(IType superType) {
+		loadLibrarySummaries();
+		return super.getSubTypes(superType);
+	}
+
+	protected void methodIndexed(MethodDeclaration methodDeclaration) {
+		IMethodBinding methodBinding = methodDeclaration.resolveBinding();
+		if(methodBinding != null && methodBinding.getJavaElement() != null) {
+			File library = getLibraryLocation(methodBinding.getJavaElement());
+			if(library != null) {
+				Set<String> methodBindingKeys = indexedMethodMap.get(library);
+				if(methodBindingKeys == null) {
+					methodBindingKeys = new LinkedHashSet<String>();
+					indexedMethodMap.put(library, methodBindingKeys);
+				}
+				methodBindingKeys.add(methodBinding.getKey());
+				modifiedLibraries.add(library);
+			}
+		}
+	}
+
+	protected void subTypesIndexed(IType superType) {
+		File library = getLibraryLocation(superType);
+		if(library != null) {
+			Set<IType> superTypes = indexedSuperTypeMap.get(library);
+			if(superTypes == null) {
+				superTypes = new LinkedHashSet<IType>();
+				indexedSuperTypeMap.put(library, superTypes);
+			}
+			superTypes.add(superType);
+			modifiedLibraries.add(library);
+		}
+	}
+
+	private File getLibraryLocation(IJavaElement element) {
+		IPackageFragmentRoot root = (IPackageFragmentRoot)element.getAncestor(IJavaElement.PACKAGE_FRAGMENT_ROOT);
+		if(root != null && root.isArchive()) {
+			IResource resource = root.getResource();
+			if(resource != null && resource.getLocation() != null)
+				return resource.getLocation().toFile();
+			return root.getPath().toFile();
+		}
+		return null;
+	}
+
+	//the summaries fill the same maps as the PDG construction, so they are loaded while holding the lock that guards these maps
+	private void loadLibrarySummaries() {
+		synchronized(CompilationUnitCache.INDEX_LOCK) {
+			IJavaProject project = ASTReader.getExaminedProject();
+			IPreferenceStore store = Activator.getDefault().getPreferenceStore();
+			int callGraphAnalysisDepth = store.getInt(PreferenceConstants.P_MAXIMUM_CALL_GRAPH_ANALYSIS_DEPTH);
+			if(callGraphAnalysisDepth != summaryCallGraphAnalysisDepth) {
+				//the summaries of the previous depth are saved and discarded, and the summaries of the new depth are loaded
+				saveLibrarySummaries();
+				discardIndexedMethods();
+				summaryCallGraphAnalysisDepth = callGraphAnalysisDepth;
+				summaryProject = null;
+			}
+			if(project != null && !project.equals(summaryProject)) {
+				summaryProject = project;
+				try {
+					for(IPackageFragmentRoot root : project.getPackageFragmentRoots()) {
+						File library = getLibraryLocation(root);
+						if(library != null && !loadedLibraries.contains(library)) {
+							loadedLibraries.add(library);
+							Set<String> methodBindingKeys = new LinkedHashSet<String>();
+							Set<IType> superTypes = new LinkedHashSet<IType>();
+							if(summaryStore.load(library, summaryCallGraphAnalysisDepth, this, project, methodBindingKeys, superTypes)) {
+								addIndexedElements(library, methodBindingKeys, superTypes);
+							}
+						}
+					}
+				} catch (JavaModelException e) {
+					e.printStackTrace();
+				}
+			}
+		}
+	}
+
+	private void discardIndexedMethods() {
+		removeAllMethods();
+		removeSubTypes();
+		indexedMethodMap.clear();
+		indexedSuperTypeMap.clear();
+		loadedLibraries.clear();
+	}
+
+	private void addIndexedElements(File library, Set<String> methodBindingKeys, Set<IType> superTypes) {
+		Set<String> indexedMethods = indexedMethodMap.get(library);
+		if(indexedMethods == null) {
+			indexedMethods = new LinkedHashSet<String>();
+			indexedMethodMap.put(library, indexedMethods);
+		}
+		indexedMethods.addAll(methodBindingKeys);
+		Set<IType> indexedSuperTypes = indexedSuperTypeMap.get(library);
+		if(indexedSuperTypes == null) {
+			indexedSuperTypes = new LinkedHashSet<IType>();
+			indexedSuperTypeMap.put(library, indexedSuperTypes);
+		}
+		indexedSuperTypes.addAll(superTypes);
+	}
+
+	public void saveLibrarySummaries() {
+		synchronized(CompilationUnitCache.INDEX_LOCK) {
+			for(File library : modifiedLibraries) {
+				Set<String> methodBindingKeys = indexedMethodMap.get(library);
+				if(methodBindingKeys == null)
+					methodBindingKeys = new LinkedHashSet<String>();
+				Set<IType> superTypes = indexedSuperTypeMap.get(library);
+				if(superTypes == null)
+					superTypes = new LinkedHashSet<IType>();
+				summaryStore.save(library, summaryCallGraphAnalysisDepth, this, methodBindingKeys, superTypes);
+			}
+			modifiedLibraries.clear();
+		}
+	}
 }
@@ -0,0 +1,148 @@
+package gr.uom.java.ast;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IType;
+
+/**
+ * Persistent store of the library summaries collected by LibraryClassStorage.
+ * There is one file per library, named after the library path and the checksum of its contents,
+ * so a summary is reused across sessions and workspaces as long as the library is unchanged.
+ * The methods are analyzed up to the maximum call graph analysis depth, so there is one summary per library and depth.
+ */
+public class LibrarySummaryStore {
+	private static final int MAGIC = 0x4A444C53;
+	private static final int VERSION = 3;
+	private static final String SUMMARY_FILE_EXTENSION = ".summary";
+	private File directory;
+	//key is library path + length + last modification time, so that the checksum is computed once per session
+	private Map<String, Long> checksumMap;
+
+	public LibrarySummaryStore(File directory) {
+		this.directory = directory;
+		this.checksumMap = new HashMap<String, Long>();
+	}
+
+	public static File getDefaultDirectory() {
+		return new File(System.getProperty("user.home"), ".jdeodorant" + File.separator + "library-summaries");
+	}
+
+	public long getChecksum(File library) throws IOException {
+		String key = library.getAbsolutePath() + ":" + library.length() + ":" + library.lastModified();
+		Long checksum = checksumMap.get(key);
+		if(checksum == null) {
+			CRC32 crc = new CRC32();
+			InputStream in = new BufferedInputStream(new FileInputStream(library));
+			try {
+				byte[] buffer = new byte[8192];
+				int read;
+				while((read = in.read(buffer)) != -1) {
+					crc.update(buffer, 0, read);
+				}
+			}
+			finally {
+				in.close();
+			}
+			checksum = crc.getValue();
+			checksumMap.put(key, checksum);
+		}
+		return checksum;
+	}
+
+	private File getSummaryFile(File library, long checksum, int callGraphAnalysisDepth) {
+		String libraryPath = library.getAbsolutePath();
+		return new File(directory, library.getName() + "-" + Integer.toHexString(libraryPath.hashCode()) + "-" +
+				Long.toHexString(checksum) + "-" + callGraphAnalysisDepth + SUMMARY_FILE_EXTENSION);
+	}
+
+	public boolean load(File library, int callGraphAnalysisDepth, Indexer indexer, IJavaProject project, Set<String> methodBindingKeys, Set<IType> superTypes) {
+		if(!library.isFile())
+			return false;
+		File summaryFile = null;
+		try {
+			long checksum = getChecksum(library);
+			summaryFile = getSummaryFile(library, checksum, callGraphAnalysisDepth);
+			if(!summaryFile.isFile())
+				return false;
+			RandomAccessFile file = new RandomAccessFile(summaryFile, "r");
+			try {
+				FileChannel channel = file.getChannel();
+				MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+				if(buffer.getInt() != MAGIC || buffer.getInt() != VERSION)
+					throw new IOException("Unsupported summary format " + summaryFile);
+				byte[] pathBytes = new byte[buffer.getInt()];
+				buffer.get(pathBytes);
+				String libraryPath = new String(pathBytes, IndexerSummaryInput.CHARSET);
+				if(!libraryPath.equals(library.getAbsolutePath()) || buffer.getLong() != checksum || buffer.getInt() != callGraphAnalysisDepth)
+					return false;
+				IndexerSummaryInput input = new IndexerSummaryInput(buffer.slice());
+				indexer.readSummary(input, project, methodBindingKeys, superTypes);
+				return true;
+			}
+			finally {
+				file.close();
+			}
+		} catch (IOException e) {
+			//corrupted or outdated summary, it will be rewritten on the next save
+			if(summaryFile != null)
+				summaryFile.delete();
+		} catch (RuntimeException e) {
+			if(summaryFile != null)
+				summaryFile.delete();
+		}
+		return false;
+	}
+
+	public void save(File library, int callGraphAnalysisDepth, Indexer indexer, Collection<String> methodBindingKeys, Collection<IType> superTypes) {
+		if(!library.isFile())
+			return;
+		try {
+			long checksum = getChecksum(library);
+			if(!directory.isDirectory() && !directory.mkdirs())
+				return;
+			IndexerSummaryOutput output = new IndexerSummaryOutput();
+			indexer.writeSummary(output, methodBindingKeys, superTypes);
+			File summaryFile = getSummaryFile(library, checksum, callGraphAnalysisDepth);
+			File temporaryFile = new File(directory, summaryFile.getName() + ".tmp");
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporaryFile)));
+			try {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				byte[] pathBytes = library.getAbsolutePath().getBytes(IndexerSummaryInput.CHARSET);
+				out.writeInt(pathBytes.length);
+				out.write(pathBytes);
+				out.writeLong(checksum);
+				out.writeInt(callGraphAnalysisDepth);
+				output.writeTo(out);
+			}
+			finally {
+				out.close();
+			}
+			//the summary is written to a temporary file first, so that a partially written summary is never loaded
+			if(summaryFile.exists() && !summaryFile.delete()) {
+				temporaryFile.delete();
+				return;
+			}
+			if(!temporaryFile.renameTo(summaryFile))
+				temporaryFile.delete();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+}
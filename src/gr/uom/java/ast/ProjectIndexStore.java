@@ -0,0 +1,171 @@
+package gr.uom.java.ast;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaCore;
+
+/**
+ * Persistent snapshot of the information indexed by CompilationUnitCache for a project.
+ * The entries are grouped by declaring compilation unit and every group is stored together with the
+ * modification stamp of its compilation unit, so that only the groups of the changed compilation units are discarded on load.
+ * The methods are analyzed up to the maximum call graph analysis depth, so there is one snapshot per project and depth.
+ */
+public class ProjectIndexStore {
+	private static final int MAGIC = 0x4A445053;
+	private static final int VERSION = 3;
+	private static final String SNAPSHOT_FILE_EXTENSION = ".snapshot";
+	private File directory;
+
+	public ProjectIndexStore(File directory) {
+		this.directory = directory;
+	}
+
+	public static File getDefaultDirectory() {
+		return new File(System.getProperty("user.home"), ".jdeodorant" + File.separator + "project-snapshots");
+	}
+
+	private String getProjectPath(IJavaProject project) {
+		IResource resource = project.getResource();
+		if(resource != null && resource.getLocation() != null)
+			return resource.getLocation().toOSString();
+		return project.getPath().toString();
+	}
+
+	private File getSnapshotFile(IJavaProject project, int callGraphAnalysisDepth) {
+		String projectPath = getProjectPath(project);
+		return new File(directory, project.getElementName() + "-" + Integer.toHexString(projectPath.hashCode()) + "-" +
+				callGraphAnalysisDepth + SNAPSHOT_FILE_EXTENSION);
+	}
+
+	private long getModificationStamp(ICompilationUnit compilationUnit) {
+		IResource resource = compilationUnit.getResource();
+		if(resource != null)
+			return resource.getModificationStamp();
+		return IResource.NULL_STAMP;
+	}
+
+	public boolean load(IJavaProject project, int callGraphAnalysisDepth, CompilationUnitCache cache) {
+		File snapshotFile = getSnapshotFile(project, callGraphAnalysisDepth);
+		if(!snapshotFile.isFile())
+			return false;
+		try {
+			RandomAccessFile file = new RandomAccessFile(snapshotFile, "r");
+			try {
+				FileChannel channel = file.getChannel();
+				MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+				if(buffer.getInt() != MAGIC || buffer.getInt() != VERSION)
+					throw new IOException("Unsupported snapshot format " + snapshotFile);
+				byte[] pathBytes = new byte[buffer.getInt()];
+				buffer.get(pathBytes);
+				String projectPath = new String(pathBytes, IndexerSummaryInput.CHARSET);
+				if(!projectPath.equals(getProjectPath(project)))
+					return false;
+				int indexPosition = buffer.getInt();
+				IndexerSummaryInput input = new IndexerSummaryInput(buffer.slice());
+				input.seek(indexPosition);
+				int numberOfCompilationUnits = input.readInt();
+				//the record positions are collected first, so that the index is read sequentially
+				Map<ICompilationUnit, Integer> validRecordMap = new LinkedHashMap<ICompilationUnit, Integer>();
+				boolean allCompilationUnitsUnchanged = true;
+				for(int i=0; i<numberOfCompilationUnits; i++) {
+					String handleIdentifier = input.readString();
+					long modificationStamp = input.readLong();
+					int recordPosition = input.readInt();
+					IJavaElement element = JavaCore.create(handleIdentifier);
+					if(element instanceof ICompilationUnit && element.exists() &&
+							getModificationStamp((ICompilationUnit)element) == modificationStamp &&
+							!cache.isAffected((ICompilationUnit)element)) {
+						validRecordMap.put((ICompilationUnit)element, recordPosition);
+					}
+					else {
+						allCompilationUnitsUnchanged = false;
+					}
+				}
+				int hierarchyPosition = input.readInt();
+				for(ICompilationUnit compilationUnit : validRecordMap.keySet()) {
+					input.seek(validRecordMap.get(compilationUnit));
+					cache.readCompilationUnitSummary(input, project, compilationUnit);
+				}
+				//the type hierarchy spans all compilation units, it is reused only if none of them has been changed, added or removed
+				if(allCompilationUnitsUnchanged && ASTReader.getCompilationUnits(project).size() == numberOfCompilationUnits) {
+					input.seek(hierarchyPosition);
+					cache.readHierarchySummary(input, project);
+				}
+				return true;
+			}
+			finally {
+				file.close();
+			}
+		} catch (IOException e) {
+			//corrupted or outdated snapshot, it will be rewritten on the next save
+			snapshotFile.delete();
+		} catch (RuntimeException e) {
+			snapshotFile.delete();
+		}
+		return false;
+	}
+
+	public void save(IJavaProject project, int callGraphAnalysisDepth, CompilationUnitCache cache) {
+		try {
+			if(!directory.isDirectory() && !directory.mkdirs())
+				return;
+			IndexerSummaryOutput output = new IndexerSummaryOutput();
+			List<ICompilationUnit> compilationUnits = ASTReader.getCompilationUnits(project);
+			List<Integer> recordPositions = new ArrayList<Integer>();
+			for(ICompilationUnit compilationUnit : compilationUnits) {
+				recordPositions.add(output.size());
+				cache.writeCompilationUnitSummary(output, compilationUnit);
+			}
+			int hierarchyPosition = output.size();
+			cache.writeHierarchySummary(output);
+			int indexPosition = output.size();
+			output.writeInt(compilationUnits.size());
+			for(int i=0; i<compilationUnits.size(); i++) {
+				ICompilationUnit compilationUnit = compilationUnits.get(i);
+				output.writeString(compilationUnit.getHandleIdentifier());
+				output.writeLong(getModificationStamp(compilationUnit));
+				output.writeInt(recordPositions.get(i));
+			}
+			output.writeInt(hierarchyPosition);
+			File snapshotFile = getSnapshotFile(project, callGraphAnalysisDepth);
+			File temporaryFile = new File(directory, snapshotFile.getName() + ".tmp");
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporaryFile)));
+			try {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				byte[] pathBytes = getProjectPath(project).getBytes(IndexerSummaryInput.CHARSET);
+				out.writeInt(pathBytes.length);
+				out.write(pathBytes);
+				out.writeInt(indexPosition);
+				output.writeTo(out);
+			}
+			finally {
+				out.close();
+			}
+			//the snapshot is written to a temporary file first, so that a partially written snapshot is never loaded
+			if(snapshotFile.exists() && !snapshotFile.delete()) {
+				temporaryFile.delete();
+				return;
+			}
+			if(!temporaryFile.renameTo(snapshotFile))
+				temporaryFile.delete();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+}
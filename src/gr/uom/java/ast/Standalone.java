@@ -1,24 +1,18 @@
 package gr.uom.java.ast;
 
-import gr.uom.java.ast.decomposition.cfg.CFG;
-import gr.uom.java.ast.decomposition.cfg.PDG;
-import gr.uom.java.ast.decomposition.cfg.PDGObjectSliceUnion;
-import gr.uom.java.ast.decomposition.cfg.PDGObjectSliceUnionCollection;
-import gr.uom.java.ast.decomposition.cfg.PDGSliceUnion;
-import gr.uom.java.ast.decomposition.cfg.PDGSliceUnionCollection;
-import gr.uom.java.ast.decomposition.cfg.PlainVariable;
-import gr.uom.java.ast.util.StatementExtractor;
+import gr.uom.java.ast.decomposition.cfg.mapping.CloneGroupRefactorabilityAnalysis;
+import gr.uom.java.ast.decomposition.cfg.mapping.ClonePairRefactorabilityResult;
 import gr.uom.java.distance.DistanceMatrix;
 import gr.uom.java.distance.ExtractClassCandidateRefactoring;
 import gr.uom.java.distance.ExtractClassCandidateGroup;
 import gr.uom.java.distance.MoveMethodCandidateRefactoring;
 import gr.uom.java.distance.MySystem;
-import gr.uom.java.jdeodorant.preferences.PreferenceConstants;
-import gr.uom.java.jdeodorant.refactoring.Activator;
-import gr.uom.java.jdeodorant.refactoring.manipulators.ASTSlice;
 import gr.uom.java.jdeodorant.refactoring.manipulators.ASTSliceGroup;
+import gr.uom.java.jdeodorant.refactoring.manipulators.ASTSliceGroupIdentification;
 import gr.uom.java.jdeodorant.refactoring.manipulators.TypeCheckEliminationGroup;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -29,9 +23,8 @@ import java.util.Set;
 import java.util.TreeSet;
 
 import org.eclipse.jdt.core.IJavaProject;
-import org.eclipse.jdt.core.ITypeRoot;
-import org.eclipse.jdt.core.dom.VariableDeclaration;
-import org.eclipse.jface.preference.IPreferenceStore;
+
+import ca.concordia.jdeodorant.clone.parsers.CloneGroupList;
 
 public class Standalone {
 
@@ -164,94 +157,48 @@ public class Standalone {
 			Set<ClassObject> classObjectsToBeExamined = new LinkedHashSet<ClassObject>();
 			classObjectsToBeExamined.addAll(systemObject.getClassObjects());
 			
+			ASTSliceGroupIdentification identification = new ASTSliceGroupIdentification();
 			for(ClassObject classObject : classObjectsToBeExamined) {
 				if(!classObject.isEnum() && !classObject.isInterface() && !classObject.isGeneratedByParserGenenator()) {
 					ListIterator<MethodObject> methodIterator = classObject.getMethodIterator();
 					while(methodIterator.hasNext()) {
 						MethodObject methodObject = methodIterator.next();
-						processMethod(extractedSliceGroups,classObject, methodObject);
+						identification.addMethod(classObject, methodObject);
 					}
 				}
 			}
+			identification.identifySliceGroups(extractedSliceGroups, null);
 		}
 		return extractedSliceGroups;
 	}
-	
-	private static void processMethod(Set<ASTSliceGroup> extractedSliceGroups, ClassObject classObject, MethodObject methodObject) {
-		if(methodObject.getMethodBody() != null) {
-			IPreferenceStore store = Activator.getDefault().getPreferenceStore();
-			int minimumMethodSize = store.getInt(PreferenceConstants.P_MINIMUM_METHOD_SIZE);
-			StatementExtractor statementExtractor = new StatementExtractor();
-			int numberOfStatements = statementExtractor.getTotalNumberOfStatements(methodObject.getMethodBody().getCompositeStatement().getStatement());
-			if(numberOfStatements >= minimumMethodSize) {
-				ITypeRoot typeRoot = classObject.getITypeRoot();
-				CompilationUnitCache.getInstance().lock(typeRoot);
-				CFG cfg = new CFG(methodObject);
-				PDG pdg = new PDG(cfg, classObject.getIFile(), classObject.getFieldsAccessedInsideMethod(methodObject), null);
-				for(VariableDeclaration declaration : pdg.getVariableDeclarationsInMethod()) {
-					PlainVariable variable = new PlainVariable(declaration);
-					PDGSliceUnionCollection sliceUnionCollection = new PDGSliceUnionCollection(pdg, variable);
-					double sumOfExtractedStatementsInGroup = 0.0;
-					double sumOfDuplicatedStatementsInGroup = 0.0;
-					double sumOfDuplicationRatioInGroup = 0.0;
-					int maximumNumberOfExtractedStatementsInGroup = 0;
-					int groupSize = sliceUnionCollection.getSliceUnions().size();
-					ASTSliceGroup sliceGroup = new ASTSliceGroup();
-					for(PDGSliceUnion sliceUnion : sliceUnionCollection.getSliceUnions()) {
-						ASTSlice slice = new ASTSlice(sliceUnion);
-						if(!slice.isVariableCriterionDeclarationStatementIsDeeperNestedThanExtractedMethodInvocationInsertionStatement()) {
-							int numberOfExtractedStatements = slice.getNumberOfSliceStatements();
-							int numberOfDuplicatedStatements = slice.getNumberOfDuplicatedStatements();
-							double duplicationRatio = (double)numberOfDuplicatedStatements/(double)numberOfExtractedStatements;
-							sumOfExtractedStatementsInGroup += numberOfExtractedStatements;
-							sumOfDuplicatedStatementsInGroup += numberOfDuplicatedStatements;
-							sumOfDuplicationRatioInGroup += duplicationRatio;
-							if(numberOfExtractedStatements > maximumNumberOfExtractedStatementsInGroup)
-								maximumNumberOfExtractedStatementsInGroup = numberOfExtractedStatements;
-							sliceGroup.addCandidate(slice);
-						}
-					}
-					if(!sliceGroup.getCandidates().isEmpty()) {
-						sliceGroup.setAverageNumberOfExtractedStatementsInGroup(sumOfExtractedStatementsInGroup/(double)groupSize);
-						sliceGroup.setAverageNumberOfDuplicatedStatementsInGroup(sumOfDuplicatedStatementsInGroup/(double)groupSize);
-						sliceGroup.setAverageDuplicationRatioInGroup(sumOfDuplicationRatioInGroup/(double)groupSize);
-						sliceGroup.setMaximumNumberOfExtractedStatementsInGroup(maximumNumberOfExtractedStatementsInGroup);
-						extractedSliceGroups.add(sliceGroup);
-					}
-				}
-				for(VariableDeclaration declaration : pdg.getVariableDeclarationsAndAccessedFieldsInMethod()) {
-					PlainVariable variable = new PlainVariable(declaration);
-					PDGObjectSliceUnionCollection objectSliceUnionCollection = new PDGObjectSliceUnionCollection(pdg, variable);
-					double sumOfExtractedStatementsInGroup = 0.0;
-					double sumOfDuplicatedStatementsInGroup = 0.0;
-					double sumOfDuplicationRatioInGroup = 0.0;
-					int maximumNumberOfExtractedStatementsInGroup = 0;
-					int groupSize = objectSliceUnionCollection.getSliceUnions().size();
-					ASTSliceGroup sliceGroup = new ASTSliceGroup();
-					for(PDGObjectSliceUnion objectSliceUnion : objectSliceUnionCollection.getSliceUnions()) {
-						ASTSlice slice = new ASTSlice(objectSliceUnion);
-						if(!slice.isVariableCriterionDeclarationStatementIsDeeperNestedThanExtractedMethodInvocationInsertionStatement()) {
-							int numberOfExtractedStatements = slice.getNumberOfSliceStatements();
-							int numberOfDuplicatedStatements = slice.getNumberOfDuplicatedStatements();
-							double duplicationRatio = (double)numberOfDuplicatedStatements/(double)numberOfExtractedStatements;
-							sumOfExtractedStatementsInGroup += numberOfExtractedStatements;
-							sumOfDuplicatedStatementsInGroup += numberOfDuplicatedStatements;
-							sumOfDuplicationRatioInGroup += duplicationRatio;
-							if(numberOfExtractedStatements > maximumNumberOfExtractedStatementsInGroup)
-								maximumNumberOfExtractedStatementsInGroup = numberOfExtractedStatements;
-							sliceGroup.addCandidate(slice);
-						}
-					}
-					if(!sliceGroup.getCandidates().isEmpty()) {
-						sliceGroup.setAverageNumberOfExtractedStatementsInGroup(sumOfExtractedStatementsInGroup/(double)groupSize);
-						sliceGroup.setAverageNumberOfDuplicatedStatementsInGroup(sumOfDuplicatedStatementsInGroup/(double)groupSize);
-						sliceGroup.setAverageDuplicationRatioInGroup(sumOfDuplicationRatioInGroup/(double)groupSize);
-						sliceGroup.setMaximumNumberOfExtractedStatementsInGroup(maximumNumberOfExtractedStatementsInGroup);
-						extractedSliceGroups.add(sliceGroup);
-					}
+
+	public static List<ClonePairRefactorabilityResult> getClonePairRefactorabilityResults(CloneGroupList cloneGroupList, File outputFile) {
+		IJavaProject project = cloneGroupList.getJavaProject();
+		CompilationUnitCache.getInstance().clearCache();
+		try {
+			if(ASTReader.getSystemObject() != null && project.equals(ASTReader.getExaminedProject())) {
+				new ASTReader(project, ASTReader.getSystemObject(), null);
+			}
+			else {
+				new ASTReader(project, null);
+			}
+		}
+		catch(CompilationErrorDetectedException e) {
+			e.printStackTrace();
+		}
+		List<ClonePairRefactorabilityResult> results = new ArrayList<ClonePairRefactorabilityResult>();
+		if(ASTReader.getSystemObject() != null) {
+			CloneGroupRefactorabilityAnalysis analysis = new CloneGroupRefactorabilityAnalysis(cloneGroupList);
+			analysis.analyze(null);
+			results.addAll(analysis.getResults());
+			if(outputFile != null) {
+				try {
+					analysis.writeResults(outputFile);
+				} catch (IOException e) {
+					e.printStackTrace();
 				}
-				CompilationUnitCache.getInstance().releaseLock();
 			}
 		}
+		return results;
 	}
 }
@@ -47,27 +47,47 @@ import org.eclipse.jdt.core.dom.VariableDeclarationStatement;
 
 public class SystemObject {
 
+    //the removed classes are replaced with null until the list is compacted
     private List<ClassObject> classList;
+    private int numberOfRemovedClasses;
     //Map that has as key the classname and as value
     //the position of className in the classNameList
     private Map<String, Integer> classNameMap;
+    private Map<IFile, List<ClassObject>> fileClassMap;
+    //the number of classes added, replaced or removed so far,
+    //and the modification in which each class was last added, replaced or removed
+    private int modificationCount;
+    private Map<String, Integer> classModificationMap;
     private Map<MethodInvocationObject, FieldInstructionObject> getterMap;
     private Map<MethodInvocationObject, FieldInstructionObject> setterMap;
     private Map<MethodInvocationObject, FieldInstructionObject> collectionAdderMap;
     private Map<MethodInvocationObject, MethodInvocationObject> delegateMap;
+    //inverted indexes from the method invocations and field instructions
+    //to the classes having at least one method that contains them
+    private Map<MethodInvocationObject, Set<ClassObject>> methodInvocationMap;
+    private Map<FieldInstructionObject, Set<ClassObject>> fieldInstructionMap;
+    private Map<SuperMethodInvocationObject, Set<ClassObject>> superMethodInvocationMap;
 
     public SystemObject() {
         this.classList = new ArrayList<ClassObject>();
         this.classNameMap = new HashMap<String, Integer>();
+        this.fileClassMap = new HashMap<IFile, List<ClassObject>>();
+        this.classModificationMap = new HashMap<String, Integer>();
         this.getterMap = new LinkedHashMap<MethodInvocationObject, FieldInstructionObject>();
         this.setterMap = new LinkedHashMap<MethodInvocationObject, FieldInstructionObject>();
         this.collectionAdderMap = new LinkedHashMap<MethodInvocationObject, FieldInstructionObject>();
         this.delegateMap = new LinkedHashMap<MethodInvocationObject, MethodInvocationObject>();
+        this.methodInvocationMap = new HashMap<MethodInvocationObject, Set<ClassObject>>();
+        this.fieldInstructionMap = new HashMap<FieldInstructionObject, Set<ClassObject>>();
+        this.superMethodInvocationMap = new HashMap<SuperMethodInvocationObject, Set<ClassObject>>();
     }
 
     public void addClass(ClassObject c) {
         classNameMap.put(c.getName(),classList.size());
         classList.add(c);
+        addToFileIndex(c);
+        addToIndexes(c);
+        classModified(c.getName());
     }
     
     public void addClasses(List<ClassObject> classObjects) {
@@ -76,37 +96,163 @@ public class SystemObject {
     }
     
     public void replaceClass(ClassObject c) {
-    	int position = getPositionInClassList(c.getName());
-    	if(position != -1) {
+    	Integer position = classNameMap.get(c.getName());
+    	if(position != null) {
+    		ClassObject oldClassObject = classList.get(position);
+    		removeFromFileIndex(oldClassObject);
+    		removeFromIndexes(oldClassObject);
     		classList.set(position, c);
+    		addToFileIndex(c);
+    		addToIndexes(c);
+    		classModified(c.getName());
     	}
     	else {
     		addClass(c);
     	}
     }
     
+    /**
+     * The class list is compacted once, after all the classes of the file are removed.
+     */
     public void removeClasses(IFile file) {
-    	List<ClassObject> classesToBeRemoved = new ArrayList<ClassObject>();
-    	for(ClassObject classObject : classList) {
-    		if(classObject.getIFile().equals(file))
-    			classesToBeRemoved.add(classObject);
-    	}
-    	for(ClassObject classObject : classesToBeRemoved) {
-    		removeClass(classObject);
+    	List<ClassObject> classesToBeRemoved = fileClassMap.get(file);
+    	if(classesToBeRemoved != null) {
+    		for(ClassObject classObject : new ArrayList<ClassObject>(classesToBeRemoved)) {
+    			removeClassEntry(classObject);
+    		}
+    		compactClassList();
     	}
     }
     
     public void removeClass(ClassObject c) {
-    	int position = getPositionInClassList(c.getName());
-    	if(position != -1) {
-    		for(int i=position+1; i<classList.size(); i++) {
+    	removeClassEntry(c);
+    	compactClassList();
+    }
+
+    //the removed class is replaced with null in the class list, so that the positions of the other classes are not shifted until the list is compacted
+    private void removeClassEntry(ClassObject c) {
+    	Integer position = classNameMap.get(c.getName());
+    	if(position != null) {
+    		ClassObject oldClassObject = classList.get(position);
+    		classNameMap.remove(c.getName());
+    		classList.set(position, null);
+    		numberOfRemovedClasses++;
+    		removeFromFileIndex(oldClassObject);
+    		removeFromIndexes(oldClassObject);
+    		classModified(c.getName());
+    	}
+    }
+
+    private void classModified(String className) {
+    	modificationCount++;
+    	classModificationMap.put(className, modificationCount);
+    }
+
+    public int getModificationCount() {
+    	return modificationCount;
+    }
+
+    /**
+     * Returns the names of the classes added, replaced or removed after the given modification count.
+     */
+    public Set<String> getClassesModifiedAfter(int modificationCount) {
+    	Set<String> modifiedClasses = new LinkedHashSet<String>();
+    	if(modificationCount < this.modificationCount) {
+    		for(Map.Entry<String, Integer> entry : classModificationMap.entrySet()) {
+    			if(entry.getValue() > modificationCount)
+    				modifiedClasses.add(entry.getKey());
+    		}
+    	}
+    	return modifiedClasses;
+    }
+
+    /**
+     * Removes the entries of the removed classes from the class list and updates the positions of the remaining classes.
+     */
+    private void compactClassList() {
+    	if(numberOfRemovedClasses > 0) {
+    		List<ClassObject> compactedClassList = new ArrayList<ClassObject>(classList.size() - numberOfRemovedClasses);
+    		for(int i=0; i<classList.size(); i++) {
     			ClassObject classObject = classList.get(i);
-    			classNameMap.put(classObject.getName(), classNameMap.get(classObject.getName())-1);
+    			if(classObject != null) {
+    				Integer position = classNameMap.get(classObject.getName());
+    				if(position != null && position == i)
+    					classNameMap.put(classObject.getName(), compactedClassList.size());
+    				compactedClassList.add(classObject);
+    			}
     		}
-    		classNameMap.remove(c.getName());
-    		classList.remove(c);
+    		classList = compactedClassList;
+    		numberOfRemovedClasses = 0;
+    	}
+    }
+
+    private void addToFileIndex(ClassObject c) {
+    	List<ClassObject> classObjects = fileClassMap.get(c.getIFile());
+    	if(classObjects == null) {
+    		classObjects = new ArrayList<ClassObject>();
+    		fileClassMap.put(c.getIFile(), classObjects);
+    	}
+    	classObjects.add(c);
+    }
+
+    private void removeFromFileIndex(ClassObject c) {
+    	List<ClassObject> classObjects = fileClassMap.get(c.getIFile());
+    	if(classObjects != null) {
+    		classObjects.remove(c);
+    		if(classObjects.isEmpty())
+    			fileClassMap.remove(c.getIFile());
     	}
     }
+
+    private void addToIndexes(ClassObject c) {
+    	for(MethodObject method : c.getMethodList()) {
+    		for(MethodInvocationObject methodInvocation : method.getMethodInvocations())
+    			addToIndex(methodInvocationMap, methodInvocation, c);
+    		for(FieldInstructionObject fieldInstruction : method.getFieldInstructions())
+    			addToIndex(fieldInstructionMap, fieldInstruction, c);
+    		for(SuperMethodInvocationObject superMethodInvocation : method.getSuperMethodInvocations())
+    			addToIndex(superMethodInvocationMap, superMethodInvocation, c);
+    	}
+    }
+
+    private void removeFromIndexes(ClassObject c) {
+    	for(MethodObject method : c.getMethodList()) {
+    		for(MethodInvocationObject methodInvocation : method.getMethodInvocations())
+    			removeFromIndex(methodInvocationMap, methodInvocation, c);
+    		for(FieldInstructionObject fieldInstruction : method.getFieldInstructions())
+    			removeFromIndex(fieldInstructionMap, fieldInstruction, c);
+    		for(SuperMethodInvocationObject superMethodInvocation : method.getSuperMethodInvocations())
+    			removeFromIndex(superMethodInvocationMap, superMethodInvocation, c);
+    	}
+    }
+
+    private static <T> void addToIndex(Map<T, Set<ClassObject>> index, T key, ClassObject c) {
+    	Set<ClassObject> classObjects = index.get(key);
+    	if(classObjects == null) {
+    		classObjects = new LinkedHashSet<ClassObject>();
+    		index.put(key, classObjects);
+    	}
+    	classObjects.add(c);
+    }
+
+    private static <T> void removeFromIndex(Map<T, Set<ClassObject>> index, T key, ClassObject c) {
+    	Set<ClassObject> classObjects = index.get(key);
+    	if(classObjects != null) {
+    		classObjects.remove(c);
+    		if(classObjects.isEmpty())
+    			index.remove(key);
+    	}
+    }
+
+    private static boolean containsClassOtherThan(Set<ClassObject> classObjects, ClassObject excludedClass) {
+    	if(classObjects != null) {
+    		for(ClassObject classObject : classObjects) {
+    			if(!excludedClass.equals(classObject))
+    				return true;
+    		}
+    	}
+    	return false;
+    }
     
     public void addGetter(MethodInvocationObject methodInvocation, FieldInstructionObject fieldInstruction) {
     	getterMap.put(methodInvocation, fieldInstruction);
@@ -155,33 +301,21 @@ public class SystemObject {
     }
 
     public boolean containsMethodInvocation(MethodInvocationObject methodInvocation, ClassObject excludedClass) {
-    	for(ClassObject classObject : classList) {
-    		if(!excludedClass.equals(classObject) && classObject.containsMethodInvocation(methodInvocation))
-    			return true;
-    	}
-    	return false;
+    	return containsClassOtherThan(methodInvocationMap.get(methodInvocation), excludedClass);
     }
 
     public boolean containsFieldInstruction(FieldInstructionObject fieldInstruction, ClassObject excludedClass) {
-    	for(ClassObject classObject : classList) {
-    		if(!excludedClass.equals(classObject) && classObject.containsFieldInstruction(fieldInstruction))
-    			return true;
-    	}
-    	return false;
+    	return containsClassOtherThan(fieldInstructionMap.get(fieldInstruction), excludedClass);
     }
 
     public boolean containsSuperMethodInvocation(SuperMethodInvocationObject superMethodInvocation) {
-    	for(ClassObject classObject : classList) {
-    		if(classObject.containsSuperMethodInvocation(superMethodInvocation))
-    			return true;
-    	}
-    	return false;
+    	return superMethodInvocationMap.containsKey(superMethodInvocation);
     }
 
     public ClassObject getClassObject(String className) {
         Integer pos = classNameMap.get(className);
         if(pos != null)
-            return getClassObject(pos);
+            return classList.get(pos);
         else
             return null;
     }
@@ -7,17 +7,31 @@ import gr.uom.java.ast.MethodObject;
 import gr.uom.java.ast.SystemObject;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
+import java.util.Set;
 
 import javax.swing.tree.DefaultMutableTreeNode;
 
 public class AssociationDetection {
 	private List<Association> associationList;
+	private Set<Association> associationSet;
+	//the associations indexed by their field, source class and target class, in the order of associationList
+	private Set<FieldObject> associatedFields;
+	private Map<String, List<Association>> associationsFromClass;
+	private Map<String, List<Association>> associationsToClass;
 	private List<String> acceptableOriginClassNames;
 	
 	public AssociationDetection(SystemObject system) {
 		this.associationList = new ArrayList<Association>();
+		this.associationSet = new HashSet<Association>();
+		this.associatedFields = new HashSet<FieldObject>();
+		this.associationsFromClass = new HashMap<String, List<Association>>();
+		this.associationsToClass = new HashMap<String, List<Association>>();
 		acceptableOriginClassNames = new ArrayList<String>();
 		acceptableOriginClassNames.add("java.util.Collection");
 		acceptableOriginClassNames.add("java.util.AbstractCollection");
@@ -37,19 +51,58 @@ public class AssociationDetection {
 	}
 	
 	public boolean containsFieldObject(FieldObject field) {
-		for(Association association : associationList)
-			if(association.getFieldObject().equals(field))
-				return true;
-		return false;
+		return associatedFields.contains(field);
 	}
 	
 	public List<Association> getAssociationsOfClass(ClassObject classObject) {
-		List<Association> associations = new ArrayList<Association>();
-		for(Association association : associationList) {
-			if(association.getFrom().equals(classObject.getName()))
-				associations.add(association);
+		List<Association> associations = associationsFromClass.get(classObject.getName());
+		if(associations != null)
+			return new ArrayList<Association>(associations);
+		return new ArrayList<Association>();
+	}
+	
+	private void addAssociation(Association association) {
+		if(associationSet.add(association)) {
+			associationList.add(association);
+			associatedFields.add(association.getFieldObject());
+			addToIndex(associationsFromClass, association.getFrom(), association);
+			addToIndex(associationsToClass, association.getTo(), association);
 		}
-		return associations;
+	}
+	
+	private static void addToIndex(Map<String, List<Association>> index, String className, Association association) {
+		List<Association> associations = index.get(className);
+		if(associations == null) {
+			associations = new ArrayList<Association>();
+			index.put(className, associations);
+		}
+		associations.add(association);
+	}
+	
+	/**
+	 * Returns the names of the system classes appearing as type arguments in the given generic type, in the order of the classes in the system.
+	 * The generic type is split into the qualified names of its type arguments, which are looked up in the system,
+	 * so that a class is not matched when its name is only a prefix of another type argument.
+	 */
+	private List<String> getClassNamesInGenericType(SystemObject systemObject, String genericType) {
+		Set<String> classNames = new LinkedHashSet<String>();
+		for(String token : genericType.split("<|>|,|&|\\s")) {
+			while(token.endsWith("[]"))
+				token = token.substring(0, token.length()-2);
+			if(token.length() > 0 && systemObject.getClassObject(token) != null)
+				classNames.add(token);
+		}
+		List<String> sortedClassNames = new ArrayList<String>();
+		if(classNames.size() > 1) {
+			for(String className : systemObject.getClassNames()) {
+				if(classNames.contains(className))
+					sortedClassNames.add(className);
+			}
+		}
+		else {
+			sortedClassNames.addAll(classNames);
+		}
+		return sortedClassNames;
 	}
 	
 	private void generateAssociations(SystemObject systemObject) {
@@ -65,26 +118,22 @@ public class AssociationDetection {
 				if(acceptableOriginClassNames.contains(type)) {
 					String genericType = fieldObject.getType().getGenericType();
 					if(genericType != null) {
-						for(String className : systemObject.getClassNames()) {
-							if(genericType.contains(className)) {
-								Association association = new Association(fieldObject, classObject.getName(), className);
-								association.setContainer(true);
-								if(!associationList.contains(association))
-									associationList.add(association);
-							}
+						for(String className : getClassNamesInGenericType(systemObject, genericType)) {
+							Association association = new Association(fieldObject, classObject.getName(), className);
+							association.setContainer(true);
+							addAssociation(association);
 						}
 					}
 					else {
 						Association association = checkCollectionAttribute(systemObject,classObject, fieldObject);
-						if(association != null && !associationList.contains(association))
-							associationList.add(association);
+						if(association != null)
+							addAssociation(association);
 					}
 				} else if(systemObject.getClassObject(type) != null) {
 					Association association = new Association(fieldObject, classObject.getName(), type);
 					if(fieldObject.getType().getArrayDimension() > 0)
 						association.setContainer(true);
-					if (!associationList.contains(association))
-						associationList.add(association);
+					addAssociation(association);
 				}
             }
         }
@@ -166,19 +215,20 @@ public class AssociationDetection {
     }
 
     private List<Association> getAssociationsEndingTo(String to) {
-        List<Association> list = new ArrayList<Association>();
-        for(Association association : associationList) {
-            if(association.getTo().equals(to))
-                list.add(association);
-        }
-        return list;
+        List<Association> list = associationsToClass.get(to);
+        if(list != null)
+            return list;
+        return new ArrayList<Association>();
     }
 
     public Association getAssociation(String from, String to) {
-         for(Association association : associationList) {
-            if(association.getFrom().equals(from) && association.getTo().equals(to))
-                return association;
-         }
+        List<Association> list = associationsFromClass.get(from);
+        if(list != null) {
+            for(Association association : list) {
+                if(association.getTo().equals(to))
+                    return association;
+            }
+        }
         return null;
     }
 }
@@ -1,11 +1,13 @@
 package gr.uom.java.ast.decomposition.cfg;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.Stack;
 import java.util.TreeSet;
 
 public class BasicBlockCFG {
@@ -34,7 +36,7 @@ public class BasicBlockCFG {
 				}
 			}
 			else if(cfgNode.isLeader()) {
-				BasicBlock basicBlock = new BasicBlock(cfgNode);
+				BasicBlock basicBlock = new BasicBlock(cfgNode, basicBlocks.size()+1);
 				if(!basicBlocks.isEmpty()) {
 					BasicBlock previousBlock = basicBlocks.get(basicBlocks.size()-1);
 					previousBlock.setNextBasicBlock(basicBlock);
@@ -57,29 +59,60 @@ public class BasicBlockCFG {
 				}
 			}
 		}
-		BasicBlock.resetBlockNum();
 	}
 
 	public List<BasicBlock> getBasicBlocks() {
 		return basicBlocks;
 	}
 
-	public Set<BasicBlock> forwardReachableBlocks(BasicBlock basicBlock) {
+	//the reachable blocks are memoized, and a cached PDG may be shared by analyses running in different threads
+	public synchronized Set<BasicBlock> forwardReachableBlocks(BasicBlock basicBlock) {
 		if(forwardReachableBlocks.containsKey(basicBlock))
 			return forwardReachableBlocks.get(basicBlock);
-		Set<BasicBlock> reachableBlocks = new LinkedHashSet<BasicBlock>();
-		reachableBlocks.add(basicBlock);
-		CFGNode lastNode = basicBlock.getLastNode();
-		for(GraphEdge edge : lastNode.outgoingEdges) {
-			Flow flow = (Flow)edge;
-			if(!flow.isLoopbackFlow()) {
-				CFGNode dstNode = (CFGNode)flow.dst;
-				BasicBlock dstBasicBlock = dstNode.getBasicBlock();
-				reachableBlocks.add(dstBasicBlock);
-				reachableBlocks.addAll(forwardReachableBlocks(dstBasicBlock));
+		//the blocks are computed in post-order with an explicit stack, adding the reachable blocks of every successor
+		//right after the successor itself, in the same order as a recursive traversal
+		Stack<ReachableBlocksFrame> stack = new Stack<ReachableBlocksFrame>();
+		stack.push(new ReachableBlocksFrame(basicBlock));
+		while(!stack.isEmpty()) {
+			ReachableBlocksFrame frame = stack.peek();
+			if(frame.pendingBasicBlock != null) {
+				frame.reachableBlocks.addAll(forwardReachableBlocks.get(frame.pendingBasicBlock));
+				frame.pendingBasicBlock = null;
 			}
+			if(frame.edgeIterator.hasNext()) {
+				Flow flow = (Flow)frame.edgeIterator.next();
+				if(!flow.isLoopbackFlow()) {
+					CFGNode dstNode = (CFGNode)flow.dst;
+					BasicBlock dstBasicBlock = dstNode.getBasicBlock();
+					frame.reachableBlocks.add(dstBasicBlock);
+					if(forwardReachableBlocks.containsKey(dstBasicBlock)) {
+						frame.reachableBlocks.addAll(forwardReachableBlocks.get(dstBasicBlock));
+					}
+					else {
+						frame.pendingBasicBlock = dstBasicBlock;
+						stack.push(new ReachableBlocksFrame(dstBasicBlock));
+					}
+				}
+			}
+			else {
+				forwardReachableBlocks.put(frame.basicBlock, frame.reachableBlocks);
+				stack.pop();
+			}
+		}
+		return forwardReachableBlocks.get(basicBlock);
+	}
+
+	private static class ReachableBlocksFrame {
+		private BasicBlock basicBlock;
+		private Iterator<GraphEdge> edgeIterator;
+		private Set<BasicBlock> reachableBlocks;
+		private BasicBlock pendingBasicBlock;
+
+		private ReachableBlocksFrame(BasicBlock basicBlock) {
+			this.basicBlock = basicBlock;
+			this.edgeIterator = basicBlock.getLastNode().outgoingEdges.iterator();
+			this.reachableBlocks = new LinkedHashSet<BasicBlock>();
+			this.reachableBlocks.add(basicBlock);
 		}
-		forwardReachableBlocks.put(basicBlock, reachableBlocks);
-		return reachableBlocks;
 	}
 }
@@ -40,6 +40,8 @@ public class CFG extends Graph {
 	private Map<CFGBranchSwitchNode, List<CFGNode>> switchBreakMap;
 	private Map<CFGBlockNode, List<CFGNode>> directlyNestedNodesInBlocks;
 	private BasicBlockCFG basicBlockCFG;
+	//node ids are allocated per graph in creation order, starting from 1
+	private int nodeNum;
 	
 	public CFG(AbstractMethodDeclaration method) {
 		this.method = method;
@@ -50,7 +52,6 @@ public class CFG extends Graph {
 		if(methodBody != null) {
 			CompositeStatementObject composite = methodBody.getCompositeStatement();
 			process(new ArrayList<CFGNode>(), composite);
-			GraphNode.resetNodeNum();
 			this.basicBlockCFG = new BasicBlockCFG(this);
 		}
 	}
@@ -71,9 +72,14 @@ public class CFG extends Graph {
 		return directlyNestedNodesInBlocks;
 	}
 
+	private int nextNodeId() {
+		nodeNum++;
+		return nodeNum;
+	}
+
 	private List<CFGNode> process(List<CFGNode> previousNodes, CompositeStatementObject composite) {
 		if(composite instanceof TryStatementObject) {
-			CFGTryNode tryNode = new CFGTryNode(composite);
+			CFGTryNode tryNode = new CFGTryNode(composite, nextNodeId());
 			directlyNestedNodeInBlock(tryNode);
 			findBlockNodeControlParent(tryNode);
 			directlyNestedNodesInBlocks.put(tryNode, new ArrayList<CFGNode>());
@@ -81,7 +87,7 @@ public class CFG extends Graph {
 			composite = (CompositeStatementObject)firstStatement;
 		}
 		else if(composite instanceof SynchronizedStatementObject) {
-			CFGSynchronizedNode synchronizedNode = new CFGSynchronizedNode(composite);
+			CFGSynchronizedNode synchronizedNode = new CFGSynchronizedNode(composite, nextNodeId());
 			directlyNestedNodeInBlock(synchronizedNode);
 			findBlockNodeControlParent(synchronizedNode);
 			directlyNestedNodesInBlocks.put(synchronizedNode, new ArrayList<CFGNode>());
@@ -161,7 +167,7 @@ public class CFG extends Graph {
 	}
 
 	private List<CFGNode> processSynchronizedStatement(List<CFGNode> previousNodes, CompositeStatementObject compositeStatement) {
-		CFGSynchronizedNode synchronizedNode = new CFGSynchronizedNode(compositeStatement);
+		CFGSynchronizedNode synchronizedNode = new CFGSynchronizedNode(compositeStatement, nextNodeId());
 		directlyNestedNodeInBlock(synchronizedNode);
 		findBlockNodeControlParent(synchronizedNode);
 		nodes.add(synchronizedNode);
@@ -179,7 +185,7 @@ public class CFG extends Graph {
 		TryStatementObject tryStatement = (TryStatementObject)compositeStatement;
 		if(!tryStatement.hasResources()) {
 			//if a try node does not have resources, it is treated as a block and is omitted
-			CFGTryNode tryNode = new CFGTryNode(compositeStatement);
+			CFGTryNode tryNode = new CFGTryNode(compositeStatement, nextNodeId());
 			//nodes.add(tryNode);
 			directlyNestedNodeInBlock(tryNode);
 			findBlockNodeControlParent(tryNode);
@@ -189,7 +195,7 @@ public class CFG extends Graph {
 		}
 		else {
 			//if a try node has resources, it is treated as a non-composite node
-			CFGTryNode tryNode = new CFGTryNode(compositeStatement);
+			CFGTryNode tryNode = new CFGTryNode(compositeStatement, nextNodeId());
 			directlyNestedNodeInBlock(tryNode);
 			findBlockNodeControlParent(tryNode);
 			nodes.add(tryNode);
@@ -227,7 +233,7 @@ public class CFG extends Graph {
 	private List<CFGNode> processDoStatement(List<CFGNode> previousNodes, CompositeStatementObject compositeStatement) {
 		List<CFGNode> tmpNodes = previousNodes;
 		previousNodes = process(previousNodes, compositeStatement);
-		CFGBranchNode currentNode = new CFGBranchDoLoopNode(compositeStatement);
+		CFGBranchNode currentNode = new CFGBranchDoLoopNode(compositeStatement, nextNodeId());
 		nodes.add(currentNode);
 		directlyNestedNodeInBlock(currentNode);
 		createTopDownFlow(previousNodes, currentNode);
@@ -245,7 +251,7 @@ public class CFG extends Graph {
 	}
 
 	private List<CFGNode> processLoopStatement(List<CFGNode> previousNodes, CompositeStatementObject compositeStatement) {
-		CFGBranchNode currentNode = new CFGBranchLoopNode(compositeStatement);
+		CFGBranchNode currentNode = new CFGBranchLoopNode(compositeStatement, nextNodeId());
 		nodes.add(currentNode);
 		directlyNestedNodeInBlock(currentNode);
 		createTopDownFlow(previousNodes, currentNode);
@@ -483,17 +489,17 @@ public class CFG extends Graph {
 		CFGNode currentNode;
 		Statement astStatement = statement.getStatement();
 		if(astStatement instanceof ReturnStatement)
-			currentNode = new CFGExitNode(statement);
+			currentNode = new CFGExitNode(statement, nextNodeId());
 		else if(astStatement instanceof SwitchCase)
-			currentNode = new CFGSwitchCaseNode(statement);
+			currentNode = new CFGSwitchCaseNode(statement, nextNodeId());
 		else if(astStatement instanceof BreakStatement)
-			currentNode = new CFGBreakNode(statement);
+			currentNode = new CFGBreakNode(statement, nextNodeId());
 		else if(astStatement instanceof ContinueStatement)
-			currentNode = new CFGContinueNode(statement);
+			currentNode = new CFGContinueNode(statement, nextNodeId());
 		else if(astStatement instanceof ThrowStatement)
-			currentNode = new CFGThrowNode(statement);
+			currentNode = new CFGThrowNode(statement, nextNodeId());
 		else
-			currentNode = new CFGNode(statement);
+			currentNode = new CFGNode(statement, nextNodeId());
 		directlyNestedNodeInBlock(currentNode);
 		return currentNode;
 	}
@@ -535,7 +541,7 @@ public class CFG extends Graph {
 	}
 
 	private List<CFGNode> processSwitchStatement(List<CFGNode> previousNodes, CompositeStatementObject compositeStatement, int action) {
-		CFGBranchSwitchNode currentNode = new CFGBranchSwitchNode(compositeStatement);
+		CFGBranchSwitchNode currentNode = new CFGBranchSwitchNode(compositeStatement, nextNodeId());
 		handleAction(currentNode, action);
 		nodes.add(currentNode);
 		directlyNestedNodeInBlock(currentNode);
@@ -557,7 +563,7 @@ public class CFG extends Graph {
 	}
 
 	private List<CFGNode> processIfStatement(List<CFGNode> previousNodes, CompositeStatementObject compositeStatement, int action) {
-		CFGBranchIfNode currentNode = new CFGBranchIfNode(compositeStatement);
+		CFGBranchIfNode currentNode = new CFGBranchIfNode(compositeStatement, nextNodeId());
 		handleAction(currentNode, action);
 		
 		nodes.add(currentNode);
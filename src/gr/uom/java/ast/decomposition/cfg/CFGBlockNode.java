@@ -6,8 +6,8 @@ public class CFGBlockNode extends CFGNode {
 
 	private CFGNode controlParent;
 
-	public CFGBlockNode(AbstractStatement statement) {
-		super(statement);
+	public CFGBlockNode(AbstractStatement statement, int id) {
+		super(statement, id);
 	}
 
 	public CFGNode getControlParent() {
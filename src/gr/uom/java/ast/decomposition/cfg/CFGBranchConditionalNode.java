@@ -8,8 +8,8 @@ import gr.uom.java.ast.decomposition.AbstractStatement;
 public abstract class CFGBranchConditionalNode extends CFGBranchNode {
 	private CFGNode joinNode;
 	
-	public CFGBranchConditionalNode(AbstractStatement statement) {
-		super(statement);
+	public CFGBranchConditionalNode(AbstractStatement statement, int id) {
+		super(statement, id);
 	}
 
 	public void setJoinNode(CFGNode joinNode) {
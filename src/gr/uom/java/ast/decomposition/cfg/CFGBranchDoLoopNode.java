@@ -7,8 +7,8 @@ import gr.uom.java.ast.decomposition.AbstractStatement;
 
 public class CFGBranchDoLoopNode extends CFGBranchNode {
 
-	public CFGBranchDoLoopNode(AbstractStatement statement) {
-		super(statement);
+	public CFGBranchDoLoopNode(AbstractStatement statement, int id) {
+		super(statement, id);
 	}
 
 	public CFGNode getJoinNode() {
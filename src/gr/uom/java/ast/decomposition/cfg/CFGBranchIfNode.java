@@ -14,8 +14,8 @@ import gr.uom.java.ast.decomposition.TryStatementObject;
 
 public class CFGBranchIfNode extends CFGBranchConditionalNode {
 
-	public CFGBranchIfNode(AbstractStatement statement) {
-		super(statement);
+	public CFGBranchIfNode(AbstractStatement statement, int id) {
+		super(statement, id);
 	}
 
 	public Set<CFGNode> getImmediatelyNestedNodesInTrueControlFlow() {
@@ -7,8 +7,8 @@ import gr.uom.java.ast.decomposition.AbstractStatement;
 
 public class CFGBranchLoopNode extends CFGBranchNode {
 
-	public CFGBranchLoopNode(AbstractStatement statement) {
-		super(statement);
+	public CFGBranchLoopNode(AbstractStatement statement, int id) {
+		super(statement, id);
 	}
 
 	public CFGNode getJoinNode() {
@@ -15,8 +15,8 @@ import gr.uom.java.ast.decomposition.TryStatementObject;
 
 public abstract class CFGBranchNode extends CFGNode {
 
-	public CFGBranchNode(AbstractStatement statement) {
-		super(statement);
+	public CFGBranchNode(AbstractStatement statement, int id) {
+		super(statement, id);
 	}
 
 	public Flow getTrueControlFlow() {
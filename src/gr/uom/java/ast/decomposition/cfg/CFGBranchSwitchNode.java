@@ -4,7 +4,7 @@ import gr.uom.java.ast.decomposition.AbstractStatement;
 
 public class CFGBranchSwitchNode extends CFGBranchConditionalNode {
 
-	public CFGBranchSwitchNode(AbstractStatement statement) {
-		super(statement);
+	public CFGBranchSwitchNode(AbstractStatement statement, int id) {
+		super(statement, id);
 	}
 }
@@ -8,8 +8,8 @@ public class CFGBreakNode extends CFGNode {
 	private String label;
 	private CFGNode innerMostLoopNode;
 	
-	public CFGBreakNode(AbstractStatement statement) {
-		super(statement);
+	public CFGBreakNode(AbstractStatement statement, int id) {
+		super(statement, id);
 		BreakStatement breakStatement = (BreakStatement)statement.getStatement();
 		if(breakStatement.getLabel() != null)
 			label = breakStatement.getLabel().getIdentifier();
@@ -8,8 +8,8 @@ public class CFGContinueNode extends CFGNode {
 	private String label;
 	private CFGNode innerMostLoopNode;
 	
-	public CFGContinueNode(AbstractStatement statement) {
-		super(statement);
+	public CFGContinueNode(AbstractStatement statement, int id) {
+		super(statement, id);
 		ContinueStatement continueStatement = (ContinueStatement)statement.getStatement();
 		if(continueStatement.getLabel() != null)
 			label = continueStatement.getLabel().getIdentifier();
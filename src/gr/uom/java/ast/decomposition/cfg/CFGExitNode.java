@@ -8,8 +8,8 @@ import gr.uom.java.ast.decomposition.AbstractStatement;
 public class CFGExitNode extends CFGNode {
 	private PlainVariable returnedVariable;
 	
-	public CFGExitNode(AbstractStatement statement) {
-		super(statement);
+	public CFGExitNode(AbstractStatement statement, int id) {
+		super(statement, id);
 		List<PlainVariable> usedVariables = new ArrayList<PlainVariable>(statement.getUsedLocalVariables());
 		List<PlainVariable> usedFields = new ArrayList<PlainVariable>(statement.getUsedFieldsThroughThisReference());
 		if(usedVariables.size() == 1 && usedFields.size() == 0) {
@@ -10,8 +10,8 @@ public class CFGNode extends GraphNode implements Comparable<CFGNode> {
 	private PDGNode pdgNode;
 	private volatile int hashCode = 0;
 
-	public CFGNode(AbstractStatement statement) {
-		super();
+	public CFGNode(AbstractStatement statement, int id) {
+		super(id);
 		this.statement = statement;
 	}
 
@@ -0,0 +1,76 @@
+package gr.uom.java.ast.decomposition.cfg;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Bit vectors with the nodes that can be reached from every node of a control flow graph through at least one flow.
+ * The vectors are indexed by node id and are computed once per graph with a backward worklist algorithm.
+ */
+public class CFGReachability {
+	private BitSet[] reachableNodes;
+
+	public CFGReachability(CFG cfg) {
+		int maxId = 0;
+		List<CFGNode> cfgNodes = new ArrayList<CFGNode>();
+		for(GraphNode node : cfg.nodes) {
+			CFGNode cfgNode = (CFGNode)node;
+			cfgNodes.add(cfgNode);
+			if(cfgNode.id > maxId)
+				maxId = cfgNode.id;
+		}
+		this.reachableNodes = new BitSet[maxId+1];
+		for(CFGNode cfgNode : cfgNodes) {
+			reachableNodes[cfgNode.id] = new BitSet(maxId+1);
+		}
+		//the nodes are processed in reverse creation order, so that most successors are already computed
+		Collections.reverse(cfgNodes);
+		Deque<CFGNode> worklist = new ArrayDeque<CFGNode>(cfgNodes);
+		BitSet inWorklist = new BitSet(maxId+1);
+		for(CFGNode cfgNode : cfgNodes) {
+			inWorklist.set(cfgNode.id);
+		}
+		while(!worklist.isEmpty()) {
+			CFGNode cfgNode = worklist.removeFirst();
+			inWorklist.clear(cfgNode.id);
+			BitSet reachable = reachableNodes[cfgNode.id];
+			int cardinality = reachable.cardinality();
+			for(GraphEdge edge : cfgNode.outgoingEdges) {
+				CFGNode dstCFGNode = (CFGNode)edge.dst;
+				reachable.set(dstCFGNode.id);
+				BitSet dstReachable = getReachableNodes(dstCFGNode);
+				if(dstReachable != null)
+					reachable.or(dstReachable);
+			}
+			if(reachable.cardinality() != cardinality) {
+				for(GraphEdge edge : cfgNode.incomingEdges) {
+					CFGNode srcCFGNode = (CFGNode)edge.src;
+					if(getReachableNodes(srcCFGNode) != null && !inWorklist.get(srcCFGNode.id)) {
+						inWorklist.set(srcCFGNode.id);
+						worklist.addLast(srcCFGNode);
+					}
+				}
+			}
+		}
+	}
+
+	private BitSet getReachableNodes(CFGNode cfgNode) {
+		if(cfgNode.id < reachableNodes.length)
+			return reachableNodes[cfgNode.id];
+		return null;
+	}
+
+	/**
+	 * Returns true if any of the nodes in the given bit vector can be reached from the given node through at least one flow.
+	 */
+	public boolean reachesAny(CFGNode cfgNode, BitSet nodeIds) {
+		BitSet reachable = getReachableNodes(cfgNode);
+		if(reachable == null)
+			return true;
+		return reachable.intersects(nodeIds);
+	}
+}
@@ -7,8 +7,8 @@ import gr.uom.java.ast.decomposition.AbstractStatement;
 public class CFGSwitchCaseNode extends CFGNode {
 	private boolean isDefault;
 	
-	public CFGSwitchCaseNode(AbstractStatement statement) {
-		super(statement);
+	public CFGSwitchCaseNode(AbstractStatement statement, int id) {
+		super(statement, id);
 		SwitchCase switchCase = (SwitchCase)statement.getStatement();
 		if(switchCase.isDefault())
 			isDefault = true;
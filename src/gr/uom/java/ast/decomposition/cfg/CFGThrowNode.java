@@ -4,8 +4,8 @@ import gr.uom.java.ast.decomposition.AbstractStatement;
 
 public class CFGThrowNode extends CFGNode {
 
-	public CFGThrowNode(AbstractStatement statement) {
-		super(statement);
+	public CFGThrowNode(AbstractStatement statement, int id) {
+		super(statement, id);
 	}
 
 }
@@ -10,8 +10,8 @@ import gr.uom.java.ast.decomposition.TryStatementObject;
 public class CFGTryNode extends CFGBlockNode {
 	private List<String> handledExceptions;
 	private boolean hasResources;
-	public CFGTryNode(AbstractStatement statement) {
-		super(statement);
+	public CFGTryNode(AbstractStatement statement, int id) {
+		super(statement, id);
 		this.handledExceptions = new ArrayList<String>();
 		TryStatementObject tryStatement = (TryStatementObject)statement;
 		this.hasResources = tryStatement.hasResources();
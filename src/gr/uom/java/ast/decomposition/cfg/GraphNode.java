@@ -4,14 +4,17 @@ import java.util.LinkedHashSet;
 import java.util.Set;
 
 public class GraphNode {
-	private static int nodeNum = 0;
 	protected int id;
 	protected Set<GraphEdge> incomingEdges;
 	protected Set<GraphEdge> outgoingEdges;
 	
 	public GraphNode() {
-		nodeNum++;
-		this.id = nodeNum;
+		this.incomingEdges = new LinkedHashSet<GraphEdge>();
+		this.outgoingEdges = new LinkedHashSet<GraphEdge>();
+	}
+	
+	public GraphNode(int id) {
+		this.id = id;
 		this.incomingEdges = new LinkedHashSet<GraphEdge>();
 		this.outgoingEdges = new LinkedHashSet<GraphEdge>();
 	}
@@ -27,8 +30,4 @@ public class GraphNode {
 	public void addOutgoingEdge(GraphEdge edge) {
 		outgoingEdges.add(edge);
 	}
-	
-	public static void resetNodeNum() {
-		nodeNum = 0;
-	}
 }
@@ -225,6 +225,7 @@ public class MethodCallAnalyzer {
 			LibraryClassStorage instance = LibraryClassStorage.getInstance();
 			if(instance.isAnalyzed(invokedMethodBinding.getKey())) {
 				handleAlreadyAnalyzedMethod(invokedMethodBinding.getKey(), variable, instance);
+				MethodDeclaration invokedMethodDeclaration = null;
 				int argumentPosition = 0;
 				for(Expression argument : arguments) {
 					if(argument instanceof SimpleName) {
@@ -250,6 +251,13 @@ public class MethodCallAnalyzer {
 									definedVariables.add(composedVariable);
 								}
 							}
+							else {
+								//the fields accessed through the arguments are not persisted with the library summaries, so they are analyzed again
+								if(invokedMethodDeclaration == null)
+									invokedMethodDeclaration = getInvokedMethodDeclaration(invokedMethodBinding);
+								if(invokedMethodDeclaration != null)
+									processArgumentOfExternalMethodInvocation(invokedMethodDeclaration, argumentDeclaration, argumentPosition, instance);
+							}
 						}
 					}
 					argumentPosition++;
@@ -272,39 +280,7 @@ public class MethodCallAnalyzer {
 								}
 							}
 							if(argumentDeclaration != null) {
-								//analyze only if the argument does not correspond to a varargs parameter
-								if(argumentPosition < invokedMethodDeclaration.parameters().size()) {
-									VariableDeclaration parameterDeclaration = (SingleVariableDeclaration)invokedMethodDeclaration.parameters().get(argumentPosition);
-									PlainVariable argumentVariable = new PlainVariable(argumentDeclaration);
-									processArgumentOfExternalMethodInvocation(invokedMethodDeclaration, argumentVariable, argumentPosition, parameterDeclaration, new LinkedHashSet<String>(), 0);
-									//save in cache
-									int usedFieldCount = 0;
-									for(AbstractVariable usedVariable : usedVariables) {
-										if(usedVariable instanceof CompositeVariable) {
-											CompositeVariable composite = (CompositeVariable)usedVariable;
-											if(composite.getInitialVariable().equals(argumentVariable)) {
-												instance.addUsedFieldForMethodArgument(composite.getRightPart(), invokedMethodDeclaration, argumentPosition);
-												usedFieldCount++;
-											}
-										}
-									}
-									if(usedFieldCount == 0) {
-										instance.setEmptyUsedFieldsForMethodArgument(invokedMethodDeclaration, argumentPosition);
-									}
-									int definedFieldCount = 0;
-									for(AbstractVariable definedVariable : definedVariables) {
-										if(definedVariable instanceof CompositeVariable) {
-											CompositeVariable composite = (CompositeVariable)definedVariable;
-											if(composite.getInitialVariable().equals(argumentVariable)) {
-												instance.addDefinedFieldForMethodArgument(composite.getRightPart(), invokedMethodDeclaration, argumentPosition);
-												definedFieldCount++;
-											}
-										}
-									}
-									if(definedFieldCount == 0) {
-										instance.setEmptyDefinedFieldsForMethodArgument(invokedMethodDeclaration, argumentPosition);
-									}
-								}
+								processArgumentOfExternalMethodInvocation(invokedMethodDeclaration, argumentDeclaration, argumentPosition, instance);
 							}
 						}
 						argumentPosition++;
@@ -314,6 +290,43 @@ public class MethodCallAnalyzer {
 		}
 	}
 
+	private void processArgumentOfExternalMethodInvocation(MethodDeclaration invokedMethodDeclaration, VariableDeclaration argumentDeclaration,
+			int argumentPosition, LibraryClassStorage instance) {
+		//analyze only if the argument does not correspond to a varargs parameter
+		if(argumentPosition < invokedMethodDeclaration.parameters().size()) {
+			VariableDeclaration parameterDeclaration = (SingleVariableDeclaration)invokedMethodDeclaration.parameters().get(argumentPosition);
+			PlainVariable argumentVariable = new PlainVariable(argumentDeclaration);
+			processArgumentOfExternalMethodInvocation(invokedMethodDeclaration, argumentVariable, argumentPosition, parameterDeclaration, new LinkedHashSet<String>(), 0);
+			//save in cache
+			int usedFieldCount = 0;
+			for(AbstractVariable usedVariable : usedVariables) {
+				if(usedVariable instanceof CompositeVariable) {
+					CompositeVariable composite = (CompositeVariable)usedVariable;
+					if(composite.getInitialVariable().equals(argumentVariable)) {
+						instance.addUsedFieldForMethodArgument(composite.getRightPart(), invokedMethodDeclaration, argumentPosition);
+						usedFieldCount++;
+					}
+				}
+			}
+			if(usedFieldCount == 0) {
+				instance.setEmptyUsedFieldsForMethodArgument(invokedMethodDeclaration, argumentPosition);
+			}
+			int definedFieldCount = 0;
+			for(AbstractVariable definedVariable : definedVariables) {
+				if(definedVariable instanceof CompositeVariable) {
+					CompositeVariable composite = (CompositeVariable)definedVariable;
+					if(composite.getInitialVariable().equals(argumentVariable)) {
+						instance.addDefinedFieldForMethodArgument(composite.getRightPart(), invokedMethodDeclaration, argumentPosition);
+						definedFieldCount++;
+					}
+				}
+			}
+			if(definedFieldCount == 0) {
+				instance.setEmptyDefinedFieldsForMethodArgument(invokedMethodDeclaration, argumentPosition);
+			}
+		}
+	}
+
 	private void processArgumentOfInternalMethodInvocation(AbstractMethodDeclaration methodObject, AbstractVariable argumentDeclaration, int initialArgumentPosition,
 			VariableDeclaration parameterDeclaration, Set<String> processedMethods) {
 		SystemObject systemObject = ASTReader.getSystemObject();
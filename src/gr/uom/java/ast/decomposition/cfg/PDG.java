@@ -9,6 +9,7 @@ import gr.uom.java.jdeodorant.preferences.PreferenceConstants;
 import gr.uom.java.jdeodorant.refactoring.Activator;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -35,6 +36,7 @@ public class PDG extends Graph {
 	private Set<VariableDeclarationObject> variableDeclarationsInMethod;
 	private Set<FieldObject> fieldsAccessedInMethod;
 	private Map<PDGNode, Set<BasicBlock>> dominatedBlockMap;
+	private BitSet[] boundaryBlockMatrix;
 	private IFile iFile;
 	private IProgressMonitor monitor;
 	
@@ -75,7 +77,6 @@ public class PDG extends Graph {
 			createDataDependencies();
 		}
 		this.dominatedBlockMap = new LinkedHashMap<PDGNode, Set<BasicBlock>>();
-		GraphNode.resetNodeNum();
 		handleSwitchCaseNodes();
 		handleJumpNodes();
 		handleThrowExceptionNodes();
@@ -591,32 +592,60 @@ public class PDG extends Graph {
 		PDGNode firstPDGNode = (PDGNode)nodes.toArray()[0];
 		ReachingAliasSet reachingAliasSet = new ReachingAliasSet();
 		firstPDGNode.updateReachingAliasSet(reachingAliasSet);
-		aliasSearch(firstPDGNode, new LinkedHashSet<PDGNode>(), false, reachingAliasSet);
+		aliasSearch(firstPDGNode, reachingAliasSet);
 	}
 
 	private void createDataDependencies() {
 		PDGNode firstPDGNode = (PDGNode)nodes.toArray()[0];
-		createDataDependenciesFromEntryNode(firstPDGNode);
+		CFGReachability reachability = new CFGReachability(cfg);
+		//ids of the nodes that define, or define or use each variable, used to stop searching regions without any dependence
+		Map<AbstractVariable, BitSet> definingNodeMap = new LinkedHashMap<AbstractVariable, BitSet>();
+		Map<AbstractVariable, BitSet> definingOrUsingNodeMap = new LinkedHashMap<AbstractVariable, BitSet>();
 		for(GraphNode node : nodes) {
 			PDGNode pdgNode = (PDGNode)node;
 			for(AbstractVariable variableInstruction : pdgNode.definedVariables) {
-				dataDependenceSearch(pdgNode, variableInstruction, pdgNode, new LinkedHashSet<PDGNode>(), null);
-				outputDependenceSearch(pdgNode, variableInstruction, pdgNode, new LinkedHashSet<PDGNode>(), null);
+				getNodeIds(definingNodeMap, variableInstruction).set(pdgNode.id);
+				getNodeIds(definingOrUsingNodeMap, variableInstruction).set(pdgNode.id);
 			}
 			for(AbstractVariable variableInstruction : pdgNode.usedVariables) {
-				antiDependenceSearch(pdgNode, variableInstruction, pdgNode, new LinkedHashSet<PDGNode>(), null);
+				getNodeIds(definingOrUsingNodeMap, variableInstruction).set(pdgNode.id);
+			}
+		}
+		createDataDependenciesFromEntryNode(firstPDGNode, definingOrUsingNodeMap, reachability);
+		for(GraphNode node : nodes) {
+			PDGNode pdgNode = (PDGNode)node;
+			for(AbstractVariable variableInstruction : pdgNode.definedVariables) {
+				dependenceSearch(pdgNode, variableInstruction, pdgNode, PDGDependenceType.DATA,
+						getNodeIds(definingOrUsingNodeMap, variableInstruction), reachability);
+				dependenceSearch(pdgNode, variableInstruction, pdgNode, PDGDependenceType.OUTPUT,
+						getNodeIds(definingNodeMap, variableInstruction), reachability);
+			}
+			for(AbstractVariable variableInstruction : pdgNode.usedVariables) {
+				dependenceSearch(pdgNode, variableInstruction, pdgNode, PDGDependenceType.ANTI,
+						getNodeIds(definingNodeMap, variableInstruction), reachability);
 			}
 		}
 	}
 
-	private void createDataDependenciesFromEntryNode(PDGNode pdgNode) {
+	private BitSet getNodeIds(Map<AbstractVariable, BitSet> nodeIdMap, AbstractVariable variableInstruction) {
+		BitSet nodeIds = nodeIdMap.get(variableInstruction);
+		if(nodeIds == null) {
+			nodeIds = new BitSet();
+			nodeIdMap.put(variableInstruction, nodeIds);
+		}
+		return nodeIds;
+	}
+
+	private void createDataDependenciesFromEntryNode(PDGNode pdgNode, Map<AbstractVariable, BitSet> definingOrUsingNodeMap,
+			CFGReachability reachability) {
 		for(AbstractVariable variableInstruction : entryNode.definedVariables) {
 			if(pdgNode.usesLocalVariable(variableInstruction)) {
 				PDGDataDependence dataDependence = new PDGDataDependence(entryNode, pdgNode, variableInstruction, null);
 				edges.add(dataDependence);
 			}
 			if(!pdgNode.definesLocalVariable(variableInstruction)) {
-				dataDependenceSearch(entryNode, variableInstruction, pdgNode, new LinkedHashSet<PDGNode>(), null);
+				dependenceSearch(entryNode, variableInstruction, pdgNode, PDGDependenceType.DATA,
+						getNodeIds(definingOrUsingNodeMap, variableInstruction), reachability);
 			}
 			else if(entryNode.declaresLocalVariable(variableInstruction)) {
 				//create def-order data dependence edge
@@ -626,115 +655,119 @@ public class PDG extends Graph {
 		}
 	}
 
-	private void aliasSearch(PDGNode currentNode, Set<PDGNode> visitedNodes, boolean visitedFromLoopbackFlow, ReachingAliasSet reachingAliasSet) {
-		if(visitedNodes.contains(currentNode))
-			return;
-		else
-			visitedNodes.add(currentNode);
-		CFGNode currentCFGNode = currentNode.getCFGNode();
-		for(GraphEdge edge : currentCFGNode.outgoingEdges) {
-			Flow flow = (Flow)edge;
-			if(!visitedFromLoopbackFlow || (visitedFromLoopbackFlow && flow.isFalseControlFlow())) {
+	/**
+	 * Depth-first propagation of the reaching alias sets along the control flow, using an explicit stack
+	 * that visits the flows in the same order as a recursive search.
+	 */
+	private void aliasSearch(PDGNode startNode, ReachingAliasSet reachingAliasSet) {
+		BitSet visitedNodes = new BitSet();
+		Stack<AliasSearchFrame> stack = new Stack<AliasSearchFrame>();
+		visitedNodes.set(startNode.id);
+		stack.push(new AliasSearchFrame(startNode.getCFGNode(), false, reachingAliasSet));
+		while(!stack.isEmpty()) {
+			AliasSearchFrame frame = stack.peek();
+			if(!frame.edgeIterator.hasNext()) {
+				stack.pop();
+				continue;
+			}
+			Flow flow = (Flow)frame.edgeIterator.next();
+			if(!frame.visitedFromLoopbackFlow || (frame.visitedFromLoopbackFlow && flow.isFalseControlFlow())) {
 				CFGNode srcCFGNode = (CFGNode)flow.src;
 				CFGNode dstCFGNode = (CFGNode)flow.dst;
 				PDGNode dstPDGNode = dstCFGNode.getPDGNode();
-				ReachingAliasSet reachingAliasSetCopy = reachingAliasSet.copy();
+				ReachingAliasSet reachingAliasSetCopy = frame.reachingAliasSet.copy();
 				dstPDGNode.applyReachingAliasSet(reachingAliasSetCopy);
 				dstPDGNode.updateReachingAliasSet(reachingAliasSetCopy);
-				if(!(srcCFGNode instanceof CFGBranchDoLoopNode && flow.isTrueControlFlow())) {
-					if(flow.isLoopbackFlow())
-						aliasSearch(dstPDGNode, visitedNodes, true, reachingAliasSetCopy);
-					else
-						aliasSearch(dstPDGNode, visitedNodes, false, reachingAliasSetCopy);
+				if(!(srcCFGNode instanceof CFGBranchDoLoopNode && flow.isTrueControlFlow()) && !visitedNodes.get(dstPDGNode.id)) {
+					visitedNodes.set(dstPDGNode.id);
+					stack.push(new AliasSearchFrame(dstCFGNode, flow.isLoopbackFlow(), reachingAliasSetCopy));
 				}
 			}
 		}
 	}
 
-	private void dataDependenceSearch(PDGNode initialNode, AbstractVariable variableInstruction,
-			PDGNode currentNode, Set<PDGNode> visitedNodes, CFGBranchNode loop) {
-		if(visitedNodes.contains(currentNode))
-			return;
-		else
-			visitedNodes.add(currentNode);
-		CFGNode currentCFGNode = currentNode.getCFGNode();
-		for(GraphEdge edge : currentCFGNode.outgoingEdges) {
-			Flow flow = (Flow)edge;
-			CFGNode srcCFGNode = (CFGNode)flow.src;
-			CFGNode dstCFGNode = (CFGNode)flow.dst;
-			if(flow.isLoopbackFlow()) {
-				if(dstCFGNode instanceof CFGBranchLoopNode)
-					loop = (CFGBranchLoopNode)dstCFGNode;
-				if(srcCFGNode instanceof CFGBranchDoLoopNode)
-					loop = (CFGBranchDoLoopNode)srcCFGNode;
-			}
-			PDGNode dstPDGNode = dstCFGNode.getPDGNode();
-			if(dstPDGNode.usesLocalVariable(variableInstruction)) {
-				PDGDataDependence dataDependence = new PDGDataDependence(initialNode, dstPDGNode, variableInstruction, loop);
-				edges.add(dataDependence);
-			}
-			if(!dstPDGNode.definesLocalVariable(variableInstruction)) {
-				dataDependenceSearch(initialNode, variableInstruction, dstPDGNode, visitedNodes, loop);
-			}
-			else if(initialNode.declaresLocalVariable(variableInstruction) && !initialNode.equals(dstPDGNode)) {
-				//create def-order data dependence edge
-				PDGDataDependence dataDependence = new PDGDataDependence(initialNode, dstPDGNode, variableInstruction, loop);
-				edges.add(dataDependence);
-			}
+	private static class AliasSearchFrame {
+		private Iterator<GraphEdge> edgeIterator;
+		private boolean visitedFromLoopbackFlow;
+		private ReachingAliasSet reachingAliasSet;
+
+		private AliasSearchFrame(CFGNode cfgNode, boolean visitedFromLoopbackFlow, ReachingAliasSet reachingAliasSet) {
+			this.edgeIterator = cfgNode.outgoingEdges.iterator();
+			this.visitedFromLoopbackFlow = visitedFromLoopbackFlow;
+			this.reachingAliasSet = reachingAliasSet;
 		}
 	}
 
-	private void antiDependenceSearch(PDGNode initialNode, AbstractVariable variableInstruction,
-			PDGNode currentNode, Set<PDGNode> visitedNodes, CFGBranchNode loop) {
-		if(visitedNodes.contains(currentNode))
-			return;
-		else
-			visitedNodes.add(currentNode);
-		CFGNode currentCFGNode = currentNode.getCFGNode();
-		for(GraphEdge edge : currentCFGNode.outgoingEdges) {
-			Flow flow = (Flow)edge;
+	/**
+	 * Depth-first search along the control flow starting from startNode, creating the data, anti or output dependences
+	 * of initialNode for the given variable. The search uses an explicit stack instead of recursion and visits the flows
+	 * in the same order as a recursive search would, so that the same loop-carried dependences are created.
+	 * The nodes that cannot reach any node in relevantNodes are not expanded, since no dependence can be found through them.
+	 */
+	private void dependenceSearch(PDGNode initialNode, AbstractVariable variableInstruction, PDGNode startNode,
+			PDGDependenceType dependenceType, BitSet relevantNodes, CFGReachability reachability) {
+		BitSet visitedNodes = new BitSet();
+		Stack<DependenceSearchFrame> stack = new Stack<DependenceSearchFrame>();
+		visitedNodes.set(startNode.id);
+		stack.push(new DependenceSearchFrame(startNode.getCFGNode(), null));
+		while(!stack.isEmpty()) {
+			DependenceSearchFrame frame = stack.peek();
+			if(!frame.edgeIterator.hasNext()) {
+				stack.pop();
+				continue;
+			}
+			Flow flow = (Flow)frame.edgeIterator.next();
 			CFGNode srcCFGNode = (CFGNode)flow.src;
 			CFGNode dstCFGNode = (CFGNode)flow.dst;
 			if(flow.isLoopbackFlow()) {
 				if(dstCFGNode instanceof CFGBranchLoopNode)
-					loop = (CFGBranchLoopNode)dstCFGNode;
+					frame.loop = (CFGBranchLoopNode)dstCFGNode;
 				if(srcCFGNode instanceof CFGBranchDoLoopNode)
-					loop = (CFGBranchDoLoopNode)srcCFGNode;
+					frame.loop = (CFGBranchDoLoopNode)srcCFGNode;
 			}
 			PDGNode dstPDGNode = dstCFGNode.getPDGNode();
-			if(dstPDGNode.definesLocalVariable(variableInstruction)) {
-				PDGAntiDependence antiDependence = new PDGAntiDependence(initialNode, dstPDGNode, variableInstruction, loop);
-				edges.add(antiDependence);
+			boolean continueSearch = false;
+			if(dependenceType.equals(PDGDependenceType.DATA)) {
+				if(dstPDGNode.usesLocalVariable(variableInstruction)) {
+					PDGDataDependence dataDependence = new PDGDataDependence(initialNode, dstPDGNode, variableInstruction, frame.loop);
+					edges.add(dataDependence);
+				}
+				if(!dstPDGNode.definesLocalVariable(variableInstruction)) {
+					continueSearch = true;
+				}
+				else if(initialNode.declaresLocalVariable(variableInstruction) && !initialNode.equals(dstPDGNode)) {
+					//create def-order data dependence edge
+					PDGDataDependence dataDependence = new PDGDataDependence(initialNode, dstPDGNode, variableInstruction, frame.loop);
+					edges.add(dataDependence);
+				}
+			}
+			else if(dstPDGNode.definesLocalVariable(variableInstruction)) {
+				if(dependenceType.equals(PDGDependenceType.ANTI)) {
+					PDGAntiDependence antiDependence = new PDGAntiDependence(initialNode, dstPDGNode, variableInstruction, frame.loop);
+					edges.add(antiDependence);
+				}
+				else {
+					PDGOutputDependence outputDependence = new PDGOutputDependence(initialNode, dstPDGNode, variableInstruction, frame.loop);
+					edges.add(outputDependence);
+				}
+			}
+			else {
+				continueSearch = true;
+			}
+			if(continueSearch && !visitedNodes.get(dstPDGNode.id) && reachability.reachesAny(dstCFGNode, relevantNodes)) {
+				visitedNodes.set(dstPDGNode.id);
+				stack.push(new DependenceSearchFrame(dstCFGNode, frame.loop));
 			}
-			else
-				antiDependenceSearch(initialNode, variableInstruction, dstPDGNode, visitedNodes, loop);
 		}
 	}
 
-	private void outputDependenceSearch(PDGNode initialNode, AbstractVariable variableInstruction,
-			PDGNode currentNode, Set<PDGNode> visitedNodes, CFGBranchNode loop) {
-		if(visitedNodes.contains(currentNode))
-			return;
-		else
-			visitedNodes.add(currentNode);
-		CFGNode currentCFGNode = currentNode.getCFGNode();
-		for(GraphEdge edge : currentCFGNode.outgoingEdges) {
-			Flow flow = (Flow)edge;
-			CFGNode srcCFGNode = (CFGNode)flow.src;
-			CFGNode dstCFGNode = (CFGNode)flow.dst;
-			if(flow.isLoopbackFlow()) {
-				if(dstCFGNode instanceof CFGBranchLoopNode)
-					loop = (CFGBranchLoopNode)dstCFGNode;
-				if(srcCFGNode instanceof CFGBranchDoLoopNode)
-					loop = (CFGBranchDoLoopNode)srcCFGNode;
-			}
-			PDGNode dstPDGNode = dstCFGNode.getPDGNode();
-			if(dstPDGNode.definesLocalVariable(variableInstruction)) {
-				PDGOutputDependence outputDependence = new PDGOutputDependence(initialNode, dstPDGNode, variableInstruction, loop);
-				edges.add(outputDependence);
-			}
-			else
-				outputDependenceSearch(initialNode, variableInstruction, dstPDGNode, visitedNodes, loop);
+	private static class DependenceSearchFrame {
+		private Iterator<GraphEdge> edgeIterator;
+		private CFGBranchNode loop;
+
+		private DependenceSearchFrame(CFGNode cfgNode, CFGBranchNode loop) {
+			this.edgeIterator = cfgNode.outgoingEdges.iterator();
+			this.loop = loop;
 		}
 	}
 
@@ -791,18 +824,58 @@ public class PDG extends Graph {
 	public Set<BasicBlock> boundaryBlocks(PDGNode node) {
 		Set<BasicBlock> boundaryBlocks = new LinkedHashSet<BasicBlock>();
 		BasicBlock srcBlock = node.getBasicBlock();
-		for(BasicBlock block : getBasicBlocks()) {
-			Set<BasicBlock> forwardReachableBlocks = forwardReachableBlocks(block);
-			Set<BasicBlock> dominatedBlocks = dominatedBlocks(block);
-			Set<BasicBlock> intersection = new LinkedHashSet<BasicBlock>();
-			intersection.addAll(forwardReachableBlocks);
-			intersection.retainAll(dominatedBlocks);
-			if(intersection.contains(srcBlock))
-				boundaryBlocks.add(block);
+		if(srcBlock == null)
+			return boundaryBlocks;
+		List<BasicBlock> basicBlocks = getBasicBlocks();
+		BitSet boundaryBlockIndices = getBoundaryBlockMatrix(basicBlocks)[srcBlock.getId()-1];
+		for(int i=boundaryBlockIndices.nextSetBit(0); i>=0; i=boundaryBlockIndices.nextSetBit(i+1)) {
+			boundaryBlocks.add(basicBlocks.get(i));
 		}
 		return boundaryBlocks;
 	}
 
+	//a cached PDG may be shared by analyses running in different threads
+	private synchronized BitSet[] getBoundaryBlockMatrix(List<BasicBlock> basicBlocks) {
+		if(boundaryBlockMatrix == null)
+			boundaryBlockMatrix = computeBoundaryBlockMatrix(basicBlocks);
+		return boundaryBlockMatrix;
+	}
+
+	//row i holds the indices of the blocks whose forward reachable and dominated blocks both contain block i
+	private BitSet[] computeBoundaryBlockMatrix(List<BasicBlock> basicBlocks) {
+		int numberOfBlocks = basicBlocks.size();
+		BitSet[] matrix = new BitSet[numberOfBlocks];
+		for(int i=0; i<numberOfBlocks; i++) {
+			matrix[i] = new BitSet(numberOfBlocks);
+		}
+		Map<PDGNode, BitSet> dominatedBlockIndexMap = new LinkedHashMap<PDGNode, BitSet>();
+		for(int i=0; i<numberOfBlocks; i++) {
+			BasicBlock block = basicBlocks.get(i);
+			PDGNode dominatingNode = directlyDominates(block);
+			BitSet dominatedBlockIndices = dominatedBlockIndexMap.get(dominatingNode);
+			if(dominatedBlockIndices == null) {
+				dominatedBlockIndices = getBlockIndices(dominatedBlocks(block));
+				dominatedBlockIndexMap.put(dominatingNode, dominatedBlockIndices);
+			}
+			BitSet intersection = getBlockIndices(forwardReachableBlocks(block));
+			intersection.and(dominatedBlockIndices);
+			for(int j=intersection.nextSetBit(0); j>=0; j=intersection.nextSetBit(j+1)) {
+				matrix[j].set(i);
+			}
+		}
+		return matrix;
+	}
+
+	//the basic blocks are numbered in the order of the list returned by getBasicBlocks, starting from 1
+	private BitSet getBlockIndices(Set<BasicBlock> blocks) {
+		BitSet blockIndices = new BitSet();
+		for(BasicBlock block : blocks) {
+			if(block != null)
+				blockIndices.set(block.getId()-1);
+		}
+		return blockIndices;
+	}
+
 	public Set<PDGNode> blockBasedRegion(BasicBlock block) {
 		Set<PDGNode> regionNodes = new LinkedHashSet<PDGNode>();
 		Set<BasicBlock> reachableBlocks = forwardReachableBlocks(block);
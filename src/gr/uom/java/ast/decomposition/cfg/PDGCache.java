@@ -0,0 +1,161 @@
+package gr.uom.java.ast.decomposition.cfg;
+
+import gr.uom.java.ast.AbstractMethodDeclaration;
+import gr.uom.java.ast.ClassDeclarationObject;
+import gr.uom.java.ast.CompilationUnitCache;
+import gr.uom.java.jdeodorant.preferences.PreferenceConstants;
+import gr.uom.java.jdeodorant.refactoring.Activator;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.core.ITypeRoot;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.dom.IMethodBinding;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jface.preference.IPreferenceStore;
+
+/**
+ * Cache of the PDGs of the analyzed methods, keyed by the handle identifier of the type root and the binding key of the method declaration,
+ * since the binding keys are not unique among the projects of the workspace.
+ * A cached PDG is reused only if the position and the hash code of the source code of the method declaration
+ * and the preferences affecting the construction of the PDG are unchanged.
+ * The PDG nodes refer to the AST nodes through their positions, so a cached PDG remains valid when the compilation units are parsed again.
+ * The cache is cleared whenever a compilation unit is changed, added or removed, because the PDG of a method depends on the methods it calls,
+ * and the least recently used PDGs are evicted when the total number of cached PDG nodes exceeds the size of the cache.
+ */
+public class PDGCache {
+	private static PDGCache instance;
+	private Map<String, PDGCacheEntry> pdgMap;
+	private int cachedNodes;
+	private int hitCount;
+	private int missCount;
+
+	private PDGCache() {
+		this.pdgMap = new LinkedHashMap<String, PDGCacheEntry>(16, 0.75f, true);
+	}
+
+	public static synchronized PDGCache getInstance() {
+		if(instance == null) {
+			instance = new PDGCache();
+		}
+		return instance;
+	}
+
+	/**
+	 * Returns the cached PDG of the given method, or constructs it and adds it to the cache.
+	 * The type root of the class should be locked in CompilationUnitCache by the caller.
+	 */
+	public PDG getPDG(ClassDeclarationObject classObject, AbstractMethodDeclaration methodObject, IProgressMonitor monitor) {
+		String key = null;
+		PDGCacheEntry entry = null;
+		MethodDeclaration methodDeclaration = methodObject.getMethodDeclaration();
+		IMethodBinding methodBinding = methodDeclaration.resolveBinding();
+		if(methodBinding != null) {
+			ITypeRoot typeRoot = classObject.getITypeRoot();
+			String source = getSource(typeRoot, methodDeclaration);
+			if(source != null) {
+				key = typeRoot.getHandleIdentifier() + "#" + methodBinding.getKey();
+				entry = new PDGCacheEntry(methodDeclaration.getStartPosition(), source, getConfiguration());
+				PDG cachedPDG = getCachedPDG(key, entry);
+				if(cachedPDG != null)
+					return cachedPDG;
+			}
+		}
+		PDG pdg = null;
+		synchronized(CompilationUnitCache.INDEX_LOCK) {
+			CFG cfg = new CFG(methodObject);
+			pdg = new PDG(cfg, classObject.getIFile(), classObject.getFieldsAccessedInsideMethod(methodObject), monitor);
+		}
+		if(key != null) {
+			entry.pdg = pdg;
+			entry.numberOfNodes = pdg.getNodes().size();
+			addPDG(key, entry);
+		}
+		return pdg;
+	}
+
+	private synchronized PDG getCachedPDG(String key, PDGCacheEntry entry) {
+		PDGCacheEntry cachedEntry = pdgMap.get(key);
+		if(cachedEntry != null && cachedEntry.matches(entry)) {
+			hitCount++;
+			return cachedEntry.pdg;
+		}
+		missCount++;
+		return null;
+	}
+
+	private synchronized void addPDG(String key, PDGCacheEntry entry) {
+		IPreferenceStore store = Activator.getDefault().getPreferenceStore();
+		int maximumCachedNodes = store.getInt(PreferenceConstants.P_PDG_CACHE_SIZE);
+		if(entry.numberOfNodes > maximumCachedNodes)
+			return;
+		PDGCacheEntry previousEntry = pdgMap.put(key, entry);
+		if(previousEntry != null)
+			cachedNodes -= previousEntry.numberOfNodes;
+		cachedNodes += entry.numberOfNodes;
+		Iterator<Map.Entry<String, PDGCacheEntry>> iterator = pdgMap.entrySet().iterator();
+		while(cachedNodes > maximumCachedNodes && iterator.hasNext()) {
+			Map.Entry<String, PDGCacheEntry> eldest = iterator.next();
+			if(!eldest.getKey().equals(key)) {
+				iterator.remove();
+				cachedNodes -= eldest.getValue().numberOfNodes;
+			}
+		}
+	}
+
+	private String getSource(ITypeRoot typeRoot, MethodDeclaration methodDeclaration) {
+		try {
+			String source = typeRoot.getSource();
+			int start = methodDeclaration.getStartPosition();
+			int end = start + methodDeclaration.getLength();
+			if(source != null && start >= 0 && end <= source.length())
+				return source.substring(start, end);
+		} catch (JavaModelException e) {
+			e.printStackTrace();
+		}
+		return null;
+	}
+
+	private String getConfiguration() {
+		IPreferenceStore store = Activator.getDefault().getPreferenceStore();
+		return store.getBoolean(PreferenceConstants.P_ENABLE_ALIAS_ANALYSIS) + ":" +
+				store.getInt(PreferenceConstants.P_MAXIMUM_CALL_GRAPH_ANALYSIS_DEPTH);
+	}
+
+	public synchronized void clearCache() {
+		pdgMap.clear();
+		cachedNodes = 0;
+	}
+
+	public synchronized int getCachedNodes() {
+		return cachedNodes;
+	}
+
+	public synchronized String toString() {
+		return "PDGs=" + pdgMap.size() + ", nodes=" + cachedNodes + ", hits=" + hitCount + ", misses=" + missCount;
+	}
+
+	private static class PDGCacheEntry {
+		private int startPosition;
+		private int length;
+		private int sourceHashCode;
+		private String configuration;
+		private PDG pdg;
+		private int numberOfNodes;
+
+		private PDGCacheEntry(int startPosition, String source, String configuration) {
+			this.startPosition = startPosition;
+			this.length = source.length();
+			this.sourceHashCode = source.hashCode();
+			this.configuration = configuration;
+		}
+
+		private boolean matches(PDGCacheEntry other) {
+			return this.startPosition == other.startPosition && this.length == other.length &&
+					this.sourceHashCode == other.sourceHashCode && this.configuration.equals(other.configuration);
+		}
+	}
+}
@@ -11,6 +11,7 @@ import gr.uom.java.ast.MethodObject;
 import gr.uom.java.ast.SystemObject;
 import gr.uom.java.ast.VariableDeclarationObject;
 import gr.uom.java.ast.decomposition.AbstractStatement;
+import gr.uom.java.ast.decomposition.matching.StatementFingerprint;
 import gr.uom.java.ast.util.ExpressionExtractor;
 
 import java.util.Iterator;
@@ -46,6 +47,7 @@ public class PDGNode extends GraphNode implements Comparable<PDGNode> {
 	private Set<AbstractVariable> originalDefinedVariables;
 	private Set<AbstractVariable> originalUsedVariables;
 	private MethodCallAnalyzer methodCallAnalyzer;
+	private volatile StatementFingerprint statementFingerprint;
 	
 	public PDGNode() {
 		super();
@@ -266,6 +268,12 @@ public class PDGNode extends GraphNode implements Comparable<PDGNode> {
 		return cfgNode.getASTStatement();
 	}
 
+	public StatementFingerprint getStatementFingerprint() {
+		if(statementFingerprint == null)
+			statementFingerprint = new StatementFingerprint(getASTStatement());
+		return statementFingerprint;
+	}
+
 	public boolean equals(Object o) {
 		if(this == o)
     		return true;
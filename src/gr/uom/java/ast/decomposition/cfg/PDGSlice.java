@@ -2,9 +2,11 @@ package gr.uom.java.ast.decomposition.cfg;
 
 import gr.uom.java.ast.AbstractMethodDeclaration;
 
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.Stack;
 import java.util.TreeSet;
 
 import org.eclipse.core.resources.IFile;
@@ -470,15 +472,26 @@ public class PDGSlice extends Graph {
 	}
 
 	private Set<PDGNode> traverseBackward(PDGNode node, Set<PDGNode> visitedNodes) {
+		//depth-first traversal with an explicit stack, the nodes are collected in the order they are first visited
 		Set<PDGNode> sliceNodes = new LinkedHashSet<PDGNode>();
+		Stack<Iterator<GraphEdge>> stack = new Stack<Iterator<GraphEdge>>();
 		sliceNodes.add(node);
 		visitedNodes.add(node);
-		for(GraphEdge edge : node.incomingEdges) {
-			PDGDependence dependence = (PDGDependence)edge;
+		stack.push(node.incomingEdges.iterator());
+		while(!stack.isEmpty()) {
+			Iterator<GraphEdge> edgeIterator = stack.peek();
+			if(!edgeIterator.hasNext()) {
+				stack.pop();
+				continue;
+			}
+			PDGDependence dependence = (PDGDependence)edgeIterator.next();
 			if(edges.contains(dependence) && !(dependence instanceof PDGAntiDependence) && !(dependence instanceof PDGOutputDependence)) {
 				PDGNode srcPDGNode = (PDGNode)dependence.src;
-				if(!visitedNodes.contains(srcPDGNode))
-					sliceNodes.addAll(traverseBackward(srcPDGNode, visitedNodes));
+				if(!visitedNodes.contains(srcPDGNode)) {
+					sliceNodes.add(srcPDGNode);
+					visitedNodes.add(srcPDGNode);
+					stack.push(srcPDGNode.incomingEdges.iterator());
+				}
 			}
 		}
 		return sliceNodes;
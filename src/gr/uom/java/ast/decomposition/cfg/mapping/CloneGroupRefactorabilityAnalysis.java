@@ -0,0 +1,285 @@
+package gr.uom.java.ast.decomposition.cfg.mapping;
+
+import gr.uom.java.ast.ASTInformationGenerator;
+import gr.uom.java.ast.CompilationUnitCache;
+import gr.uom.java.ast.decomposition.cfg.PDG;
+import gr.uom.java.jdeodorant.preferences.PreferenceConstants;
+import gr.uom.java.jdeodorant.refactoring.Activator;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.ITypeRoot;
+import org.eclipse.jface.preference.IPreferenceStore;
+
+import ca.concordia.jdeodorant.clone.parsers.CloneGroup;
+import ca.concordia.jdeodorant.clone.parsers.CloneGroupList;
+import ca.concordia.jdeodorant.clone.parsers.CloneInstance;
+
+/**
+ * Batch analysis of the refactorability of all pairs of clone instances in every group of a clone group list.
+ * The PDG of every method is constructed once per group and it is reused by all pairs of the group.
+ * When more than one worker thread is configured, the clone groups are mapped in parallel,
+ * and the results are returned in the order of the groups and the pairs within each group.
+ */
+public class CloneGroupRefactorabilityAnalysis {
+	private CloneGroupList cloneGroupList;
+	private List<ClonePairRefactorabilityResult> results;
+
+	public CloneGroupRefactorabilityAnalysis(CloneGroupList cloneGroupList) {
+		this.cloneGroupList = cloneGroupList;
+		this.results = new ArrayList<ClonePairRefactorabilityResult>();
+	}
+
+	/**
+	 * The system object of the project of the clone group list should be already parsed by ASTReader.
+	 * The progress monitor is advanced by one unit per clone group.
+	 */
+	public void analyze(IProgressMonitor monitor) {
+		CloneGroup[] cloneGroups = cloneGroupList.getCloneGroups();
+		List<List<ClonePairRefactorabilityResult>> groupResults = new ArrayList<List<ClonePairRefactorabilityResult>>();
+		for(int i=0; i<cloneGroups.length; i++) {
+			groupResults.add(null);
+		}
+		IPreferenceStore store = Activator.getDefault().getPreferenceStore();
+		int numberOfThreads = store.getInt(PreferenceConstants.P_NUMBER_OF_WORKER_THREADS);
+		try {
+			if(numberOfThreads > 1 && cloneGroups.length > 1) {
+				analyzeInParallel(cloneGroups, groupResults, numberOfThreads, monitor);
+			}
+			else {
+				for(int i=0; i<cloneGroups.length; i++) {
+					if(monitor != null && monitor.isCanceled())
+						throw new OperationCanceledException();
+					groupResults.set(i, getGroupResult(cloneGroups[i]));
+					if(monitor != null)
+						monitor.worked(1);
+				}
+			}
+		}
+		finally {
+			CompilationUnitCache.getInstance().releaseLock();
+			results.clear();
+			for(List<ClonePairRefactorabilityResult> groupResult : groupResults) {
+				if(groupResult != null)
+					results.addAll(groupResult);
+			}
+		}
+	}
+
+	private void analyzeInParallel(final CloneGroup[] cloneGroups, final List<List<ClonePairRefactorabilityResult>> groupResults,
+			int numberOfThreads, IProgressMonitor monitor) {
+		final AtomicInteger completedGroups = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+		try {
+			List<List<Integer>> partitions = partitionCloneGroupsBySharedFiles(cloneGroups);
+			List<Future<?>> futures = new ArrayList<Future<?>>();
+			for(final List<Integer> groupIndices : partitions) {
+				futures.add(executor.submit(new Runnable() {
+					public void run() {
+						//the type roots set by the mappers are confined to this thread
+						ASTInformationGenerator.setWorkerThread(true);
+						try {
+							for(int groupIndex : groupIndices) {
+								if(Thread.currentThread().isInterrupted())
+									return;
+								List<ClonePairRefactorabilityResult> groupResult = getGroupResult(cloneGroups[groupIndex]);
+								synchronized(groupResults) {
+									groupResults.set(groupIndex, groupResult);
+								}
+								completedGroups.incrementAndGet();
+							}
+						}
+						finally {
+							ASTInformationGenerator.setWorkerThread(false);
+						}
+					}
+				}));
+			}
+			int reportedGroups = 0;
+			for(int i=0; i<futures.size(); i++) {
+				Future<?> future = futures.get(i);
+				boolean done = false;
+				while(!done) {
+					if(monitor != null && monitor.isCanceled())
+						throw new OperationCanceledException();
+					try {
+						future.get(100, TimeUnit.MILLISECONDS);
+						done = true;
+					} catch (TimeoutException e) {
+						//poll again for cancellation
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						throw new OperationCanceledException();
+					} catch (ExecutionException e) {
+						//the groups that the failed task did not complete are reported with the failure, instead of missing from the results
+						Throwable cause = e.getCause();
+						cause.printStackTrace();
+						synchronized(groupResults) {
+							for(int groupIndex : partitions.get(i)) {
+								if(groupResults.get(groupIndex) == null) {
+									groupResults.set(groupIndex, getErrorResults(cloneGroups[groupIndex], cause));
+									completedGroups.incrementAndGet();
+								}
+							}
+						}
+						done = true;
+					}
+					//the progress monitor is only accessed by the calling thread
+					int completed = completedGroups.get();
+					if(monitor != null && completed > reportedGroups)
+						monitor.worked(completed - reportedGroups);
+					reportedGroups = completed;
+				}
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * The clone groups having instances in the same file are analyzed by the same task, so that the statements of a clone instance
+	 * and the PDG of its method are used by a single thread.
+	 * The compilation units of the called methods and the supertypes may still be shared by several tasks.
+	 * They are accessed only through the binding resolution of JDT, which is synchronized, the PDG construction and the index queries,
+	 * which are serialized on CompilationUnitCache.INDEX_LOCK, and the expression indexes and reachability memos attached to the nodes, which are synchronized.
+	 */
+	private List<List<Integer>> partitionCloneGroupsBySharedFiles(CloneGroup[] cloneGroups) {
+		Map<String, Integer> firstGroupIndexOfFile = new HashMap<String, Integer>();
+		int[] parent = new int[cloneGroups.length];
+		for(int i=0; i<cloneGroups.length; i++) {
+			parent[i] = i;
+			for(CloneInstance instance : cloneGroups[i].getCloneInstances()) {
+				String filePath = instance.getLocationInfo().getContainingFilePath();
+				Integer groupIndex = firstGroupIndexOfFile.get(filePath);
+				if(groupIndex == null)
+					firstGroupIndexOfFile.put(filePath, i);
+				else
+					parent[find(parent, i)] = find(parent, groupIndex);
+			}
+		}
+		Map<Integer, List<Integer>> partitionMap = new LinkedHashMap<Integer, List<Integer>>();
+		for(int i=0; i<cloneGroups.length; i++) {
+			int root = find(parent, i);
+			List<Integer> groupIndices = partitionMap.get(root);
+			if(groupIndices == null) {
+				groupIndices = new ArrayList<Integer>();
+				partitionMap.put(root, groupIndices);
+			}
+			groupIndices.add(i);
+		}
+		return new ArrayList<List<Integer>>(partitionMap.values());
+	}
+
+	private static int find(int[] parent, int i) {
+		while(parent[i] != i) {
+			parent[i] = parent[parent[i]];
+			i = parent[i];
+		}
+		return i;
+	}
+
+	//a failure outside the mapping of a pair is reported for every pair of the group, as a failed mapping is reported for its pair
+	private List<ClonePairRefactorabilityResult> getGroupResult(CloneGroup cloneGroup) {
+		try {
+			return analyzeCloneGroup(cloneGroup, null);
+		} catch (RuntimeException e) {
+			e.printStackTrace();
+			return getErrorResults(cloneGroup, e);
+		}
+	}
+
+	private List<ClonePairRefactorabilityResult> getErrorResults(CloneGroup cloneGroup, Throwable cause) {
+		List<ClonePairRefactorabilityResult> groupResult = new ArrayList<ClonePairRefactorabilityResult>();
+		List<CloneInstance> cloneInstances = cloneGroup.getCloneInstances();
+		for(int i=0; i<cloneInstances.size(); i++) {
+			for(int j=i+1; j<cloneInstances.size(); j++) {
+				ClonePairRefactorabilityResult result = new ClonePairRefactorabilityResult(cloneGroup, cloneInstances.get(i), cloneInstances.get(j));
+				result.setError(cause.toString());
+				groupResult.add(result);
+			}
+		}
+		return groupResult;
+	}
+
+	private List<ClonePairRefactorabilityResult> analyzeCloneGroup(CloneGroup cloneGroup, IProgressMonitor monitor) {
+		List<ClonePairRefactorabilityResult> groupResult = new ArrayList<ClonePairRefactorabilityResult>();
+		IJavaProject javaProject = cloneGroupList.getJavaProject();
+		Map<IMethod, PDG> pdgCache = new LinkedHashMap<IMethod, PDG>();
+		//the type roots of the group are pinned in the cache only while the group is analyzed
+		Set<ITypeRoot> lockedTypeRoots = new LinkedHashSet<ITypeRoot>();
+		List<CloneInstance> cloneInstances = cloneGroup.getCloneInstances();
+		try {
+			for(int i=0; i<cloneInstances.size(); i++) {
+				for(int j=i+1; j<cloneInstances.size(); j++) {
+					CloneInstance instance1 = cloneInstances.get(i);
+					CloneInstance instance2 = cloneInstances.get(j);
+					ClonePairRefactorabilityResult result = new ClonePairRefactorabilityResult(cloneGroup, instance1, instance2);
+					long start = System.currentTimeMillis();
+					if(instance1.isClassLevelClone() || instance2.isClassLevelClone()) {
+						result.setError("class-level clone");
+					}
+					else {
+						try {
+							result.setMapper(new CloneInstanceMapper(instance1, instance2, javaProject, pdgCache, lockedTypeRoots, monitor));
+						} catch (RuntimeException e) {
+							e.printStackTrace();
+							result.setError(e.toString());
+						}
+					}
+					result.setElapsedTime(System.currentTimeMillis() - start);
+					groupResult.add(result);
+				}
+			}
+		}
+		finally {
+			for(ITypeRoot typeRoot : lockedTypeRoots) {
+				CompilationUnitCache.getInstance().releaseLock(typeRoot);
+			}
+		}
+		return groupResult;
+	}
+
+	public List<ClonePairRefactorabilityResult> getResults() {
+		return results;
+	}
+
+	/**
+	 * Writes one comma-separated record per analyzed pair of clone instances, preceded by a header line.
+	 */
+	public void writeResults(File file) throws IOException {
+		BufferedWriter writer = new BufferedWriter(new FileWriter(file));
+		try {
+			writer.write(ClonePairRefactorabilityResult.getHeader());
+			writer.newLine();
+			for(ClonePairRefactorabilityResult result : results) {
+				writer.write(result.toString());
+				writer.newLine();
+			}
+		}
+		finally {
+			writer.close();
+		}
+	}
+}
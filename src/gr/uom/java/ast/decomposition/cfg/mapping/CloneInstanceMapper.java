@@ -2,10 +2,12 @@ package gr.uom.java.ast.decomposition.cfg.mapping;
 
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeSet;
 
 import gr.uom.java.ast.ASTReader;
@@ -13,8 +15,8 @@ import gr.uom.java.ast.AbstractMethodDeclaration;
 import gr.uom.java.ast.ClassDeclarationObject;
 import gr.uom.java.ast.CompilationUnitCache;
 import gr.uom.java.ast.SystemObject;
-import gr.uom.java.ast.decomposition.cfg.CFG;
 import gr.uom.java.ast.decomposition.cfg.PDG;
+import gr.uom.java.ast.decomposition.cfg.PDGCache;
 import gr.uom.java.ast.decomposition.cfg.PDGMethodEntryNode;
 import gr.uom.java.ast.decomposition.cfg.PDGNode;
 import gr.uom.java.ast.decomposition.matching.NodePairComparisonCache;
@@ -52,15 +54,53 @@ import ca.concordia.jdeodorant.clone.parsers.TextDiff.Diff;
 
 @SuppressWarnings("restriction")
 public class CloneInstanceMapper {
-
 	private List<PDGRegionSubTreeMapper> subTreeMappers;
+	private Map<IMethod, PDG> pdgCache;
+	private Set<ITypeRoot> lockedTypeRoots;
+	private int numberOfSubtreeComparisons;
+	private int numberOfRejectedComparisons;
 
 	public List<PDGRegionSubTreeMapper> getSubTreeMappers() {
 		return subTreeMappers;
 	}
 
+	public int getNumberOfSubtreeComparisons() {
+		return numberOfSubtreeComparisons;
+	}
+
+	/**
+	 * Returns true if the mapping of any subtree was stopped by the state budget or the time limit of the mapping state search.
+	 */
+	public boolean isApproximate() {
+		for(PDGRegionSubTreeMapper subTreeMapper : subTreeMappers) {
+			if(subTreeMapper.isApproximate())
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the number of node pairs rejected by their statement fingerprints without comparing their subtrees.
+	 */
+	public int getNumberOfRejectedComparisons() {
+		return numberOfRejectedComparisons;
+	}
+
 	public CloneInstanceMapper(CloneInstance instance1, CloneInstance instance2, IJavaProject javaProject, IProgressMonitor monitor) {
+		this(instance1, instance2, javaProject, new LinkedHashMap<IMethod, PDG>(), new LinkedHashSet<ITypeRoot>(), monitor);
+	}
+
+	/**
+	 * The PDGs of the methods containing the clone instances are taken from the given map if present,
+	 * otherwise they are constructed and added to the map, so that they are reused by the mappers of the other clone pairs sharing the map.
+	 * The type roots locked in CompilationUnitCache by the mapper are added to the given set, so that the caller can release them when they are no longer needed.
+	 */
+	public CloneInstanceMapper(CloneInstance instance1, CloneInstance instance2, IJavaProject javaProject, Map<IMethod, PDG> pdgCache,
+			Set<ITypeRoot> lockedTypeRoots, IProgressMonitor monitor) {
 		this.subTreeMappers = new ArrayList<PDGRegionSubTreeMapper>();
+		this.pdgCache = pdgCache;
+		this.lockedTypeRoots = lockedTypeRoots;
+		NodePairComparisonCache cache = NodePairComparisonCache.openSession();
 		try {
 			SystemObject systemObject = ASTReader.getSystemObject();
 			int firstStartOffset = instance1.getLocationInfo().getUpdatedStartOffset();
@@ -99,8 +139,8 @@ public class CloneInstanceMapper {
 				ITypeRoot typeRoot2 = classObject2.getITypeRoot();
 				ICompilationUnit iCompilationUnit1 = (ICompilationUnit)JavaCore.create(classObject1.getIFile());
 				ICompilationUnit iCompilationUnit2 = (ICompilationUnit)JavaCore.create(classObject2.getIFile());
-				CompilationUnitCache.getInstance().lock(typeRoot1);
-				CompilationUnitCache.getInstance().lock(typeRoot2);
+				lock(typeRoot1);
+				lock(typeRoot2);
 
 				ASTNode node1 = NodeFinder.perform(classObject1.getClassObject().getAbstractTypeDeclaration().getRoot(), firstStartOffset, firstEndOffset - firstStartOffset);
 				ExtractStatementsVisitor visitor1 = new ExtractStatementsVisitor(node1);
@@ -117,13 +157,7 @@ public class CloneInstanceMapper {
 					node2.getParent().accept(visitor2);
 
 				PDG pdg1 = getPDG(iMethod1, monitor);
-				PDG pdg2 = null;
-				if(!iMethod1.equals(iMethod2)) {
-					pdg2 = getPDG(iMethod2, monitor);
-				}
-				else {
-					pdg2 = pdg1;
-				}
+				PDG pdg2 = getPDG(iMethod2, monitor);
 
 				// These two contain the entire nesting structure of the methods
 				ControlDependenceTreeNode controlDependenceTreePDG1 = new ControlDependenceTreeGenerator(pdg1).getRoot();
@@ -177,7 +211,6 @@ public class CloneInstanceMapper {
 				
 				int numberOfStatementsToBeRefactored = Math.min(ASTNodes1.size(), ASTNodes2.size());
 				if(numberOfStatementsToBeRefactored == 0) {
-					NodePairComparisonCache.getInstance().clearCache();
 					return;
 				}
 				
@@ -186,7 +219,6 @@ public class CloneInstanceMapper {
 
 					if (allStatementsAreInAnonymousClassDeclarationOrCatchClauseOrFinallyBlock(ASTNodes1) || 
 							allStatementsAreInAnonymousClassDeclarationOrCatchClauseOrFinallyBlock(ASTNodes2)) {
-						NodePairComparisonCache.getInstance().clearCache();
 						return;
 					}
 					// Get the control parent (or method) containing the clone fragments
@@ -380,12 +412,16 @@ public class CloneInstanceMapper {
 						}
 					}
 				}
-				NodePairComparisonCache.getInstance().clearCache();
 			}
 		}
 		catch(JavaModelException e) {
 			e.printStackTrace();
 		}
+		finally {
+			numberOfSubtreeComparisons = cache.getMissCount();
+			numberOfRejectedComparisons = cache.getRejectionCount();
+			cache.closeSession();
+		}
 	}
 
 	private List<ControlDependenceTreeNode> getCDTNodesInBreadthFirstOrder(List<ControlDependenceTreeNode> OrderedCDTNodesList, List<ControlDependenceTreeNode> UnorderedCDTNodesList) {
@@ -711,6 +747,9 @@ public class CloneInstanceMapper {
 	}
 
 	private PDG getPDG(IMethod iMethod, IProgressMonitor progressMonitor) throws JavaModelException {
+		PDG cachedPDG = pdgCache.get(iMethod);
+		if(cachedPDG != null)
+			return cachedPDG;
 		SystemObject systemObject = ASTReader.getSystemObject();
 		AbstractMethodDeclaration methodObject = systemObject.getMethodObject(iMethod);
 		ClassDeclarationObject classObject = null;
@@ -723,12 +762,17 @@ public class CloneInstanceMapper {
 		}
 
 		ITypeRoot typeRoot = classObject.getITypeRoot();
-		CompilationUnitCache.getInstance().lock(typeRoot);
-		CFG cfg = new CFG(methodObject);
-		final PDG pdg = new PDG(cfg, classObject.getIFile(), classObject.getFieldsAccessedInsideMethod(methodObject), progressMonitor);
+		lock(typeRoot);
+		PDG pdg = PDGCache.getInstance().getPDG(classObject, methodObject, progressMonitor);
+		pdgCache.put(iMethod, pdg);
 		return pdg;
 	}
 
+	private void lock(ITypeRoot typeRoot) {
+		lockedTypeRoots.add(typeRoot);
+		CompilationUnitCache.getInstance().lock(typeRoot);
+	}
+
 	private IMethod getIMethod(IJavaProject jProject, String typeName, String methodName, String methodSignature, int start, int end)
 			throws JavaModelException {
 		IType type = jProject.findType(typeName);
@@ -0,0 +1,120 @@
+package gr.uom.java.ast.decomposition.cfg.mapping;
+
+import ca.concordia.jdeodorant.clone.parsers.CloneGroup;
+import ca.concordia.jdeodorant.clone.parsers.CloneInstance;
+
+/**
+ * The summary of the refactorability analysis of a pair of clone instances belonging to the same clone group.
+ */
+public class ClonePairRefactorabilityResult {
+	private CloneGroup cloneGroup;
+	private CloneInstance instance1;
+	private CloneInstance instance2;
+	private int numberOfSubTreeMappers;
+	private int numberOfMappedNodes;
+	private int numberOfPreconditionViolations;
+	private int numberOfSubtreeComparisons;
+	private int numberOfRejectedComparisons;
+	private boolean approximate;
+	private long elapsedTime;
+	private String error;
+
+	public ClonePairRefactorabilityResult(CloneGroup cloneGroup, CloneInstance instance1, CloneInstance instance2) {
+		this.cloneGroup = cloneGroup;
+		this.instance1 = instance1;
+		this.instance2 = instance2;
+	}
+
+	void setMapper(CloneInstanceMapper mapper) {
+		numberOfSubtreeComparisons = mapper.getNumberOfSubtreeComparisons();
+		numberOfRejectedComparisons = mapper.getNumberOfRejectedComparisons();
+		approximate = mapper.isApproximate();
+		for(PDGRegionSubTreeMapper subTreeMapper : mapper.getSubTreeMappers()) {
+			numberOfSubTreeMappers++;
+			MappingState state = subTreeMapper.getMaximumStateWithMinimumDifferences();
+			if(state != null)
+				numberOfMappedNodes += state.getNodeMappings().size();
+			numberOfPreconditionViolations += subTreeMapper.getPreconditionViolations().size();
+		}
+	}
+
+	void setElapsedTime(long elapsedTime) {
+		this.elapsedTime = elapsedTime;
+	}
+
+	void setError(String error) {
+		this.error = error;
+	}
+
+	public CloneGroup getCloneGroup() {
+		return cloneGroup;
+	}
+
+	public CloneInstance getInstance1() {
+		return instance1;
+	}
+
+	public CloneInstance getInstance2() {
+		return instance2;
+	}
+
+	public int getNumberOfSubTreeMappers() {
+		return numberOfSubTreeMappers;
+	}
+
+	public int getNumberOfMappedNodes() {
+		return numberOfMappedNodes;
+	}
+
+	public int getNumberOfPreconditionViolations() {
+		return numberOfPreconditionViolations;
+	}
+
+	public int getNumberOfSubtreeComparisons() {
+		return numberOfSubtreeComparisons;
+	}
+
+	public int getNumberOfRejectedComparisons() {
+		return numberOfRejectedComparisons;
+	}
+
+	/**
+	 * Returns true if the mapping was stopped by the state budget or the time limit, so it may not be maximal.
+	 */
+	public boolean isApproximate() {
+		return approximate;
+	}
+
+	/**
+	 * Returns the time in milliseconds spent to map the pair, including the construction of the PDGs that were not already constructed for a previous pair of the group.
+	 */
+	public long getElapsedTime() {
+		return elapsedTime;
+	}
+
+	public String getError() {
+		return error;
+	}
+
+	public boolean isRefactorable() {
+		return error == null && numberOfMappedNodes > 0 && numberOfPreconditionViolations == 0;
+	}
+
+	public String toString() {
+		return cloneGroup.getCloneGroupID() + "," + instance1.getCloneID() + "," + instance2.getCloneID() + "," +
+				escape(instance1.getContainingClassFullyQualifiedName() + "::" + instance1.getMethodSignature()) + "," +
+				escape(instance2.getContainingClassFullyQualifiedName() + "::" + instance2.getMethodSignature()) + "," +
+				numberOfSubTreeMappers + "," + numberOfMappedNodes + "," + numberOfPreconditionViolations + "," +
+				numberOfSubtreeComparisons + "," + numberOfRejectedComparisons + "," + isRefactorable() + "," + approximate + "," + elapsedTime + "," + (error != null ? escape(error) : "");
+	}
+
+	public static String getHeader() {
+		return "group,clone1,clone2,method1,method2,mappers,mapped_nodes,precondition_violations,subtree_comparisons,rejected_comparisons,refactorable,approximate,time_ms,error";
+	}
+
+	private static String escape(String value) {
+		if(value.indexOf(',') != -1 || value.indexOf('"') != -1 || value.indexOf('\n') != -1)
+			return "\"" + value.replace("\"", "\"\"") + "\"";
+		return value;
+	}
+}
@@ -24,6 +24,8 @@ import gr.uom.java.ast.decomposition.matching.ASTNodeMatcher;
 import gr.uom.java.ast.decomposition.matching.BindingSignaturePair;
 import gr.uom.java.ast.decomposition.matching.Difference;
 import gr.uom.java.ast.decomposition.matching.DifferenceType;
+import gr.uom.java.jdeodorant.preferences.PreferenceConstants;
+import gr.uom.java.jdeodorant.refactoring.Activator;
 
 import java.util.ArrayList;
 import java.util.Iterator;
@@ -40,6 +42,7 @@ import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.dom.ITypeBinding;
 import org.eclipse.jdt.core.dom.SwitchStatement;
 import org.eclipse.jdt.core.dom.VariableDeclaration;
+import org.eclipse.jface.preference.IPreferenceStore;
 
 public abstract class DivideAndConquerMatcher {
 
@@ -56,6 +59,10 @@ public abstract class DivideAndConquerMatcher {
 	private TreeSet<PDGNode> allNodesInSubTreePDG2;
 	private CloneStructureNode root;
 	private MappingState finalState;
+	private int maximumNumberOfMappingStates;
+	//the time after which the mapping state searches of this clone pair stop expanding states, 0 for no time limit
+	private long mappingDeadline;
+	private boolean approximate;
 	protected PreconditionExaminer preconditionExaminer;
 	
 	public DivideAndConquerMatcher(PDG pdg1, PDG pdg2,
@@ -72,6 +79,19 @@ public abstract class DivideAndConquerMatcher {
 		this.monitor = monitor;
 		this.allNodesInSubTreePDG1 = new TreeSet<PDGNode>();
 		this.allNodesInSubTreePDG2 = new TreeSet<PDGNode>();
+		IPreferenceStore store = Activator.getDefault().getPreferenceStore();
+		this.maximumNumberOfMappingStates = store.getInt(PreferenceConstants.P_MAXIMUM_NUMBER_OF_MAPPING_STATES);
+		int maximumMappingTime = store.getInt(PreferenceConstants.P_MAXIMUM_MAPPING_TIME);
+		if(maximumMappingTime > 0)
+			this.mappingDeadline = System.currentTimeMillis() + maximumMappingTime*1000L;
+	}
+
+	/**
+	 * Returns true if a mapping state search of this clone pair was stopped by the state budget or the time limit,
+	 * so the mapping may be smaller than the one found by an exhaustive search.
+	 */
+	public boolean isApproximate() {
+		return approximate;
 	}
 
 	public boolean hasMappedNodes() {
@@ -1443,18 +1463,17 @@ public abstract class DivideAndConquerMatcher {
 	}
 
 	private List<MappingState> processPDGNodes(MappingState parent, Set<PDGNode> nodesG1, Set<PDGNode> nodesG2) {
-		MappingState.setRestrictedNodesG1(nodesG1);
-		MappingState.setRestrictedNodesG2(nodesG2);
+		MappingSearch search = new MappingSearch(nodesG1, nodesG2, maximumNumberOfMappingStates, mappingDeadline);
 		List<MappingState> finalStates = null;
 		if(nodesG1.size() < nodesG2.size()) {
-			finalStates = processPDGNodesWithFirstCloneAsReference(parent, nodesG1, nodesG2);
+			finalStates = processPDGNodesWithFirstCloneAsReference(parent, nodesG1, nodesG2, search);
 		}
 		else if(nodesG1.size() > nodesG2.size()) {
-			finalStates = processPDGNodesWithSecondCloneAsReference(parent, nodesG1, nodesG2);
+			finalStates = processPDGNodesWithSecondCloneAsReference(parent, nodesG1, nodesG2, search);
 		}
 		else {
-			List<MappingState> finalStates1 = processPDGNodesWithFirstCloneAsReference(parent, nodesG1, nodesG2);
-			List<MappingState> finalStates2 = processPDGNodesWithSecondCloneAsReference(parent, nodesG1, nodesG2);
+			List<MappingState> finalStates1 = processPDGNodesWithFirstCloneAsReference(parent, nodesG1, nodesG2, search);
+			List<MappingState> finalStates2 = processPDGNodesWithSecondCloneAsReference(parent, nodesG1, nodesG2, search);
 			finalStates = new ArrayList<MappingState>(finalStates1);
 			for(MappingState state : finalStates2) {
 				if(!finalStates.contains(state)) {
@@ -1462,12 +1481,14 @@ public abstract class DivideAndConquerMatcher {
 				}
 			}
 		}
+		if(search.isTruncated())
+			approximate = true;
 		if(finalStates.isEmpty() && parent != null)
 			finalStates.add(parent);
 		return finalStates;
 	}
 
-	private List<MappingState> processPDGNodesWithFirstCloneAsReference(MappingState parent, Set<PDGNode> nodesG1, Set<PDGNode> nodesG2) {
+	private List<MappingState> processPDGNodesWithFirstCloneAsReference(MappingState parent, Set<PDGNode> nodesG1, Set<PDGNode> nodesG2, MappingSearch search) {
 		List<MappingState> finalStates = new ArrayList<MappingState>();
 		for(PDGNode node1 : nodesG1) {
 			List<MappingState> currentStates = new ArrayList<MappingState>();
@@ -1478,7 +1499,8 @@ public abstract class DivideAndConquerMatcher {
 					PDGNodeMapping mapping = new PDGNodeMapping(node1, node2, astNodeMatcher);
 					if(finalStates.isEmpty()) {
 						MappingState state = new MappingState(parent, mapping);
-						state.traverse(mapping);
+						search.startTraversal();
+						state.traverse(mapping, search);
 						List<MappingState> maxStates = state.getMaximumCommonSubGraphs();
 						for(MappingState temp : maxStates) {
 							if(!currentStates.contains(temp)) {
@@ -1489,10 +1511,11 @@ public abstract class DivideAndConquerMatcher {
 					else {
 						for(MappingState previousState : finalStates) {
 							if(!previousState.containsAtLeastOneNodeInMappings(mapping) && previousState.mappedControlParents(node1, node2) &&
-									!previousState.incomingDataDependenciesFromUnvisitedNodes(mapping) && !previousState.incomingDataDependenciesFromNonMatchingNodes(node1, node2)) {
+									!previousState.incomingDataDependenciesFromUnvisitedNodes(mapping, search) && !previousState.incomingDataDependenciesFromNonMatchingNodes(node1, node2, search)) {
 								MappingState state = new MappingState(previousState, mapping);
 								previousState.addChild(state);
-								state.traverse(mapping);
+								search.startTraversal();
+								state.traverse(mapping, search);
 								List<MappingState> maxStates = state.getMaximumCommonSubGraphs();
 								for(MappingState temp : maxStates) {
 									if(!currentStates.contains(temp)) {
@@ -1510,7 +1533,7 @@ public abstract class DivideAndConquerMatcher {
 		return finalStates;
 	}
 
-	private List<MappingState> processPDGNodesWithSecondCloneAsReference(MappingState parent, Set<PDGNode> nodesG1, Set<PDGNode> nodesG2) {
+	private List<MappingState> processPDGNodesWithSecondCloneAsReference(MappingState parent, Set<PDGNode> nodesG1, Set<PDGNode> nodesG2, MappingSearch search) {
 		List<MappingState> finalStates = new ArrayList<MappingState>();
 		for(PDGNode node2 : nodesG2) {
 			List<MappingState> currentStates = new ArrayList<MappingState>();
@@ -1521,7 +1544,8 @@ public abstract class DivideAndConquerMatcher {
 					PDGNodeMapping mapping = new PDGNodeMapping(node1, node2, astNodeMatcher);
 					if(finalStates.isEmpty()) {
 						MappingState state = new MappingState(parent, mapping);
-						state.traverse(mapping);
+						search.startTraversal();
+						state.traverse(mapping, search);
 						List<MappingState> maxStates = state.getMaximumCommonSubGraphs();
 						for(MappingState temp : maxStates) {
 							if(!currentStates.contains(temp)) {
@@ -1532,10 +1556,11 @@ public abstract class DivideAndConquerMatcher {
 					else {
 						for(MappingState previousState : finalStates) {
 							if(!previousState.containsAtLeastOneNodeInMappings(mapping) && previousState.mappedControlParents(node1, node2) &&
-									!previousState.incomingDataDependenciesFromUnvisitedNodes(mapping) && !previousState.incomingDataDependenciesFromNonMatchingNodes(node1, node2)) {
+									!previousState.incomingDataDependenciesFromUnvisitedNodes(mapping, search) && !previousState.incomingDataDependenciesFromNonMatchingNodes(node1, node2, search)) {
 								MappingState state = new MappingState(previousState, mapping);
 								previousState.addChild(state);
-								state.traverse(mapping);
+								search.startTraversal();
+								state.traverse(mapping, search);
 								List<MappingState> maxStates = state.getMaximumCommonSubGraphs();
 								for(MappingState temp : maxStates) {
 									if(!currentStates.contains(temp)) {
@@ -0,0 +1,168 @@
+package gr.uom.java.ast.decomposition.cfg.mapping;
+
+import gr.uom.java.ast.decomposition.cfg.PDGNode;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The context of a single exploration of the mapping state space, restricted to a pair of PDG node sets.
+ * In bounded mode the states of a traversal are deduplicated by their canonical set of node mappings,
+ * the states that cannot grow larger than the best state of the traversal found so far are pruned,
+ * and the exploration stops expanding states when the state budget or the deadline is exceeded,
+ * so that the states found so far are returned.
+ */
+public class MappingSearch {
+	private Set<PDGNode> restrictedNodesG1;
+	private Set<PDGNode> restrictedNodesG2;
+	private int maximumNumberOfStates;
+	private long deadline;
+	private int numberOfStates;
+	private boolean truncated;
+	private int maximumNumberOfNodeMappings;
+	private Set<MappingStateKey> exploredStates;
+	private Set<Long> nonMatchingNodePairs;
+
+	/**
+	 * Creates an exhaustive search, equivalent to the unbounded exploration of the state space.
+	 */
+	public MappingSearch(Set<PDGNode> restrictedNodesG1, Set<PDGNode> restrictedNodesG2) {
+		this(restrictedNodesG1, restrictedNodesG2, 0, 0);
+	}
+
+	/**
+	 * @param maximumNumberOfStates the maximum number of states expanded by the search, 0 for an exhaustive search
+	 * @param deadline the time in milliseconds after which no state is expanded, 0 for no deadline
+	 */
+	public MappingSearch(Set<PDGNode> restrictedNodesG1, Set<PDGNode> restrictedNodesG2, int maximumNumberOfStates, long deadline) {
+		this.restrictedNodesG1 = restrictedNodesG1;
+		this.restrictedNodesG2 = restrictedNodesG2;
+		this.maximumNumberOfStates = maximumNumberOfStates;
+		this.deadline = deadline;
+		this.exploredStates = new HashSet<MappingStateKey>();
+		this.nonMatchingNodePairs = new HashSet<Long>();
+	}
+
+	public Set<PDGNode> getRestrictedNodesG1() {
+		return restrictedNodesG1;
+	}
+
+	public Set<PDGNode> getRestrictedNodesG2() {
+		return restrictedNodesG2;
+	}
+
+	public boolean isBounded() {
+		return maximumNumberOfStates > 0 || deadline > 0;
+	}
+
+	public boolean isExhausted() {
+		if(maximumNumberOfStates > 0 && numberOfStates >= maximumNumberOfStates)
+			truncated = true;
+		else if(deadline > 0 && System.currentTimeMillis() > deadline)
+			truncated = true;
+		else
+			return false;
+		return true;
+	}
+
+	/**
+	 * Returns true if some states were left unexpanded because the state budget or the deadline was exceeded,
+	 * in which case the states found may not include the maximum common subgraphs.
+	 */
+	public boolean isTruncated() {
+		return truncated;
+	}
+
+	/**
+	 * Starts the traversal of the states reachable from a new initial state. The deduplication and the pruning are performed
+	 * among the states of the same traversal, because the maximum common subgraphs are selected among the leaves of each traversal.
+	 */
+	public void startTraversal() {
+		exploredStates.clear();
+		maximumNumberOfNodeMappings = 0;
+	}
+
+	/**
+	 * Registers a new state before it is expanded. In bounded mode, returns false if the state should not be expanded,
+	 * because an equivalent state has already been explored or the state cannot reach the size of the best state found so far.
+	 */
+	public boolean visitState(MappingState state, PDGNodeMapping lastNodeMapping) {
+		if(isBounded()) {
+			if(!exploredStates.add(new MappingStateKey(state, lastNodeMapping)))
+				return false;
+			int mappedNodes = state.getNodeMappings().size();
+			int unmappedNodesG1 = countUnmappedNodes(restrictedNodesG1, state.getMappedNodesG1());
+			int unmappedNodesG2 = countUnmappedNodes(restrictedNodesG2, state.getMappedNodesG2());
+			int upperBound = mappedNodes + Math.min(unmappedNodesG1, unmappedNodesG2);
+			//the states with one node mapping less than the maximum are also kept as maximum common subgraphs,
+			//the bound does not take into account the statements additionally matched by the node mappings
+			if(upperBound < maximumNumberOfNodeMappings - 1)
+				return false;
+			if(mappedNodes > maximumNumberOfNodeMappings)
+				maximumNumberOfNodeMappings = mappedNodes;
+		}
+		numberOfStates++;
+		return true;
+	}
+
+	private int countUnmappedNodes(Set<PDGNode> restrictedNodes, Set<PDGNode> mappedNodes) {
+		int count = 0;
+		for(PDGNode node : restrictedNodes) {
+			if(!mappedNodes.contains(node))
+				count++;
+		}
+		return count;
+	}
+
+	/**
+	 * The match of a pair of nodes does not depend on the state, so a pair that failed to match is not compared again.
+	 */
+	public boolean isNonMatchingNodePair(PDGNode nodeG1, PDGNode nodeG2) {
+		return nonMatchingNodePairs.contains(getKey(nodeG1, nodeG2));
+	}
+
+	public void addNonMatchingNodePair(PDGNode nodeG1, PDGNode nodeG2) {
+		nonMatchingNodePairs.add(getKey(nodeG1, nodeG2));
+	}
+
+	public int getNumberOfStates() {
+		return numberOfStates;
+	}
+
+	private static long getKey(PDGNode nodeG1, PDGNode nodeG2) {
+		return ((long)nodeG1.getId() << 32) | (nodeG2.getId() & 0xFFFFFFFFL);
+	}
+
+	private static class MappingStateKey {
+		private long[] nodeMappingKeys;
+		private long lastNodeMappingKey;
+		private int hashCode;
+
+		private MappingStateKey(MappingState state, PDGNodeMapping lastNodeMapping) {
+			Set<PDGNodeMapping> nodeMappings = state.getNodeMappings();
+			this.nodeMappingKeys = new long[nodeMappings.size()];
+			int i = 0;
+			for(PDGNodeMapping nodeMapping : nodeMappings) {
+				nodeMappingKeys[i++] = getKey(nodeMapping.getNodeG1(), nodeMapping.getNodeG2());
+			}
+			Arrays.sort(nodeMappingKeys);
+			this.lastNodeMappingKey = getKey(lastNodeMapping.getNodeG1(), lastNodeMapping.getNodeG2());
+			this.hashCode = 31 * Arrays.hashCode(nodeMappingKeys) + (int)(lastNodeMappingKey ^ (lastNodeMappingKey >>> 32));
+		}
+
+		public int hashCode() {
+			return hashCode;
+		}
+
+		public boolean equals(Object o) {
+			if(this == o)
+				return true;
+			if(o instanceof MappingStateKey) {
+				MappingStateKey other = (MappingStateKey)o;
+				return this.lastNodeMappingKey == other.lastNodeMappingKey && Arrays.equals(this.nodeMappingKeys, other.nodeMappingKeys);
+			}
+			return false;
+		}
+	}
+}
@@ -31,8 +31,6 @@ public class MappingState {
 	private List<MappingState> children;
 	private Set<PDGNodeMapping> nodeMappings;
 	private Set<PDGDependence> visitedEdgesG1;
-	private static Set<PDGNode> restrictedNodesG1;
-	private static Set<PDGNode> restrictedNodesG2;
 	
 	public MappingState(MappingState parent, PDGNodeMapping nodeMapping) {
 		this.children = new ArrayList<MappingState>();
@@ -45,14 +43,6 @@ public class MappingState {
 		this.nodeMappings.add(nodeMapping);
 	}
 
-	public static void setRestrictedNodesG1(Set<PDGNode> restrictedNodesG1) {
-		MappingState.restrictedNodesG1 = restrictedNodesG1;
-	}
-
-	public static void setRestrictedNodesG2(Set<PDGNode> restrictedNodesG2) {
-		MappingState.restrictedNodesG2 = restrictedNodesG2;
-	}
-
 	public void addChild(MappingState state) {
 		children.add(state);
 	}
@@ -254,7 +244,11 @@ public class MappingState {
 		return getNodeMappingSize();
 	}
 
-	public void traverse(PDGNodeMapping initialNodeMapping) {
+	public void traverse(PDGNodeMapping initialNodeMapping, MappingSearch search) {
+		if(search.isExhausted())
+			return;
+		Set<PDGNode> restrictedNodesG1 = search.getRestrictedNodesG1();
+		Set<PDGNode> restrictedNodesG2 = search.getRestrictedNodesG2();
 		PDGNode nodeG1 = initialNodeMapping.getNodeG1();
 		PDGNode nodeG2 = initialNodeMapping.getNodeG2();
 		Iterator<GraphEdge> nodeG1EdgeIterator = nodeG1.getDependenceIterator();
@@ -303,14 +297,18 @@ public class MappingState {
 								symmetricalIfNodes = true;
 							}
 						}
-						if(dstNodeG1 != null && dstNodeG2 != null && restrictedNodesG1.contains(dstNodeG1) && restrictedNodesG2.contains(dstNodeG2)) {
+						if(dstNodeG1 != null && dstNodeG2 != null && restrictedNodesG1.contains(dstNodeG1) && restrictedNodesG2.contains(dstNodeG2) &&
+								!search.isNonMatchingNodePair(dstNodeG1, dstNodeG2)) {
 							ASTNodeMatcher astNodeMatcher = new ASTNodeMatcher(initialNodeMapping.getTypeRoot1(), initialNodeMapping.getTypeRoot2());
 							boolean match;
 							if(dstNodeG1 instanceof PDGMethodEntryNode || dstNodeG2 instanceof PDGMethodEntryNode)
 								match = false;
 							else 
 								match = astNodeMatcher.match(dstNodeG1, dstNodeG2);
-							if(match && astNodeMatcher.isParameterizable() && (mappedControlParents(dstNodeG1, dstNodeG2) || symmetricalIfNodes) && nodesDeclareVariableUsedInMappedNodes(dstNodeG1, dstNodeG2)) {
+							if(!match || !astNodeMatcher.isParameterizable()) {
+								search.addNonMatchingNodePair(dstNodeG1, dstNodeG2);
+							}
+							else if((mappedControlParents(dstNodeG1, dstNodeG2) || symmetricalIfNodes) && nodesDeclareVariableUsedInMappedNodes(dstNodeG1, dstNodeG2)) {
 								PDGNodeMapping dstNodeMapping = new PDGNodeMapping(dstNodeG1, dstNodeG2, astNodeMatcher);
 								if(symmetricalIfNodes) {
 									dstNodeMapping.setSymmetricalIfNodePair(initialNodeMapping);
@@ -318,9 +316,9 @@ public class MappingState {
 								if(!this.containsAtLeastOneNodeInMappings(dstNodeMapping) && this.getChildStateWithNodeMapping(dstNodeMapping) == null) {
 									MappingState newMappingState = new MappingState(this, dstNodeMapping);
 									boolean pruneBranch = pruneBranch(newMappingState);
-									if(!pruneBranch) {
+									if(!pruneBranch && search.visitState(newMappingState, dstNodeMapping)) {
 										this.children.add(newMappingState);
-										newMappingState.traverse(dstNodeMapping);
+										newMappingState.traverse(dstNodeMapping, search);
 									}
 								}
 							}
@@ -429,7 +427,9 @@ public class MappingState {
 		return false;
 	}
 
-	public boolean incomingDataDependenciesFromUnvisitedNodes(PDGNodeMapping mapping) {
+	public boolean incomingDataDependenciesFromUnvisitedNodes(PDGNodeMapping mapping, MappingSearch search) {
+		Set<PDGNode> restrictedNodesG1 = search.getRestrictedNodesG1();
+		Set<PDGNode> restrictedNodesG2 = search.getRestrictedNodesG2();
 		PDGNode nodeG1 = mapping.getNodeG1();
 		PDGNode nodeG2 = mapping.getNodeG2();
 		Iterator<GraphEdge> incomingEdgeIterator1 = nodeG1.getIncomingDependenceIterator();
@@ -491,7 +491,9 @@ public class MappingState {
 		return false;
 	}
 
-	public boolean incomingDataDependenciesFromNonMatchingNodes(PDGNode nodeG1, PDGNode nodeG2) {
+	public boolean incomingDataDependenciesFromNonMatchingNodes(PDGNode nodeG1, PDGNode nodeG2, MappingSearch search) {
+		Set<PDGNode> restrictedNodesG1 = search.getRestrictedNodesG1();
+		Set<PDGNode> restrictedNodesG2 = search.getRestrictedNodesG2();
 		TreeSet<PDGNode> incomingDataDependenciesFromMappedNodesG1 = new TreeSet<PDGNode>();
 		Iterator<GraphEdge> incomingEdgeIterator1 = nodeG1.getIncomingDependenceIterator();
 		while(incomingEdgeIterator1.hasNext()) {
@@ -17,6 +17,16 @@ public class PDGMapper {
 	
 	public PDGMapper(PDG pdg1, PDG pdg2, IProgressMonitor monitor) {
 		this.subTreeMappers = new ArrayList<PDGSubTreeMapper>();
+		NodePairComparisonCache cache = NodePairComparisonCache.openSession();
+		try {
+			mapPDGs(pdg1, pdg2, monitor);
+		}
+		finally {
+			cache.closeSession();
+		}
+	}
+
+	private void mapPDGs(PDG pdg1, PDG pdg2, IProgressMonitor monitor) {
 		ControlDependenceTreeNode controlDependenceTreePDG1 = new ControlDependenceTreeGenerator(pdg1).getRoot();
 		ControlDependenceTreeNode controlDependenceTreePDG2 = new ControlDependenceTreeGenerator(pdg2).getRoot();
 		CompilationUnit cu1 = (CompilationUnit)pdg1.getMethod().getMethodDeclaration().getRoot();
@@ -92,7 +102,6 @@ public class PDGMapper {
 				subTreeMappers.add(mapper);
 			}
 		}
-		NodePairComparisonCache.getInstance().clearCache();
 	}
 
 	private void addNodeInOrder(List<ControlDependenceTreeNode> matchedControlDependenceTreeNodes, ControlDependenceTreeNode node) {
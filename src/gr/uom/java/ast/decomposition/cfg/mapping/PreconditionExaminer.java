@@ -3411,7 +3411,10 @@ public class PreconditionExaminer {
 					//abstract system class
 					if(classObject != null && commonSuperTypeOfSourceTypeDeclarations.getErasure().isClass() && classObject.isAbstract()) {
 						CompilationUnitCache cache = CompilationUnitCache.getInstance();
-						Set<IType> subTypes = cache.getSubTypes((IType)commonSuperTypeOfSourceTypeDeclarations.getJavaElement());
+						Set<IType> subTypes = null;
+						synchronized(CompilationUnitCache.INDEX_LOCK) {
+							subTypes = cache.getSubTypes((IType)commonSuperTypeOfSourceTypeDeclarations.getJavaElement());
+						}
 						IType type1 = (IType)typeBinding1.getJavaElement();
 						IType type2 = (IType)typeBinding2.getJavaElement();
 						//only two subTypes corresponding to the types of the classes containing the clones
@@ -3562,12 +3565,14 @@ public class PreconditionExaminer {
 			ITypeBinding typeBinding1, ITypeBinding typeBinding2) {
 		if(!commonSuperTypeOfSourceTypeDeclarations.getQualifiedName().equals("java.lang.Object")) {
 			CompilationUnitCache cache = CompilationUnitCache.getInstance();
-			Set<IType> subTypes = cache.getSubTypes((IType)commonSuperTypeOfSourceTypeDeclarations.getJavaElement());
 			IType type1 = (IType)typeBinding1.getJavaElement();
 			IType type2 = (IType)typeBinding2.getJavaElement();
-			if(subTypes.size() == 2 && subTypes.contains(type1) && subTypes.contains(type2) &&
-					cache.getSubTypes(type1).isEmpty() && cache.getSubTypes(type2).isEmpty()) {
-				return true;
+			synchronized(CompilationUnitCache.INDEX_LOCK) {
+				Set<IType> subTypes = cache.getSubTypes((IType)commonSuperTypeOfSourceTypeDeclarations.getJavaElement());
+				if(subTypes.size() == 2 && subTypes.contains(type1) && subTypes.contains(type2) &&
+						cache.getSubTypes(type1).isEmpty() && cache.getSubTypes(type2).isEmpty()) {
+					return true;
+				}
 			}
 		}
 		return false;
@@ -105,20 +105,28 @@ public class ASTNodeMatcher extends ASTMatcher{
 	}
 
 	public boolean match(PDGNode nodeG1, PDGNode nodeG2) {
-		NodePair pair = new NodePair(nodeG1.getId(), nodeG2.getId());
+		int id1 = nodeG1.getId();
+		int id2 = nodeG2.getId();
 		NodePairComparisonCache cache = NodePairComparisonCache.getInstance();
-		if(cache.containsNodePair(pair)) {
-			this.differences.addAll(cache.getDifferencesForNodePair(pair));
-			this.additionallyMatchedFragments1.addAll(cache.getAdditionallyMatchedFragments1(pair));
-			this.additionallyMatchedFragments2.addAll(cache.getAdditionallyMatchedFragments2(pair));
-			return cache.getMatchForNodePair(pair);
+		if(!nodeG1.getStatementFingerprint().isCompatibleWith(nodeG2.getStatementFingerprint())) {
+			//the statements cannot match, the subtrees are not compared
+			if(cache != null)
+				cache.nodePairRejected();
+			return false;
+		}
+		if(cache == null) {
+			//the nodes are compared outside a mapping session
+			return nodeG1.getASTStatement().subtreeMatch(this, nodeG2.getASTStatement());
+		}
+		if(cache.containsNodePair(id1, id2)) {
+			this.differences.addAll(cache.getDifferencesForNodePair(id1, id2));
+			this.additionallyMatchedFragments1.addAll(cache.getAdditionallyMatchedFragments1(id1, id2));
+			this.additionallyMatchedFragments2.addAll(cache.getAdditionallyMatchedFragments2(id1, id2));
+			return cache.getMatchForNodePair(id1, id2);
 		}
 		else {
 			boolean match = nodeG1.getASTStatement().subtreeMatch(this, nodeG2.getASTStatement());
-			cache.addDifferencesForNodePair(pair, this.differences);
-			cache.addMatchForNodePair(pair, match);
-			cache.setAdditionallyMatchedFragments1(pair, this.additionallyMatchedFragments1);
-			cache.setAdditionallyMatchedFragments2(pair, this.additionallyMatchedFragments2);
+			cache.addComparisonForNodePair(id1, id2, match, this.differences, this.additionallyMatchedFragments1, this.additionallyMatchedFragments2);
 			return match;
 		}
 	}
@@ -6,71 +6,163 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * Cache of the PDG node comparisons performed during a single mapping session.
+ * The node ids are allocated per graph, so a cache is only valid for the pair of PDGs compared in the session that created it.
+ * The cache of a session is bound to the thread that opened the session and is never accessed by other threads,
+ * so that different clone pairs can be compared concurrently in different threads.
+ * The least recently used comparisons are evicted when the maximum size is reached.
+ */
 public class NodePairComparisonCache {
-	private static NodePairComparisonCache instance;
-	private Map<NodePair, List<ASTNodeDifference>> differenceMap;
-	private Map<NodePair, Boolean> matchMap;
-	private Map<NodePair, List<AbstractMethodFragment>> additionallyMatchedFragmentMap1;
-	private Map<NodePair, List<AbstractMethodFragment>> additionallyMatchedFragmentMap2;
-	
-	private NodePairComparisonCache() {
-		differenceMap = new LinkedHashMap<NodePair, List<ASTNodeDifference>>();
-		matchMap = new LinkedHashMap<NodePair, Boolean>();
-		additionallyMatchedFragmentMap1 = new LinkedHashMap<NodePair, List<AbstractMethodFragment>>();
-		additionallyMatchedFragmentMap2 = new LinkedHashMap<NodePair, List<AbstractMethodFragment>>();
-	}
-	
-	public static NodePairComparisonCache getInstance() {
-		if(instance == null) {
-			instance = new NodePairComparisonCache();
-		}
-		return instance;
+	public static final int DEFAULT_MAXIMUM_SIZE = 50000;
+	private static final ThreadLocal<NodePairComparisonCache> currentSession = new ThreadLocal<NodePairComparisonCache>();
+	private NodePairComparisonCache previousSession;
+	private Map<Long, NodePairComparison> comparisonMap;
+	private int maximumSize;
+	private int hitCount;
+	private int missCount;
+	private int evictionCount;
+	private int rejectionCount;
+
+	private NodePairComparisonCache(final int maximumSize) {
+		this.maximumSize = maximumSize;
+		this.comparisonMap = new LinkedHashMap<Long, NodePairComparison>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+			protected boolean removeEldestEntry(Map.Entry<Long, NodePairComparison> eldest) {
+				if(size() > NodePairComparisonCache.this.maximumSize) {
+					evictionCount++;
+					return true;
+				}
+				return false;
+			}
+		};
 	}
-	
-	public void clearCache() {
-		differenceMap.clear();
-		matchMap.clear();
-		additionallyMatchedFragmentMap1.clear();
-		additionallyMatchedFragmentMap2.clear();
+
+	/**
+	 * Opens a new mapping session in the current thread. Every opened session must be closed with closeSession(),
+	 * which restores the session that was open in the current thread before, if any.
+	 */
+	public static NodePairComparisonCache openSession() {
+		return openSession(DEFAULT_MAXIMUM_SIZE);
 	}
 
-	public boolean containsNodePair(NodePair pair) {
-		return differenceMap.containsKey(pair) && matchMap.containsKey(pair);
+	public static NodePairComparisonCache openSession(int maximumSize) {
+		NodePairComparisonCache cache = new NodePairComparisonCache(maximumSize);
+		cache.previousSession = currentSession.get();
+		currentSession.set(cache);
+		return cache;
 	}
 
-	public List<ASTNodeDifference> getDifferencesForNodePair(NodePair pair) {
-		return differenceMap.get(pair);
+	public void closeSession() {
+		comparisonMap.clear();
+		if(previousSession != null)
+			currentSession.set(previousSession);
+		else
+			currentSession.remove();
 	}
-	
-	public boolean getMatchForNodePair(NodePair pair) {
-		return matchMap.get(pair);
+
+	/**
+	 * Returns the cache of the mapping session that is open in the current thread, or null if no session is open.
+	 */
+	public static NodePairComparisonCache getInstance() {
+		return currentSession.get();
 	}
 
-	public List<AbstractMethodFragment> getAdditionallyMatchedFragments1(NodePair pair) {
-		return additionallyMatchedFragmentMap1.get(pair);
+	private static long getKey(int id1, int id2) {
+		return ((long)id1 << 32) | (id2 & 0xFFFFFFFFL);
 	}
 
-	public List<AbstractMethodFragment> getAdditionallyMatchedFragments2(NodePair pair) {
-		return additionallyMatchedFragmentMap2.get(pair);
+	public boolean containsNodePair(int id1, int id2) {
+		NodePairComparison comparison = comparisonMap.get(getKey(id1, id2));
+		if(comparison != null)
+			hitCount++;
+		else
+			missCount++;
+		return comparison != null;
 	}
 
-	public void addDifferencesForNodePair(NodePair pair, List<ASTNodeDifference> differences) {
-		differenceMap.put(pair, differences);
+	private NodePairComparison getComparison(int id1, int id2) {
+		return comparisonMap.get(getKey(id1, id2));
 	}
-	
-	public void addMatchForNodePair(NodePair pair, boolean match) {
-		matchMap.put(pair, match);
+
+	public List<ASTNodeDifference> getDifferencesForNodePair(int id1, int id2) {
+		return getComparison(id1, id2).differences;
 	}
-	
-	public void setAdditionallyMatchedFragments1(NodePair pair, List<AbstractMethodFragment> fragments) {
-		additionallyMatchedFragmentMap1.put(pair, fragments);
+
+	public boolean getMatchForNodePair(int id1, int id2) {
+		return getComparison(id1, id2).match;
 	}
-	
-	public void setAdditionallyMatchedFragments2(NodePair pair, List<AbstractMethodFragment> fragments) {
-		additionallyMatchedFragmentMap2.put(pair, fragments);
+
+	public List<AbstractMethodFragment> getAdditionallyMatchedFragments1(int id1, int id2) {
+		return getComparison(id1, id2).additionallyMatchedFragments1;
+	}
+
+	public List<AbstractMethodFragment> getAdditionallyMatchedFragments2(int id1, int id2) {
+		return getComparison(id1, id2).additionallyMatchedFragments2;
+	}
+
+	public void addComparisonForNodePair(int id1, int id2, boolean match, List<ASTNodeDifference> differences,
+			List<AbstractMethodFragment> additionallyMatchedFragments1, List<AbstractMethodFragment> additionallyMatchedFragments2) {
+		comparisonMap.put(getKey(id1, id2), new NodePairComparison(match, differences, additionallyMatchedFragments1, additionallyMatchedFragments2));
 	}
 
 	public int getMapSize() {
-		return matchMap.size();
+		return comparisonMap.size();
+	}
+
+	public int getMaximumSize() {
+		return maximumSize;
+	}
+
+	public int getHitCount() {
+		return hitCount;
+	}
+
+	public int getMissCount() {
+		return missCount;
+	}
+
+	public int getEvictionCount() {
+		return evictionCount;
+	}
+
+	/**
+	 * Records a node pair rejected by the comparison of the statement fingerprints, without comparing the subtrees of the statements.
+	 */
+	public void nodePairRejected() {
+		rejectionCount++;
+	}
+
+	public int getRejectionCount() {
+		return rejectionCount;
+	}
+
+	/**
+	 * Returns the ratio of the subtree comparisons avoided by the comparison of the statement fingerprints,
+	 * to all the subtree comparisons that would be performed without it.
+	 */
+	public double getRejectionRate() {
+		int comparisons = rejectionCount + missCount;
+		return comparisons > 0 ? (double)rejectionCount/(double)comparisons : 0.0;
+	}
+
+	public String toString() {
+		return "size=" + comparisonMap.size() + "/" + maximumSize + ", hits=" + hitCount + ", misses=" + missCount + ", evictions=" + evictionCount +
+				", rejections=" + rejectionCount;
+	}
+
+	private static class NodePairComparison {
+		private boolean match;
+		private List<ASTNodeDifference> differences;
+		private List<AbstractMethodFragment> additionallyMatchedFragments1;
+		private List<AbstractMethodFragment> additionallyMatchedFragments2;
+
+		private NodePairComparison(boolean match, List<ASTNodeDifference> differences,
+				List<AbstractMethodFragment> additionallyMatchedFragments1, List<AbstractMethodFragment> additionallyMatchedFragments2) {
+			this.match = match;
+			this.differences = differences;
+			this.additionallyMatchedFragments1 = additionallyMatchedFragments1;
+			this.additionallyMatchedFragments2 = additionallyMatchedFragments2;
+		}
 	}
 }
@@ -0,0 +1,107 @@
+package gr.uom.java.ast.decomposition.matching;
+
+import gr.uom.java.ast.decomposition.matching.conditional.AbstractControlStructureUtilities;
+
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.Assignment;
+import org.eclipse.jdt.core.dom.ConditionalExpression;
+import org.eclipse.jdt.core.dom.Expression;
+import org.eclipse.jdt.core.dom.ExpressionStatement;
+import org.eclipse.jdt.core.dom.PostfixExpression;
+import org.eclipse.jdt.core.dom.ReturnStatement;
+import org.eclipse.jdt.core.dom.SimpleName;
+import org.eclipse.jdt.core.dom.Statement;
+import org.eclipse.jdt.core.dom.VariableDeclarationStatement;
+
+/**
+ * A structural summary of a statement, used to reject the pairs of statements that ASTNodeMatcher can never match,
+ * before the expensive comparison of their subtrees.
+ * Only the properties that the matcher requires to be equal are summarized: the type of the statement,
+ * the type and the operator of the expression of an expression statement, and the number of fragments of a variable declaration statement.
+ * The differences in the nested expressions (types, operators, names, literals) are parameterizable, so they are not considered.
+ */
+public class StatementFingerprint {
+	private static final int UNKNOWN = -1;
+	private int statementType;
+	private int expressionType;
+	private String operator;
+	private int numberOfFragments;
+	private boolean assignmentToSimpleName;
+	private boolean conditionalExpression;
+
+	public StatementFingerprint(Statement statement) {
+		this.statementType = statement != null ? statement.getNodeType() : UNKNOWN;
+		this.expressionType = UNKNOWN;
+		if(statement instanceof ExpressionStatement) {
+			Expression expression = ((ExpressionStatement)statement).getExpression();
+			this.expressionType = expression.getNodeType();
+			if(expression instanceof Assignment) {
+				Assignment assignment = (Assignment)expression;
+				this.operator = assignment.getOperator().toString();
+				this.assignmentToSimpleName = assignment.getLeftHandSide() instanceof SimpleName;
+			}
+			else if(expression instanceof PostfixExpression) {
+				this.operator = ((PostfixExpression)expression).getOperator().toString();
+			}
+			this.conditionalExpression = AbstractControlStructureUtilities.hasOneConditionalExpression(statement) != null;
+		}
+		else if(statement instanceof ReturnStatement) {
+			this.conditionalExpression = ((ReturnStatement)statement).getExpression() instanceof ConditionalExpression;
+		}
+		else if(statement instanceof VariableDeclarationStatement) {
+			this.numberOfFragments = ((VariableDeclarationStatement)statement).fragments().size();
+		}
+	}
+
+	/**
+	 * Returns false if ASTNodeMatcher cannot match the statement of this fingerprint with the statement of the other fingerprint.
+	 */
+	public boolean isCompatibleWith(StatementFingerprint other) {
+		if(this.statementType == UNKNOWN || other.statementType == UNKNOWN)
+			return true;
+		if(this.statementType == other.statementType) {
+			if(statementType == ASTNode.EXPRESSION_STATEMENT)
+				return compatibleExpressions(other);
+			if(statementType == ASTNode.VARIABLE_DECLARATION_STATEMENT)
+				return this.numberOfFragments == other.numberOfFragments;
+			return true;
+		}
+		if(this.isLoop() && other.isLoop())
+			return true;
+		//if statements are matched with ternary operators
+		if(this.statementType == ASTNode.IF_STATEMENT)
+			return other.conditionalExpression;
+		if(other.statementType == ASTNode.IF_STATEMENT)
+			return this.conditionalExpression;
+		//variable declarations are matched with assignments to variables declared without initializer
+		if(this.statementType == ASTNode.VARIABLE_DECLARATION_STATEMENT)
+			return this.numberOfFragments == 1 && other.assignmentToSimpleName;
+		if(other.statementType == ASTNode.VARIABLE_DECLARATION_STATEMENT)
+			return other.numberOfFragments == 1 && this.assignmentToSimpleName;
+		return false;
+	}
+
+	private boolean compatibleExpressions(StatementFingerprint other) {
+		if(this.expressionType == other.expressionType) {
+			if(this.operator != null)
+				return this.operator.equals(other.operator);
+			return true;
+		}
+		//field assignments are matched with setter invocations
+		if((this.expressionType == ASTNode.ASSIGNMENT && other.expressionType == ASTNode.METHOD_INVOCATION) ||
+				(this.expressionType == ASTNode.METHOD_INVOCATION && other.expressionType == ASTNode.ASSIGNMENT))
+			return true;
+		//the other expressions are replaced only with type compatible expressions
+		return this.isTypeHolderExpression() && other.isTypeHolderExpression();
+	}
+
+	private boolean isTypeHolderExpression() {
+		return expressionType != ASTNode.ASSIGNMENT && expressionType != ASTNode.POSTFIX_EXPRESSION &&
+				expressionType != ASTNode.VARIABLE_DECLARATION_EXPRESSION;
+	}
+
+	private boolean isLoop() {
+		return statementType == ASTNode.FOR_STATEMENT || statementType == ASTNode.ENHANCED_FOR_STATEMENT ||
+				statementType == ASTNode.WHILE_STATEMENT || statementType == ASTNode.DO_STATEMENT;
+	}
+}
@@ -0,0 +1,12 @@
+package gr.uom.java.ast.util;
+
+import java.util.List;
+
+/**
+ * Receives the refactoring candidates of every examined class or method as soon as they are identified,
+ * so that they can be presented before the identification of the whole project is completed.
+ * The listener may be notified from worker threads when the identification runs in parallel.
+ */
+public interface CandidateListener<T> {
+	public void candidatesIdentified(List<T> candidates);
+}
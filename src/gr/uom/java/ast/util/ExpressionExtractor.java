@@ -1,7 +1,11 @@
 package gr.uom.java.ast.util;
 
+import gr.uom.java.ast.CompilationUnitCache;
+
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.AnonymousClassDeclaration;
@@ -60,6 +64,7 @@ import org.eclipse.jdt.core.dom.VariableDeclarationStatement;
 import org.eclipse.jdt.core.dom.WhileStatement;
 
 public class ExpressionExtractor {
+	private static final String EXPRESSION_INDEX_PROPERTY = ExpressionIndex.class.getName();
 	ExpressionInstanceChecker instanceChecker;
 	
 	// returns a List of SimpleName objects
@@ -300,353 +305,369 @@ public class ExpressionExtractor {
 	}
 
 	private List<Expression> getExpressions(Statement statement) {
-		List<Expression> expressionList = new ArrayList<Expression>();
+		if(statement == null)
+			return new ArrayList<Expression>();
+		return getIndexedExpressions(statement);
+	}
+
+	private List<Expression> getExpressions(Expression expression) {
+		if(expression == null)
+			return new ArrayList<Expression>();
+		return getIndexedExpressions(expression);
+	}
+
+	/**
+	 * Returns the expressions of the given statement or expression accepted by the current instance checker,
+	 * using the index of the expressions which is stored as a property of the AST node.
+	 * The index is built by a single traversal of the node the first time an expression of any kind is requested,
+	 * and it is built again if the AST has been modified since then.
+	 * The AST nodes may be shared by concurrent analyses, so the index is built and queried while holding the lock of the node,
+	 * and the estimated size of the index is added to the size of the cached compilation unit.
+	 */
+	private List<Expression> getIndexedExpressions(ASTNode node) {
+		List<Expression> expressionList = null;
+		int addedBytes = 0;
+		synchronized(node) {
+			long modificationCount = node.getAST().modificationCount();
+			ExpressionIndex index = (ExpressionIndex)node.getProperty(EXPRESSION_INDEX_PROPERTY);
+			if(index == null || index.modificationCount != modificationCount) {
+				if(index != null)
+					addedBytes -= index.bytes;
+				List<Expression> expressions = new ArrayList<Expression>();
+				if(node instanceof Statement)
+					collectExpressions((Statement)node, expressions);
+				else
+					collectExpressions((Expression)node, expressions);
+				index = new ExpressionIndex(expressions, modificationCount);
+				node.setProperty(EXPRESSION_INDEX_PROPERTY, index);
+				addedBytes += index.bytes;
+			}
+			int previousBytes = index.bytes;
+			expressionList = index.getExpressions(instanceChecker);
+			addedBytes += index.bytes - previousBytes;
+		}
+		if(addedBytes != 0)
+			CompilationUnitCache.getInstance().addIndexBytes(node.getRoot(), addedBytes);
+		return expressionList;
+	}
+
+	private void collectExpressions(Statement statement, List<Expression> expressionList) {
 		if(statement instanceof Block) {
 			Block block = (Block)statement;
 			List<Statement> blockStatements = block.statements();
 			for(Statement blockStatement : blockStatements)
-				expressionList.addAll(getExpressions(blockStatement));
+				collectExpressions(blockStatement, expressionList);
 		}
 		else if(statement instanceof IfStatement) {
 			IfStatement ifStatement = (IfStatement)statement;
 			Expression expression = ifStatement.getExpression();
-			expressionList.addAll(getExpressions(expression));
-			expressionList.addAll(getExpressions(ifStatement.getThenStatement()));
+			collectExpressions(expression, expressionList);
+			collectExpressions(ifStatement.getThenStatement(), expressionList);
 			if(ifStatement.getElseStatement() != null) {
-				expressionList.addAll(getExpressions(ifStatement.getElseStatement()));
+				collectExpressions(ifStatement.getElseStatement(), expressionList);
 			}
 		}
 		else if(statement instanceof ForStatement) {
 			ForStatement forStatement = (ForStatement)statement;
 			List<Expression> initializers = forStatement.initializers();
 			for(Expression initializer : initializers)
-				expressionList.addAll(getExpressions(initializer));
+				collectExpressions(initializer, expressionList);
 			Expression expression = forStatement.getExpression();
 			if(expression != null)
-				expressionList.addAll(getExpressions(expression));
+				collectExpressions(expression, expressionList);
 			List<Expression> updaters = forStatement.updaters();
 			for(Expression updater : updaters)
-				expressionList.addAll(getExpressions(updater));
-			expressionList.addAll(getExpressions(forStatement.getBody()));
+				collectExpressions(updater, expressionList);
+			collectExpressions(forStatement.getBody(), expressionList);
 		}
 		else if(statement instanceof EnhancedForStatement) {
 			EnhancedForStatement enhancedForStatement = (EnhancedForStatement)statement;
 			Expression expression = enhancedForStatement.getExpression();
 			SingleVariableDeclaration variableDeclaration = enhancedForStatement.getParameter();
-			expressionList.addAll(getExpressions(variableDeclaration.getName()));
+			collectExpressions(variableDeclaration.getName(), expressionList);
 			if(variableDeclaration.getInitializer() != null)
-				expressionList.addAll(getExpressions(variableDeclaration.getInitializer()));
-			expressionList.addAll(getExpressions(expression));
-			expressionList.addAll(getExpressions(enhancedForStatement.getBody()));
+				collectExpressions(variableDeclaration.getInitializer(), expressionList);
+			collectExpressions(expression, expressionList);
+			collectExpressions(enhancedForStatement.getBody(), expressionList);
 		}
 		else if(statement instanceof WhileStatement) {
 			WhileStatement whileStatement = (WhileStatement)statement;
 			Expression expression = whileStatement.getExpression();
-			expressionList.addAll(getExpressions(expression));
-			expressionList.addAll(getExpressions(whileStatement.getBody()));
+			collectExpressions(expression, expressionList);
+			collectExpressions(whileStatement.getBody(), expressionList);
 		}
 		else if(statement instanceof DoStatement) {
 			DoStatement doStatement = (DoStatement)statement;
 			Expression expression = doStatement.getExpression();
-			expressionList.addAll(getExpressions(expression));
-			expressionList.addAll(getExpressions(doStatement.getBody()));
+			collectExpressions(expression, expressionList);
+			collectExpressions(doStatement.getBody(), expressionList);
 		}
 		else if(statement instanceof ExpressionStatement) {
 			ExpressionStatement expressionStatement = (ExpressionStatement)statement;
 			Expression expression = expressionStatement.getExpression();
-			expressionList.addAll(getExpressions(expression));
+			collectExpressions(expression, expressionList);
 		}
 		else if(statement instanceof SwitchStatement) {
 			SwitchStatement switchStatement = (SwitchStatement)statement;
 			Expression expression = switchStatement.getExpression();
-			expressionList.addAll(getExpressions(expression));
+			collectExpressions(expression, expressionList);
 			List<Statement> switchStatements = switchStatement.statements();
 			for(Statement switchStatement2 : switchStatements)
-				expressionList.addAll(getExpressions(switchStatement2));
+				collectExpressions(switchStatement2, expressionList);
 		}
 		else if(statement instanceof SwitchCase) {
 			SwitchCase switchCase = (SwitchCase)statement;
 			Expression expression = switchCase.getExpression();
 			if(expression != null)
-				expressionList.addAll(getExpressions(expression));
+				collectExpressions(expression, expressionList);
 		}
 		else if(statement instanceof AssertStatement) {
 			AssertStatement assertStatement = (AssertStatement)statement;
 			Expression expression = assertStatement.getExpression();
-			expressionList.addAll(getExpressions(expression));
+			collectExpressions(expression, expressionList);
 			Expression message = assertStatement.getMessage();
 			if(message != null)
-				expressionList.addAll(getExpressions(message));
+				collectExpressions(message, expressionList);
 		}
 		else if(statement instanceof LabeledStatement) {
 			LabeledStatement labeledStatement = (LabeledStatement)statement;
 			if(labeledStatement.getLabel() != null)
-				expressionList.addAll(getExpressions(labeledStatement.getLabel()));
-			expressionList.addAll(getExpressions(labeledStatement.getBody()));
+				collectExpressions(labeledStatement.getLabel(), expressionList);
+			collectExpressions(labeledStatement.getBody(), expressionList);
 		}
 		else if(statement instanceof ReturnStatement) {
 			ReturnStatement returnStatement = (ReturnStatement)statement;
 			Expression expression = returnStatement.getExpression();
-			expressionList.addAll(getExpressions(expression));	
+			collectExpressions(expression, expressionList);	
 		}
 		else if(statement instanceof SynchronizedStatement) {
 			SynchronizedStatement synchronizedStatement = (SynchronizedStatement)statement;
 			Expression expression = synchronizedStatement.getExpression();
-			expressionList.addAll(getExpressions(expression));
-			expressionList.addAll(getExpressions(synchronizedStatement.getBody()));
+			collectExpressions(expression, expressionList);
+			collectExpressions(synchronizedStatement.getBody(), expressionList);
 		}
 		else if(statement instanceof ThrowStatement) {
 			ThrowStatement throwStatement = (ThrowStatement)statement;
 			Expression expression = throwStatement.getExpression();
-			expressionList.addAll(getExpressions(expression));
+			collectExpressions(expression, expressionList);
 		}
 		else if(statement instanceof TryStatement) {
 			TryStatement tryStatement = (TryStatement)statement;
 			List<VariableDeclarationExpression> resources = tryStatement.resources();
 			for(VariableDeclarationExpression expression : resources) {
-				expressionList.addAll(getExpressions(expression));
+				collectExpressions(expression, expressionList);
 			}
-			expressionList.addAll(getExpressions(tryStatement.getBody()));
+			collectExpressions(tryStatement.getBody(), expressionList);
 			List<CatchClause> catchClauses = tryStatement.catchClauses();
 			for(CatchClause catchClause : catchClauses) {
 				SingleVariableDeclaration variableDeclaration = catchClause.getException();
-				expressionList.addAll(getExpressions(variableDeclaration.getName()));
+				collectExpressions(variableDeclaration.getName(), expressionList);
 				if(variableDeclaration.getInitializer() != null)
-					expressionList.addAll(getExpressions(variableDeclaration.getInitializer()));
-				expressionList.addAll(getExpressions(catchClause.getBody()));
+					collectExpressions(variableDeclaration.getInitializer(), expressionList);
+				collectExpressions(catchClause.getBody(), expressionList);
 			}
 			Block finallyBlock = tryStatement.getFinally();
 			if(finallyBlock != null)
-				expressionList.addAll(getExpressions(finallyBlock));
+				collectExpressions(finallyBlock, expressionList);
 		}
 		else if(statement instanceof VariableDeclarationStatement) {
 			VariableDeclarationStatement variableDeclarationStatement = (VariableDeclarationStatement)statement;
 			List<VariableDeclarationFragment> fragments = variableDeclarationStatement.fragments();
 			for(VariableDeclarationFragment fragment : fragments) {
-				expressionList.addAll(getExpressions(fragment.getName()));
-				expressionList.addAll(getExpressions(fragment.getInitializer()));
+				collectExpressions(fragment.getName(), expressionList);
+				collectExpressions(fragment.getInitializer(), expressionList);
 			}
 		}
 		else if(statement instanceof ConstructorInvocation) {
 			ConstructorInvocation constructorInvocation = (ConstructorInvocation)statement;
 			List<Expression> arguments = constructorInvocation.arguments();
 			for(Expression argument : arguments)
-				expressionList.addAll(getExpressions(argument));
+				collectExpressions(argument, expressionList);
 		}
 		else if(statement instanceof SuperConstructorInvocation) {
 			SuperConstructorInvocation superConstructorInvocation = (SuperConstructorInvocation)statement;
 			if(superConstructorInvocation.getExpression() != null)
-				expressionList.addAll(getExpressions(superConstructorInvocation.getExpression()));
+				collectExpressions(superConstructorInvocation.getExpression(), expressionList);
 			List<Expression> arguments = superConstructorInvocation.arguments();
 			for(Expression argument : arguments)
-				expressionList.addAll(getExpressions(argument));
+				collectExpressions(argument, expressionList);
 		}
 		else if(statement instanceof BreakStatement) {
 			BreakStatement breakStatement = (BreakStatement)statement;
 			if(breakStatement.getLabel() != null)
-				expressionList.addAll(getExpressions(breakStatement.getLabel()));
+				collectExpressions(breakStatement.getLabel(), expressionList);
 		}
 		else if(statement instanceof ContinueStatement) {
 			ContinueStatement continueStatement = (ContinueStatement)statement;
 			if(continueStatement.getLabel() != null)
-				expressionList.addAll(getExpressions(continueStatement.getLabel()));
+				collectExpressions(continueStatement.getLabel(), expressionList);
 		}
 		
-		return expressionList;
 	}
 	
-	private List<Expression> getExpressions(Expression expression) {
-		List<Expression> expressionList = new ArrayList<Expression>();
+	private void collectExpressions(Expression expression, List<Expression> expressionList) {
 		if(expression instanceof MethodInvocation) {
 			MethodInvocation methodInvocation = (MethodInvocation)expression;
 			if(methodInvocation.getExpression() != null)
-				expressionList.addAll(getExpressions(methodInvocation.getExpression()));
+				collectExpressions(methodInvocation.getExpression(), expressionList);
 			List<Expression> arguments = methodInvocation.arguments();
 			for(Expression argument : arguments)
-				expressionList.addAll(getExpressions(argument));
-			if(instanceChecker.instanceOf(methodInvocation))
-				expressionList.add(methodInvocation);
+				collectExpressions(argument, expressionList);
+			expressionList.add(methodInvocation);
 		}
 		else if(expression instanceof Assignment) {
 			Assignment assignment = (Assignment)expression;
-			expressionList.addAll(getExpressions(assignment.getLeftHandSide()));
-			expressionList.addAll(getExpressions(assignment.getRightHandSide()));
-			if(instanceChecker.instanceOf(assignment))
-				expressionList.add(assignment);
+			collectExpressions(assignment.getLeftHandSide(), expressionList);
+			collectExpressions(assignment.getRightHandSide(), expressionList);
+			expressionList.add(assignment);
 		}
 		else if(expression instanceof CastExpression) {
 			CastExpression castExpression = (CastExpression)expression;
-			expressionList.addAll(getExpressions(castExpression.getExpression()));
-			if(instanceChecker.instanceOf(castExpression))
-				expressionList.add(castExpression);
+			collectExpressions(castExpression.getExpression(), expressionList);
+			expressionList.add(castExpression);
 		}
 		else if(expression instanceof ClassInstanceCreation) {
 			ClassInstanceCreation classInstanceCreation = (ClassInstanceCreation)expression;
 			if(classInstanceCreation.getExpression() != null)
-				expressionList.addAll(getExpressions(classInstanceCreation.getExpression()));
+				collectExpressions(classInstanceCreation.getExpression(), expressionList);
 			List<Expression> arguments = classInstanceCreation.arguments();
 			for(Expression argument : arguments)
-				expressionList.addAll(getExpressions(argument));
-			if(instanceChecker.instanceOf(classInstanceCreation))
-				expressionList.add(classInstanceCreation);
+				collectExpressions(argument, expressionList);
+			expressionList.add(classInstanceCreation);
 			AnonymousClassDeclaration anonymousClassDeclaration = classInstanceCreation.getAnonymousClassDeclaration();
 			if(anonymousClassDeclaration != null) {
-				expressionList.addAll(getExpressions(anonymousClassDeclaration));
+				collectExpressions(anonymousClassDeclaration, expressionList);
 			}
 		}
 		else if(expression instanceof ConditionalExpression) {
 			ConditionalExpression conditionalExpression = (ConditionalExpression)expression;
-			expressionList.addAll(getExpressions(conditionalExpression.getExpression()));
-			expressionList.addAll(getExpressions(conditionalExpression.getThenExpression()));
-			expressionList.addAll(getExpressions(conditionalExpression.getElseExpression()));
-			if(instanceChecker.instanceOf(conditionalExpression))
-				expressionList.add(conditionalExpression);
+			collectExpressions(conditionalExpression.getExpression(), expressionList);
+			collectExpressions(conditionalExpression.getThenExpression(), expressionList);
+			collectExpressions(conditionalExpression.getElseExpression(), expressionList);
+			expressionList.add(conditionalExpression);
 		}
 		else if(expression instanceof FieldAccess) {
 			FieldAccess fieldAccess = (FieldAccess)expression;
-			expressionList.addAll(getExpressions(fieldAccess.getExpression()));
-			expressionList.addAll(getExpressions(fieldAccess.getName()));
-			if(instanceChecker.instanceOf(fieldAccess))
-				expressionList.add(fieldAccess);
+			collectExpressions(fieldAccess.getExpression(), expressionList);
+			collectExpressions(fieldAccess.getName(), expressionList);
+			expressionList.add(fieldAccess);
 		}
 		else if(expression instanceof InfixExpression) {
 			InfixExpression infixExpression = (InfixExpression)expression;
-			expressionList.addAll(getExpressions(infixExpression.getLeftOperand()));
-			expressionList.addAll(getExpressions(infixExpression.getRightOperand()));
+			collectExpressions(infixExpression.getLeftOperand(), expressionList);
+			collectExpressions(infixExpression.getRightOperand(), expressionList);
 			List<Expression> extendedOperands = infixExpression.extendedOperands();
 			for(Expression operand : extendedOperands)
-				expressionList.addAll(getExpressions(operand));
-			if(instanceChecker.instanceOf(infixExpression))
-				expressionList.add(infixExpression);
+				collectExpressions(operand, expressionList);
+			expressionList.add(infixExpression);
 		}
 		else if(expression instanceof InstanceofExpression) {
 			InstanceofExpression instanceofExpression = (InstanceofExpression)expression;
-			expressionList.addAll(getExpressions(instanceofExpression.getLeftOperand()));
-			if(instanceChecker.instanceOf(instanceofExpression))
-				expressionList.add(instanceofExpression);
+			collectExpressions(instanceofExpression.getLeftOperand(), expressionList);
+			expressionList.add(instanceofExpression);
 		}
 		else if(expression instanceof ParenthesizedExpression) {
 			ParenthesizedExpression parenthesizedExpression = (ParenthesizedExpression)expression;
-			expressionList.addAll(getExpressions(parenthesizedExpression.getExpression()));
-			if(instanceChecker.instanceOf(parenthesizedExpression))
-				expressionList.add(parenthesizedExpression);
+			collectExpressions(parenthesizedExpression.getExpression(), expressionList);
+			expressionList.add(parenthesizedExpression);
 		}
 		else if(expression instanceof PostfixExpression) {
 			PostfixExpression postfixExpression = (PostfixExpression)expression;
-			expressionList.addAll(getExpressions(postfixExpression.getOperand()));
-			if(instanceChecker.instanceOf(postfixExpression))
-				expressionList.add(postfixExpression);
+			collectExpressions(postfixExpression.getOperand(), expressionList);
+			expressionList.add(postfixExpression);
 		}
 		else if(expression instanceof PrefixExpression) {
 			PrefixExpression prefixExpression = (PrefixExpression)expression;
-			expressionList.addAll(getExpressions(prefixExpression.getOperand()));
-			if(instanceChecker.instanceOf(prefixExpression))
-				expressionList.add(prefixExpression);
+			collectExpressions(prefixExpression.getOperand(), expressionList);
+			expressionList.add(prefixExpression);
 		}
 		else if(expression instanceof SuperMethodInvocation) {
 			SuperMethodInvocation superMethodInvocation = (SuperMethodInvocation)expression;
 			List<Expression> arguments = superMethodInvocation.arguments();
 			for(Expression argument : arguments)
-				expressionList.addAll(getExpressions(argument));
-			if(instanceChecker.instanceOf(superMethodInvocation))
-				expressionList.add(superMethodInvocation);
+				collectExpressions(argument, expressionList);
+			expressionList.add(superMethodInvocation);
 		}
 		else if(expression instanceof VariableDeclarationExpression) {
 			VariableDeclarationExpression variableDeclarationExpression = (VariableDeclarationExpression)expression;
 			List<VariableDeclarationFragment> fragments = variableDeclarationExpression.fragments();
 			for(VariableDeclarationFragment fragment : fragments) {
 				Expression nameExpression = fragment.getName();
-				expressionList.addAll(getExpressions(nameExpression));
+				collectExpressions(nameExpression, expressionList);
 				Expression initializerExpression = fragment.getInitializer();
-				expressionList.addAll(getExpressions(initializerExpression));
+				collectExpressions(initializerExpression, expressionList);
 			}
-			if(instanceChecker.instanceOf(variableDeclarationExpression))
-				expressionList.add(variableDeclarationExpression);
+			expressionList.add(variableDeclarationExpression);
 		}
 		else if(expression instanceof ArrayAccess) {
 			ArrayAccess arrayAccess = (ArrayAccess)expression;
-			expressionList.addAll(getExpressions(arrayAccess.getArray()));
-			expressionList.addAll(getExpressions(arrayAccess.getIndex()));
-			if(instanceChecker.instanceOf(arrayAccess))
-				expressionList.add(arrayAccess);
+			collectExpressions(arrayAccess.getArray(), expressionList);
+			collectExpressions(arrayAccess.getIndex(), expressionList);
+			expressionList.add(arrayAccess);
 		}
 		else if(expression instanceof ArrayCreation) {
 			ArrayCreation arrayCreation = (ArrayCreation)expression;
 			List<Expression> dimensions = arrayCreation.dimensions();
 			for(Expression dimension : dimensions)
-				expressionList.addAll(getExpressions(dimension));
-			expressionList.addAll(getExpressions(arrayCreation.getInitializer()));
-			if(instanceChecker.instanceOf(arrayCreation))
-				expressionList.add(arrayCreation);
+				collectExpressions(dimension, expressionList);
+			collectExpressions(arrayCreation.getInitializer(), expressionList);
+			expressionList.add(arrayCreation);
 		}
 		else if(expression instanceof ArrayInitializer) {
 			ArrayInitializer arrayInitializer = (ArrayInitializer)expression;
 			List<Expression> expressions = arrayInitializer.expressions();
 			for(Expression arrayInitializerExpression : expressions)
-				expressionList.addAll(getExpressions(arrayInitializerExpression));
-			if(instanceChecker.instanceOf(arrayInitializer))
-				expressionList.add(arrayInitializer);
+				collectExpressions(arrayInitializerExpression, expressionList);
+			expressionList.add(arrayInitializer);
 		}
 		else if(expression instanceof SimpleName) {
 			SimpleName simpleName = (SimpleName)expression;
-			if(instanceChecker.instanceOf(simpleName))
-				expressionList.add(simpleName);
+			expressionList.add(simpleName);
 		}
 		else if(expression instanceof QualifiedName) {
 			QualifiedName qualifiedName = (QualifiedName)expression;
-			expressionList.addAll(getExpressions(qualifiedName.getQualifier()));
-			expressionList.addAll(getExpressions(qualifiedName.getName()));
-			if(instanceChecker.instanceOf(qualifiedName))
-				expressionList.add(qualifiedName);
+			collectExpressions(qualifiedName.getQualifier(), expressionList);
+			collectExpressions(qualifiedName.getName(), expressionList);
+			expressionList.add(qualifiedName);
 		}
 		else if(expression instanceof SuperFieldAccess) {
 			SuperFieldAccess superFieldAccess = (SuperFieldAccess)expression;
-			expressionList.addAll(getExpressions(superFieldAccess.getName()));
-			if(instanceChecker.instanceOf(superFieldAccess))
-				expressionList.add(superFieldAccess);
+			collectExpressions(superFieldAccess.getName(), expressionList);
+			expressionList.add(superFieldAccess);
 		}
 		else if(expression instanceof ThisExpression) {
 			ThisExpression thisExpression = (ThisExpression)expression;
 			if(thisExpression.getQualifier() != null)
-				expressionList.addAll(getExpressions(thisExpression.getQualifier()));
-			if(instanceChecker.instanceOf(thisExpression))
-				expressionList.add(thisExpression);
+				collectExpressions(thisExpression.getQualifier(), expressionList);
+			expressionList.add(thisExpression);
 		}
 		else if(expression instanceof TypeLiteral) {
 			TypeLiteral typeLiteral = (TypeLiteral)expression;
-			if(instanceChecker.instanceOf(typeLiteral))
-				expressionList.add(typeLiteral);
+			expressionList.add(typeLiteral);
 		}
 		else if(expression instanceof StringLiteral) {
 			StringLiteral stringLiteral = (StringLiteral)expression;
-			if(instanceChecker.instanceOf(stringLiteral))
-				expressionList.add(stringLiteral);
+			expressionList.add(stringLiteral);
 		}
 		else if(expression instanceof NullLiteral) {
 			NullLiteral nullLiteral = (NullLiteral)expression;
-			if(instanceChecker.instanceOf(nullLiteral))
-				expressionList.add(nullLiteral);
+			expressionList.add(nullLiteral);
 		}
 		else if(expression instanceof NumberLiteral) {
 			NumberLiteral numberLiteral = (NumberLiteral)expression;
-			if(instanceChecker.instanceOf(numberLiteral))
-				expressionList.add(numberLiteral);
+			expressionList.add(numberLiteral);
 		}
 		else if(expression instanceof BooleanLiteral) {
 			BooleanLiteral booleanLiteral = (BooleanLiteral)expression;
-			if(instanceChecker.instanceOf(booleanLiteral))
-				expressionList.add(booleanLiteral);
+			expressionList.add(booleanLiteral);
 		}
 		else if(expression instanceof CharacterLiteral) {
 			CharacterLiteral characterLiteral = (CharacterLiteral)expression;
-			if(instanceChecker.instanceOf(characterLiteral))
-				expressionList.add(characterLiteral);
+			expressionList.add(characterLiteral);
 		}
-		return expressionList;
 	}
 	
-	private List<Expression> getExpressions(AnonymousClassDeclaration anonymousClassDeclaration) {
-		List<Expression> expressionList = new ArrayList<Expression>();
+	private void collectExpressions(AnonymousClassDeclaration anonymousClassDeclaration, List<Expression> expressionList) {
 		List<BodyDeclaration> bodyDeclarations = anonymousClassDeclaration.bodyDeclarations();
 		for(BodyDeclaration bodyDeclaration : bodyDeclarations) {
 			if(bodyDeclaration instanceof MethodDeclaration) {
@@ -655,11 +676,49 @@ public class ExpressionExtractor {
 				if(body != null) {
 					List<Statement> statements = body.statements();
 					for(Statement statement : statements) {
-						expressionList.addAll(getExpressions(statement));
+						collectExpressions(statement, expressionList);
 					}
 				}
 			}
 		}
-		return expressionList;
+	}
+
+	/**
+	 * All the expressions of a statement or an expression, in the order of the traversal.
+	 * The expressions accepted by each kind of instance checker are selected from all the expressions the first time they are requested.
+	 * The index is accessed only while holding the lock of the AST node it is attached to.
+	 */
+	private static class ExpressionIndex {
+		//rough estimate of the size of an object header, a list and a map entry, and of an object reference
+		private static final int HEADER_BYTES = 16;
+		private static final int LIST_BYTES = 40;
+		private static final int MAP_ENTRY_BYTES = 32;
+		private static final int REFERENCE_BYTES = 4;
+		private List<Expression> expressions;
+		private long modificationCount;
+		private Map<Class<? extends ExpressionInstanceChecker>, List<Expression>> expressionMap;
+		private int bytes;
+
+		private ExpressionIndex(List<Expression> expressions, long modificationCount) {
+			this.expressions = expressions;
+			this.modificationCount = modificationCount;
+			this.expressionMap = new HashMap<Class<? extends ExpressionInstanceChecker>, List<Expression>>();
+			this.bytes = HEADER_BYTES + 2 * LIST_BYTES + expressions.size() * REFERENCE_BYTES;
+		}
+
+		//a copy is returned, because the callers may modify the returned list
+		private List<Expression> getExpressions(ExpressionInstanceChecker instanceChecker) {
+			List<Expression> expressionList = expressionMap.get(instanceChecker.getClass());
+			if(expressionList == null) {
+				expressionList = new ArrayList<Expression>();
+				for(Expression expression : expressions) {
+					if(instanceChecker.instanceOf(expression))
+						expressionList.add(expression);
+				}
+				expressionMap.put(instanceChecker.getClass(), expressionList);
+				bytes += MAP_ENTRY_BYTES + LIST_BYTES + expressionList.size() * REFERENCE_BYTES;
+			}
+			return new ArrayList<Expression>(expressionList);
+		}
 	}
 }
@@ -8,12 +8,18 @@ import java.util.HashSet;
 public abstract class Clustering {
 
 	protected ArrayList<ArrayList<Double>> distanceList;
-	protected double[][] distanceMatrix;
+	protected SymmetricDistanceMatrix distanceMatrix;
 	
 	public static Clustering getInstance(int type, double[][] distanceMatrix) {
+		return getInstance(type, new SymmetricDistanceMatrix(distanceMatrix));
+	}
+	
+	public static Clustering getInstance(int type, SymmetricDistanceMatrix distanceMatrix) {
 		switch(type) {
 		case 0:
 			return new Hierarchical(distanceMatrix);
+		case 1:
+			return new NearestNeighborHierarchical(distanceMatrix);
 		default:
 			return null;
 		}
@@ -21,5 +27,32 @@ public abstract class Clustering {
 	
 	public abstract HashSet<Cluster> clustering(ArrayList<Entity> entities);
 	
+	//merges the cluster at index merged into the cluster at index survivor, and updates the clusters that can be presented
+	protected void mergeClusters(Cluster[] clusters, int survivor, int merged, HashSet<Cluster> clusterSet) {
+		HashSet<Cluster> clustersNotPresentable = new HashSet<Cluster>();
+		if(clusters[merged].getEntities().size() == 1 && clusters[survivor].getEntities().size() > 1) {
+			clustersNotPresentable.add(new Cluster(clusters[survivor].getEntities()));
+		}
+		else if(clusters[merged].getEntities().size() > 1 && clusters[survivor].getEntities().size() == 1) {
+			clustersNotPresentable.add(new Cluster(clusters[merged].getEntities()));
+		}
+		clusters[survivor].addEntities(clusters[merged].getEntities());
+		clusters[merged] = null;
+		clusterSet.removeAll(clustersNotPresentable);
+		ArrayList<Cluster> activeClusters = new ArrayList<Cluster>();
+		for(Cluster cluster : clusters) {
+			if(cluster != null)
+				activeClusters.add(cluster);
+		}
+		for(Cluster cluster : activeClusters) {
+			if (!(activeClusters.size() == 2 && (activeClusters.get(0).getEntities().size() == 1 || activeClusters.get(1).getEntities().size() == 1))) {
+				if (cluster.getEntities().size() > 1) {
+					Cluster c = new Cluster(cluster.getEntities());
+					clusterSet.add(c);
+				}
+			}
+		}
+	}
+	
 	
 }
@@ -0,0 +1,93 @@
+package gr.uom.java.ast.util.math;
+
+import gr.uom.java.distance.Entity;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+
+/**
+ * Single-linkage agglomerative clustering that produces the same clusters as Hierarchical in O(n^2) time.
+ * For every row it caches the nearest active neighbor among the preceding rows, so that the closest pair is found
+ * by scanning the n cached minimums instead of the whole matrix. With single linkage, distances only decrease
+ * when clusters are merged, so a merge invalidates the cached neighbor of the merged row only.
+ */
+public class NearestNeighborHierarchical extends Clustering {
+	
+	private HashSet<Cluster> clusterSet;
+	//index of the nearest active row j < i of each row i (the smallest index in case of ties), -1 if there is none
+	private int[] nearestNeighbor;
+	private double[] nearestDistance;
+	
+	public NearestNeighborHierarchical(SymmetricDistanceMatrix distanceMatrix) {
+		this.distanceMatrix = distanceMatrix;
+		this.clusterSet = new HashSet<Cluster>();
+	}
+
+	public HashSet<Cluster> clustering(ArrayList<Entity> entities) {
+		Cluster[] clusters = new Cluster[entities.size()];
+		for(int i=0; i<entities.size(); i++) {
+			Cluster cluster = new Cluster();
+			cluster.addEntity(entities.get(i));
+			clusters[i] = cluster;
+		}
+		int size = distanceMatrix.size();
+		nearestNeighbor = new int[size];
+		nearestDistance = new double[size];
+		for(int i=0; i<size; i++) {
+			updateNearestNeighbor(i);
+		}
+		while(distanceMatrix.getActiveCount()>2) {
+			//the first row with the smallest cached distance gives the same pair as a row-major scan of the lower triangle
+			double minVal = 2.0;
+			int minRow = 0;
+			int minCol = 1;
+			for(int i=1; i<size; i++) {
+				if(distanceMatrix.isActive(i) && nearestNeighbor[i] != -1 && nearestDistance[i] < minVal) {
+					minVal = nearestDistance[i];
+					minRow = i;
+					minCol = nearestNeighbor[i];
+				}
+			}
+			
+			if(minVal >= 1.0)
+				break;
+			for(int i=0; i<size; i++) {
+				if(i != minRow && i != minCol && distanceMatrix.isActive(i)) {
+					if(distanceMatrix.get(minRow, i) < distanceMatrix.get(minCol, i)) {
+						distanceMatrix.set(minCol, i, distanceMatrix.get(minRow, i));
+					}
+				}
+			}
+			distanceMatrix.retire(minRow);
+			updateNearestNeighbor(minCol);
+			for(int i=minCol+1; i<size; i++) {
+				if(i != minRow && distanceMatrix.isActive(i)) {
+					if(nearestNeighbor[i] == minRow) {
+						//the distance to the merged cluster is the minimum of the two, and minCol precedes minRow
+						nearestNeighbor[i] = minCol;
+					}
+					else {
+						double distance = distanceMatrix.get(i, minCol);
+						if(distance < nearestDistance[i] || (distance == nearestDistance[i] && minCol < nearestNeighbor[i])) {
+							nearestDistance[i] = distance;
+							nearestNeighbor[i] = minCol;
+						}
+					}
+				}
+			}
+			mergeClusters(clusters, minCol, minRow, clusterSet);
+		}
+		return clusterSet;
+	}
+
+	private void updateNearestNeighbor(int i) {
+		nearestNeighbor[i] = -1;
+		nearestDistance[i] = Double.MAX_VALUE;
+		for(int j=0; j<i; j++) {
+			if(distanceMatrix.isActive(j) && distanceMatrix.get(i, j) < nearestDistance[i]) {
+				nearestDistance[i] = distanceMatrix.get(i, j);
+				nearestNeighbor[i] = j;
+			}
+		}
+	}
+}
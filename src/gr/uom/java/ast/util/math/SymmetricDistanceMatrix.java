@@ -0,0 +1,70 @@
+package gr.uom.java.ast.util.math;
+
+/**
+ * Symmetric distance matrix with a zero diagonal, which stores only its lower triangle in a packed array.
+ * Rows (and the corresponding columns) can be retired in place, so that clustering algorithms
+ * can merge clusters without copying the matrix.
+ */
+public class SymmetricDistanceMatrix {
+
+	private int size;
+	private double[] distances;
+	private boolean[] retired;
+	private int activeCount;
+
+	public SymmetricDistanceMatrix(int size) {
+		this.size = size;
+		this.distances = new double[size * (size - 1) / 2];
+		this.retired = new boolean[size];
+		this.activeCount = size;
+	}
+
+	//only the lower triangle of the given matrix is read
+	public SymmetricDistanceMatrix(double[][] matrix) {
+		this(matrix.length);
+		for(int i=1; i<size; i++) {
+			for(int j=0; j<i; j++) {
+				distances[index(i, j)] = matrix[i][j];
+			}
+		}
+	}
+
+	private static int index(int i, int j) {
+		if(i < j) {
+			int temp = i;
+			i = j;
+			j = temp;
+		}
+		return i * (i - 1) / 2 + j;
+	}
+
+	public double get(int i, int j) {
+		if(i == j)
+			return 0.0;
+		return distances[index(i, j)];
+	}
+
+	public void set(int i, int j, double distance) {
+		if(i != j)
+			distances[index(i, j)] = distance;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isActive(int i) {
+		return !retired[i];
+	}
+
+	public void retire(int i) {
+		if(!retired[i]) {
+			retired[i] = true;
+			activeCount--;
+		}
+	}
+
+	public int getActiveCount() {
+		return activeCount;
+	}
+}
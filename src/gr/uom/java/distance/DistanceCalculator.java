@@ -11,6 +11,15 @@ public class DistanceCalculator {
         return 1.0 - (double)intersection(set1,set2).size()/(double)union(set1,set2).size();
     }
 
+    //same result as getDistance(Set<String>, Set<String>) for the corresponding interned sets, without allocating any set
+    public static double getDistance(InternedEntitySet set1, InternedEntitySet set2) {
+        if(set1.isEmpty() && set2.isEmpty())
+            return 1.0;
+        int intersectionSize = InternedEntitySet.intersectionSize(set1, set2);
+        int unionSize = set1.size() + set2.size() - intersectionSize;
+        return 1.0 - (double)intersectionSize/(double)unionSize;
+    }
+
     public static Set<String> union(Set<String> set1, Set<String> set2) {
         Set<String> set = new HashSet<String>();
         set.addAll(set1);
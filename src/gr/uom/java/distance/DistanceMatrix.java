@@ -7,13 +7,23 @@ import gr.uom.java.ast.MethodInvocationObject;
 import gr.uom.java.ast.MethodObject;
 import gr.uom.java.ast.ParameterObject;
 import gr.uom.java.ast.association.Association;
+import gr.uom.java.ast.util.CandidateListener;
 import gr.uom.java.ast.util.math.Cluster;
 import gr.uom.java.ast.util.math.Clustering;
+import gr.uom.java.ast.util.math.SymmetricDistanceMatrix;
 import gr.uom.java.jdeodorant.preferences.PreferenceConstants;
 import gr.uom.java.jdeodorant.refactoring.Activator;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+import org.eclipse.core.resources.IFile;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.jdt.core.dom.Expression;
@@ -186,130 +196,172 @@ public class DistanceMatrix {
     }
 
     public List<MoveMethodCandidateRefactoring> getMoveMethodCandidateRefactoringsByAccess(Set<String> classNamesToBeExamined, IProgressMonitor monitor) {
+    	return getMoveMethodCandidateRefactoringsByAccess(classNamesToBeExamined, null, monitor);
+    }
+
+    public List<MoveMethodCandidateRefactoring> getMoveMethodCandidateRefactoringsByAccess(Set<String> classNamesToBeExamined,
+    		CandidateListener<MoveMethodCandidateRefactoring> listener, IProgressMonitor monitor) {
     	List<MoveMethodCandidateRefactoring> candidateRefactoringList = new ArrayList<MoveMethodCandidateRefactoring>();
     	if(monitor != null)
     		monitor.beginTask("Identification of Move Method refactoring opportunities", entityList.size());
-    	for(int i=0; i<entityList.size(); i++) {
-    		if(monitor != null && monitor.isCanceled())
-    			throw new OperationCanceledException();
-    		Entity entity = entityList.get(i);
-    		if(entity instanceof MyMethod) {
-    			String sourceClass = entity.getClassOrigin();
-    			if(classNamesToBeExamined.contains(sourceClass)) {
-    				MyMethod method = (MyMethod)entity;
-    				Set<String> entitySetI = entityMap.get(entity.toString());
-    				Map<String, ArrayList<String>> accessMap = computeAccessMap(entitySetI);
-    				List<MoveMethodCandidateRefactoring> conceptuallyBoundRefactorings = identifyConceptualBindings(method, accessMap.keySet());
-    				if(!conceptuallyBoundRefactorings.isEmpty()) {
-    					candidateRefactoringList.addAll(conceptuallyBoundRefactorings);
-    				}
-    				else {
-    					//ArrayList<String> contains the target classes from which key number of entities are accessed
-    					TreeMap<Integer, ArrayList<String>> sortedByAccessMap = new TreeMap<Integer, ArrayList<String>>();
-    					for(String targetClass : accessMap.keySet()) {
-    						int numberOfAccessedEntities = accessMap.get(targetClass).size();
-    						if(sortedByAccessMap.containsKey(numberOfAccessedEntities)) {
-    							ArrayList<String> list = sortedByAccessMap.get(numberOfAccessedEntities);
-    							list.add(targetClass);
-    						}
-    						else {
-    							ArrayList<String> list = new ArrayList<String>();
-    							list.add(targetClass);
-    							sortedByAccessMap.put(numberOfAccessedEntities, list);
-    						}
-    					}
-
-    					boolean candidateFound = false;
-    					boolean sourceClassIsTarget = false;
-    					while(!candidateFound && !sourceClassIsTarget && !sortedByAccessMap.isEmpty()) {
-    						ArrayList<String> targetClasses = sortedByAccessMap.get(sortedByAccessMap.lastKey());
-							for(String targetClass : targetClasses) {
-								if(sourceClass.equals(targetClass)) {
-									sourceClassIsTarget = true;
-								}
-								else {
-									MyClass mySourceClass = classList.get(classIndexMap.get(sourceClass));
-									MyClass myTargetClass = classList.get(classIndexMap.get(targetClass));
-									MoveMethodCandidateRefactoring candidate = new MoveMethodCandidateRefactoring(system,mySourceClass,myTargetClass,method);
-									Map<MethodInvocation, MethodDeclaration> additionalMethodsToBeMoved = candidate.getAdditionalMethodsToBeMoved();
-									Collection<MethodDeclaration> values = additionalMethodsToBeMoved.values();
-									Set<String> methodEntitySet = entityMap.get(method.toString());
-									Set<String> sourceClassEntitySet = classMap.get(sourceClass);
-									Set<String> targetClassEntitySet = classMap.get(targetClass);
-									Set<String> intersectionWithSourceClass = DistanceCalculator.intersection(methodEntitySet, sourceClassEntitySet);
-									Set<String> intersectionWithTargetClass = DistanceCalculator.intersection(methodEntitySet, targetClassEntitySet);
-									Set<String> entitiesToRemoveFromIntersectionWithSourceClass = new LinkedHashSet<String>();
-									if(!values.isEmpty()) {
-										for(String s : intersectionWithSourceClass) {
-											int entityPosition = entityIndexMap.get(s);
-											Entity e = entityList.get(entityPosition);
-											if(e instanceof MyMethod) {
-												MyMethod invokedMethod = (MyMethod)e;
-												if(values.contains(invokedMethod.getMethodObject().getMethodDeclaration())) {
-													entitiesToRemoveFromIntersectionWithSourceClass.add(s);
-												}
-											}
-										}
-										intersectionWithSourceClass.removeAll(entitiesToRemoveFromIntersectionWithSourceClass);
-									}
-									if(intersectionWithTargetClass.size() >= intersectionWithSourceClass.size()) {
-										if(candidate.isApplicable() && !targetClassInheritedByAnotherCandidateTargetClass(targetClass, accessMap.keySet())) {
-											int sourceClassDependencies = candidate.getDistinctSourceDependencies();
-					    					int targetClassDependencies = candidate.getDistinctTargetDependencies();
-					    					if(sourceClassDependencies <= maximumNumberOfSourceClassMembersAccessedByMoveMethodCandidate &&
-					    							sourceClassDependencies < targetClassDependencies) {
-					    						candidateRefactoringList.add(candidate);
-					    					}
-											candidateFound = true;
-										}
-									}
-								}
-							}
-    						sortedByAccessMap.remove(sortedByAccessMap.lastKey());
-    					}
-    				}
-    			}
-    		}
-    		if(monitor != null)
-    			monitor.worked(1);
+    	EntityAccessSnapshot snapshot = new EntityAccessSnapshot(entityList, entityMap, ASTReader.getSystemObject());
+    	IPreferenceStore store = Activator.getDefault().getPreferenceStore();
+    	int numberOfThreads = store.getInt(PreferenceConstants.P_NUMBER_OF_WORKER_THREADS);
+    	if(numberOfThreads > 1) {
+    		candidateRefactoringList.addAll(getMoveMethodCandidateRefactoringsInParallel(classNamesToBeExamined, snapshot, listener, numberOfThreads, monitor));
+    	}
+    	else {
+	    	for(int i=0; i<entityList.size(); i++) {
+	    		if(monitor != null && monitor.isCanceled())
+	    			throw new OperationCanceledException();
+	    		Entity entity = entityList.get(i);
+	    		if(entity instanceof MyMethod && classNamesToBeExamined.contains(entity.getClassOrigin())) {
+	    			List<MoveMethodCandidateRefactoring> candidates = getMoveMethodCandidateRefactorings((MyMethod)entity, snapshot);
+	    			candidateRefactoringList.addAll(candidates);
+	    			if(listener != null && !candidates.isEmpty())
+	    				listener.candidatesIdentified(candidates);
+	    		}
+	    		if(monitor != null)
+	    			monitor.worked(1);
+	    	}
     	}
     	if(monitor != null)
     		monitor.done();
     	return candidateRefactoringList;
     }
 
-	private Map<String, ArrayList<String>> computeAccessMap(Set<String> entitySetI) {
-		//ArrayList<String> contains the accessed entities per target class (key)
-		Map<String, ArrayList<String>> accessMap = new LinkedHashMap<String, ArrayList<String>>();
-		for(String e : entitySetI) {
-			String[] tokens = e.split("::");
-			String classOrigin = tokens[0];
-			String entityName = tokens[1];
-			if(accessMap.containsKey(classOrigin)) {
-				ArrayList<String> list = accessMap.get(classOrigin);
-				list.add(entityName);
-			}
-			else {
-				ArrayList<String> list = new ArrayList<String>();
-				list.add(entityName);
-				accessMap.put(classOrigin, list);
-			}
+    private List<MoveMethodCandidateRefactoring> getMoveMethodCandidateRefactorings(MyMethod method, EntityAccessSnapshot snapshot) {
+    	List<MoveMethodCandidateRefactoring> candidateRefactoringList = new ArrayList<MoveMethodCandidateRefactoring>();
+    	String sourceClass = method.getClassOrigin();
+		Map<String, ArrayList<String>> accessMap = snapshot.computeAccessMap(method);
+		List<MoveMethodCandidateRefactoring> conceptuallyBoundRefactorings = identifyConceptualBindings(method, accessMap.keySet());
+		if(!conceptuallyBoundRefactorings.isEmpty()) {
+			candidateRefactoringList.addAll(conceptuallyBoundRefactorings);
 		}
-		for(String key1 : accessMap.keySet()) {
-			ClassObject classObject = ASTReader.getSystemObject().getClassObject(key1);
-			if(classObject != null && classObject.getSuperclass() != null) {
-				for(String key2 : accessMap.keySet()) {
-					if(classObject.getSuperclass().getClassType().equals(key2)) {
-						ArrayList<String> list = accessMap.get(key1);
-						list.addAll(accessMap.get(key2));
+		else {
+			//ArrayList<String> contains the target classes from which key number of entities are accessed
+			TreeMap<Integer, ArrayList<String>> sortedByAccessMap = new TreeMap<Integer, ArrayList<String>>();
+			for(String targetClass : accessMap.keySet()) {
+				int numberOfAccessedEntities = accessMap.get(targetClass).size();
+				if(sortedByAccessMap.containsKey(numberOfAccessedEntities)) {
+					ArrayList<String> list = sortedByAccessMap.get(numberOfAccessedEntities);
+					list.add(targetClass);
+				}
+				else {
+					ArrayList<String> list = new ArrayList<String>();
+					list.add(targetClass);
+					sortedByAccessMap.put(numberOfAccessedEntities, list);
+				}
+			}
+
+			boolean candidateFound = false;
+			boolean sourceClassIsTarget = false;
+			while(!candidateFound && !sourceClassIsTarget && !sortedByAccessMap.isEmpty()) {
+				ArrayList<String> targetClasses = sortedByAccessMap.get(sortedByAccessMap.lastKey());
+				for(String targetClass : targetClasses) {
+					if(sourceClass.equals(targetClass)) {
+						sourceClassIsTarget = true;
+					}
+					else {
+						MyClass mySourceClass = classList.get(classIndexMap.get(sourceClass));
+						MyClass myTargetClass = classList.get(classIndexMap.get(targetClass));
+						MoveMethodCandidateRefactoring candidate = new MoveMethodCandidateRefactoring(system,mySourceClass,myTargetClass,method);
+						Map<MethodInvocation, MethodDeclaration> additionalMethodsToBeMoved = candidate.getAdditionalMethodsToBeMoved();
+						Collection<MethodDeclaration> values = additionalMethodsToBeMoved.values();
+						Set<String> methodEntitySet = entityMap.get(method.toString());
+						Set<String> sourceClassEntitySet = classMap.get(sourceClass);
+						Set<String> targetClassEntitySet = classMap.get(targetClass);
+						Set<String> intersectionWithSourceClass = DistanceCalculator.intersection(methodEntitySet, sourceClassEntitySet);
+						Set<String> intersectionWithTargetClass = DistanceCalculator.intersection(methodEntitySet, targetClassEntitySet);
+						Set<String> entitiesToRemoveFromIntersectionWithSourceClass = new LinkedHashSet<String>();
+						if(!values.isEmpty()) {
+							for(String s : intersectionWithSourceClass) {
+								int entityPosition = entityIndexMap.get(s);
+								Entity e = entityList.get(entityPosition);
+								if(e instanceof MyMethod) {
+									MyMethod invokedMethod = (MyMethod)e;
+									if(values.contains(invokedMethod.getMethodObject().getMethodDeclaration())) {
+										entitiesToRemoveFromIntersectionWithSourceClass.add(s);
+									}
+								}
+							}
+							intersectionWithSourceClass.removeAll(entitiesToRemoveFromIntersectionWithSourceClass);
+						}
+						if(intersectionWithTargetClass.size() >= intersectionWithSourceClass.size()) {
+							if(candidate.isApplicable() && !targetClassInheritedByAnotherCandidateTargetClass(targetClass, accessMap.keySet())) {
+								int sourceClassDependencies = candidate.getDistinctSourceDependencies();
+		    					int targetClassDependencies = candidate.getDistinctTargetDependencies();
+		    					if(sourceClassDependencies <= maximumNumberOfSourceClassMembersAccessedByMoveMethodCandidate &&
+		    							sourceClassDependencies < targetClassDependencies) {
+		    						candidateRefactoringList.add(candidate);
+		    					}
+								candidateFound = true;
+							}
+						}
 					}
 				}
+				sortedByAccessMap.remove(sortedByAccessMap.lastKey());
 			}
 		}
-		return accessMap;
-	}
+    	return candidateRefactoringList;
+    }
+
+    private List<MoveMethodCandidateRefactoring> getMoveMethodCandidateRefactoringsInParallel(Set<String> classNamesToBeExamined, final EntityAccessSnapshot snapshot,
+    		final CandidateListener<MoveMethodCandidateRefactoring> listener, int numberOfThreads, IProgressMonitor monitor) {
+    	//the methods declared in the same file are examined by the same task, so that their AST is never accessed concurrently
+    	List<MyMethod> examinedMethods = new ArrayList<MyMethod>();
+    	Map<IFile, List<MyMethod>> methodsPerFile = new LinkedHashMap<IFile, List<MyMethod>>();
+    	for(Entity entity : entityList) {
+    		if(entity instanceof MyMethod && classNamesToBeExamined.contains(entity.getClassOrigin())) {
+    			MyMethod method = (MyMethod)entity;
+    			IFile file = classList.get(classIndexMap.get(method.getClassOrigin())).getClassObject().getIFile();
+    			List<MyMethod> methods = methodsPerFile.get(file);
+    			if(methods == null) {
+    				methods = new ArrayList<MyMethod>();
+    				methodsPerFile.put(file, methods);
+    			}
+    			methods.add(method);
+    			examinedMethods.add(method);
+    		}
+    	}
+    	if(monitor != null)
+    		monitor.worked(entityList.size() - examinedMethods.size());
+    	final Map<MyMethod, List<MoveMethodCandidateRefactoring>> candidateMap = new ConcurrentHashMap<MyMethod, List<MoveMethodCandidateRefactoring>>();
+    	List<Runnable> tasks = new ArrayList<Runnable>();
+    	List<Integer> taskSizes = new ArrayList<Integer>();
+    	for(final List<MyMethod> methods : methodsPerFile.values()) {
+    		tasks.add(new Runnable() {
+    			public void run() {
+    				for(MyMethod method : methods) {
+    					if(Thread.currentThread().isInterrupted())
+    						return;
+    					List<MoveMethodCandidateRefactoring> candidates = getMoveMethodCandidateRefactorings(method, snapshot);
+    					candidateMap.put(method, candidates);
+    					if(listener != null && !candidates.isEmpty())
+    						listener.candidatesIdentified(candidates);
+    				}
+    			}
+    		});
+    		taskSizes.add(methods.size());
+    	}
+    	executeInParallel(tasks, taskSizes, numberOfThreads, monitor);
+    	//the candidates are merged in the order of the entities, as in the sequential identification
+    	List<MoveMethodCandidateRefactoring> candidateRefactoringList = new ArrayList<MoveMethodCandidateRefactoring>();
+    	for(MyMethod method : examinedMethods) {
+    		List<MoveMethodCandidateRefactoring> candidates = candidateMap.get(method);
+    		if(candidates != null)
+    			candidateRefactoringList.addAll(candidates);
+    	}
+    	return candidateRefactoringList;
+    }
+
 
     public List<ExtractClassCandidateRefactoring> getExtractClassCandidateRefactorings(Set<String> classNamesToBeExamined, IProgressMonitor monitor) {
+    	return getExtractClassCandidateRefactorings(classNamesToBeExamined, null, monitor);
+    }
+
+    public List<ExtractClassCandidateRefactoring> getExtractClassCandidateRefactorings(Set<String> classNamesToBeExamined,
+    		CandidateListener<ExtractClassCandidateRefactoring> listener, IProgressMonitor monitor) {
     	List<ExtractClassCandidateRefactoring> candidateList = new ArrayList<ExtractClassCandidateRefactoring>();
     	Iterator<MyClass> classIt = system.getClassIterator();
     	ArrayList<MyClass> oldClasses = new ArrayList<MyClass>();
@@ -323,50 +375,150 @@ public class DistanceMatrix {
     	if(monitor != null)
     		monitor.beginTask("Identification of Extract Class refactoring opportunities", oldClasses.size());
 
-    	for(MyClass sourceClass : oldClasses) {
-    		if(monitor != null && monitor.isCanceled())
-    			throw new OperationCanceledException();
-    		if (!sourceClass.getMethodList().isEmpty() && !sourceClass.getAttributeList().isEmpty()) {
-    			double[][] distanceMatrix = getJaccardDistanceMatrix(sourceClass);
-				Clustering clustering = Clustering.getInstance(0, distanceMatrix);
-				ArrayList<Entity> entities = new ArrayList<Entity>();
-				entities.addAll(sourceClass.getAttributeList());
-				entities.addAll(sourceClass.getMethodList());
-				HashSet<Cluster> clusters = clustering.clustering(entities);
-				for (Cluster cluster : clusters) {
-    				ExtractClassCandidateRefactoring candidate = new ExtractClassCandidateRefactoring(system, sourceClass, cluster.getEntities());
-    				if (candidate.isApplicable()) {
-    					int sourceClassDependencies = candidate.getDistinctSourceDependencies();
-    					int extractedClassDependencies = candidate.getDistinctTargetDependencies();
-    					if(sourceClassDependencies <= maximumNumberOfSourceClassMembersAccessedByExtractClassCandidate &&
-    							sourceClassDependencies < extractedClassDependencies) {
-    						candidateList.add(candidate);
-    					}
+    	IPreferenceStore store = Activator.getDefault().getPreferenceStore();
+    	int numberOfThreads = store.getInt(PreferenceConstants.P_NUMBER_OF_WORKER_THREADS);
+    	if(numberOfThreads > 1 && oldClasses.size() > 1) {
+    		candidateList.addAll(getExtractClassCandidateRefactoringsInParallel(oldClasses, listener, numberOfThreads, monitor));
+    	}
+    	else {
+	    	for(MyClass sourceClass : oldClasses) {
+	    		if(monitor != null && monitor.isCanceled())
+	    			throw new OperationCanceledException();
+	    		List<ExtractClassCandidateRefactoring> candidates = getExtractClassCandidateRefactorings(sourceClass);
+	    		candidateList.addAll(candidates);
+	    		if(listener != null && !candidates.isEmpty())
+	    			listener.candidatesIdentified(candidates);
+	    		if(monitor != null)
+	    			monitor.worked(1);
+	    	}
+    	}
+    	if(monitor != null)
+    		monitor.done();
+    	return candidateList;
+    }
+
+    private List<ExtractClassCandidateRefactoring> getExtractClassCandidateRefactorings(MyClass sourceClass) {
+    	List<ExtractClassCandidateRefactoring> candidateList = new ArrayList<ExtractClassCandidateRefactoring>();
+    	if (!sourceClass.getMethodList().isEmpty() && !sourceClass.getAttributeList().isEmpty()) {
+    		SymmetricDistanceMatrix distanceMatrix = getJaccardDistanceMatrix(sourceClass);
+			Clustering clustering = Clustering.getInstance(1, distanceMatrix);
+			ArrayList<Entity> entities = new ArrayList<Entity>();
+			entities.addAll(sourceClass.getAttributeList());
+			entities.addAll(sourceClass.getMethodList());
+			HashSet<Cluster> clusters = clustering.clustering(entities);
+			for (Cluster cluster : clusters) {
+    			ExtractClassCandidateRefactoring candidate = new ExtractClassCandidateRefactoring(system, sourceClass, cluster.getEntities());
+    			if (candidate.isApplicable()) {
+    				int sourceClassDependencies = candidate.getDistinctSourceDependencies();
+    				int extractedClassDependencies = candidate.getDistinctTargetDependencies();
+    				if(sourceClassDependencies <= maximumNumberOfSourceClassMembersAccessedByExtractClassCandidate &&
+    						sourceClassDependencies < extractedClassDependencies) {
+    					candidateList.add(candidate);
     				}
     			}
-    			// Clustering End
     		}
-    		if(monitor != null)
-    			monitor.worked(1);
+    		// Clustering End
+    	}
+    	return candidateList;
+    }
+
+    private List<ExtractClassCandidateRefactoring> getExtractClassCandidateRefactoringsInParallel(List<MyClass> oldClasses,
+    		final CandidateListener<ExtractClassCandidateRefactoring> listener, int numberOfThreads, IProgressMonitor monitor) {
+    	//the classes declared in the same file are processed by the same task, so that their AST is never accessed concurrently
+    	Map<IFile, List<MyClass>> classesPerFile = new LinkedHashMap<IFile, List<MyClass>>();
+    	for(MyClass sourceClass : oldClasses) {
+    		IFile file = sourceClass.getClassObject().getIFile();
+    		List<MyClass> classes = classesPerFile.get(file);
+    		if(classes == null) {
+    			classes = new ArrayList<MyClass>();
+    			classesPerFile.put(file, classes);
+    		}
+    		classes.add(sourceClass);
+    	}
+    	final Map<MyClass, List<ExtractClassCandidateRefactoring>> candidateMap = new ConcurrentHashMap<MyClass, List<ExtractClassCandidateRefactoring>>();
+    	List<Runnable> tasks = new ArrayList<Runnable>();
+    	List<Integer> taskSizes = new ArrayList<Integer>();
+    	for(final List<MyClass> classes : classesPerFile.values()) {
+    		tasks.add(new Runnable() {
+    			public void run() {
+    				for(MyClass sourceClass : classes) {
+    					if(Thread.currentThread().isInterrupted())
+    						return;
+    					List<ExtractClassCandidateRefactoring> candidates = getExtractClassCandidateRefactorings(sourceClass);
+    					candidateMap.put(sourceClass, candidates);
+    					if(listener != null && !candidates.isEmpty())
+    						listener.candidatesIdentified(candidates);
+    				}
+    			}
+    		});
+    		taskSizes.add(classes.size());
+    	}
+    	executeInParallel(tasks, taskSizes, numberOfThreads, monitor);
+    	//the candidates are merged in the order of the examined classes, as in the sequential identification
+    	List<ExtractClassCandidateRefactoring> candidateList = new ArrayList<ExtractClassCandidateRefactoring>();
+    	for(MyClass sourceClass : oldClasses) {
+    		List<ExtractClassCandidateRefactoring> candidates = candidateMap.get(sourceClass);
+    		if(candidates != null)
+    			candidateList.addAll(candidates);
     	}
-    	if(monitor != null)
-    		monitor.done();
     	return candidateList;
     }
 
-	public double[][] getJaccardDistanceMatrix(MyClass sourceClass) {
+    private void executeInParallel(List<Runnable> tasks, List<Integer> taskSizes, int numberOfThreads, IProgressMonitor monitor) {
+    	ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+    	try {
+    		List<Future<?>> futures = new ArrayList<Future<?>>();
+    		for(Runnable task : tasks) {
+    			futures.add(executor.submit(task));
+    		}
+    		for(int i=0; i<futures.size(); i++) {
+    			Future<?> future = futures.get(i);
+    			boolean done = false;
+    			while(!done) {
+    				if(monitor != null && monitor.isCanceled())
+    					throw new OperationCanceledException();
+    				try {
+    					future.get(100, TimeUnit.MILLISECONDS);
+    					done = true;
+    				} catch (TimeoutException e) {
+    					//poll again for cancellation
+    				} catch (InterruptedException e) {
+    					Thread.currentThread().interrupt();
+    					throw new OperationCanceledException();
+    				} catch (ExecutionException e) {
+    					//a failed task is thrown as the sequential identification would throw it, instead of returning the candidates of the other tasks
+    					Throwable cause = e.getCause();
+    					if(cause instanceof RuntimeException)
+    						throw (RuntimeException)cause;
+    					if(cause instanceof Error)
+    						throw (Error)cause;
+    					throw new IllegalStateException(cause);
+    				}
+    			}
+    			if(monitor != null)
+    				monitor.worked(taskSizes.get(i));
+    		}
+    	}
+    	finally {
+    		executor.shutdownNow();
+    	}
+    }
+
+	public SymmetricDistanceMatrix getJaccardDistanceMatrix(MyClass sourceClass) {
 		ArrayList<Entity> entities = new ArrayList<Entity>();
 		entities.addAll(sourceClass.getAttributeList());
 		entities.addAll(sourceClass.getMethodList());
-		double[][] jaccardDistanceMatrix = new double[entities.size()][entities.size()];
-		for(int i=0; i<jaccardDistanceMatrix.length; i++) {
-			for(int j=0; j<jaccardDistanceMatrix.length; j++) {
-				if(i != j) {
-					jaccardDistanceMatrix[i][j] = DistanceCalculator.getDistance(entities.get(i).getFullEntitySet(), entities.get(j).getFullEntitySet());
-				}
-				else {
-					jaccardDistanceMatrix[i][j] = 0.0;
-				}
+		//the entity sets are built and interned once per entity, instead of once per compared pair
+		EntityInterner interner = new EntityInterner();
+		InternedEntitySet[] fullEntitySets = new InternedEntitySet[entities.size()];
+		for(int i=0; i<fullEntitySets.length; i++) {
+			fullEntitySets[i] = interner.intern(entities.get(i).getFullEntitySet());
+		}
+		//the Jaccard distance is symmetric, so each pair is computed once
+		SymmetricDistanceMatrix jaccardDistanceMatrix = new SymmetricDistanceMatrix(entities.size());
+		for(int i=1; i<jaccardDistanceMatrix.size(); i++) {
+			for(int j=0; j<i; j++) {
+				jaccardDistanceMatrix.set(i, j, DistanceCalculator.getDistance(fullEntitySets[i], fullEntitySets[j]));
 			}
 		}
 		return jaccardDistanceMatrix;
@@ -0,0 +1,89 @@
+package gr.uom.java.distance;
+
+import gr.uom.java.ast.ClassObject;
+import gr.uom.java.ast.SystemObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable snapshot of the information needed to compute which classes are accessed by each method.
+ * The entity names are split once and the superclasses are resolved once, so that the Move Method
+ * identification can examine the methods on several threads without querying the SystemObject.
+ */
+public class EntityAccessSnapshot {
+	//class origin of each entity in the entity set of a method, in the iteration order of the set
+	private final Map<String, String[]> classOriginMap;
+	//member name of each entity in the entity set of a method, in the iteration order of the set
+	private final Map<String, String[]> memberNameMap;
+	//key is a class name and value is the name of its superclass
+	private final Map<String, String> superclassMap;
+
+	public EntityAccessSnapshot(List<Entity> entityList, Map<String, Set<String>> entityMap, SystemObject systemObject) {
+		Map<String, String[]> classOriginMap = new HashMap<String, String[]>();
+		Map<String, String[]> memberNameMap = new HashMap<String, String[]>();
+		for(Entity entity : entityList) {
+			if(entity instanceof MyMethod) {
+				Set<String> entitySet = entityMap.get(entity.toString());
+				String[] classOrigins = new String[entitySet.size()];
+				String[] memberNames = new String[entitySet.size()];
+				int i = 0;
+				for(String e : entitySet) {
+					String[] tokens = e.split("::");
+					classOrigins[i] = tokens[0];
+					memberNames[i] = tokens[1];
+					i++;
+				}
+				classOriginMap.put(entity.toString(), classOrigins);
+				memberNameMap.put(entity.toString(), memberNames);
+			}
+		}
+		Map<String, String> superclassMap = new HashMap<String, String>();
+		ListIterator<ClassObject> classIterator = systemObject.getClassListIterator();
+		while(classIterator.hasNext()) {
+			ClassObject classObject = classIterator.next();
+			if(classObject.getSuperclass() != null)
+				superclassMap.put(classObject.getName(), classObject.getSuperclass().getClassType());
+		}
+		this.classOriginMap = Collections.unmodifiableMap(classOriginMap);
+		this.memberNameMap = Collections.unmodifiableMap(memberNameMap);
+		this.superclassMap = Collections.unmodifiableMap(superclassMap);
+	}
+
+	public Map<String, ArrayList<String>> computeAccessMap(MyMethod method) {
+		String[] classOrigins = classOriginMap.get(method.toString());
+		String[] memberNames = memberNameMap.get(method.toString());
+		//ArrayList<String> contains the accessed entities per target class (key)
+		Map<String, ArrayList<String>> accessMap = new LinkedHashMap<String, ArrayList<String>>();
+		for(int i=0; i<classOrigins.length; i++) {
+			String classOrigin = classOrigins[i];
+			if(accessMap.containsKey(classOrigin)) {
+				ArrayList<String> list = accessMap.get(classOrigin);
+				list.add(memberNames[i]);
+			}
+			else {
+				ArrayList<String> list = new ArrayList<String>();
+				list.add(memberNames[i]);
+				accessMap.put(classOrigin, list);
+			}
+		}
+		for(String key1 : accessMap.keySet()) {
+			String superclass = superclassMap.get(key1);
+			if(superclass != null) {
+				for(String key2 : accessMap.keySet()) {
+					if(superclass.equals(key2)) {
+						ArrayList<String> list = accessMap.get(key1);
+						list.addAll(accessMap.get(key2));
+					}
+				}
+			}
+		}
+		return accessMap;
+	}
+}
@@ -0,0 +1,38 @@
+package gr.uom.java.distance;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Assigns a dense integer id to every entity name ("Class::member"), so that entity sets
+ * can be represented as bit sets and compared without hashing strings.
+ */
+public class EntityInterner {
+	private Map<String, Integer> idMap;
+
+	public EntityInterner() {
+		this.idMap = new HashMap<String, Integer>();
+	}
+
+	public int intern(String entity) {
+		Integer id = idMap.get(entity);
+		if(id == null) {
+			id = idMap.size();
+			idMap.put(entity, id);
+		}
+		return id;
+	}
+
+	public InternedEntitySet intern(Set<String> entitySet) {
+		InternedEntitySet internedSet = new InternedEntitySet(idMap.size() + entitySet.size());
+		for(String entity : entitySet) {
+			internedSet.add(intern(entity));
+		}
+		return internedSet;
+	}
+
+	public int size() {
+		return idMap.size();
+	}
+}
@@ -0,0 +1,60 @@
+package gr.uom.java.distance;
+
+/**
+ * Set of entity ids assigned by an EntityInterner, backed by a long[] bit set.
+ * Sets created by the same interner can be intersected without any allocation.
+ */
+public class InternedEntitySet {
+	private static final int ADDRESS_BITS_PER_WORD = 6;
+	private long[] words;
+	private int size;
+
+	public InternedEntitySet(int capacity) {
+		this.words = new long[wordIndex(Math.max(capacity, 1) - 1) + 1];
+		this.size = 0;
+	}
+
+	private static int wordIndex(int id) {
+		return id >> ADDRESS_BITS_PER_WORD;
+	}
+
+	public void add(int id) {
+		int wordIndex = wordIndex(id);
+		if(wordIndex >= words.length) {
+			long[] newWords = new long[Math.max(2 * words.length, wordIndex + 1)];
+			System.arraycopy(words, 0, newWords, 0, words.length);
+			words = newWords;
+		}
+		long mask = 1L << id;
+		if((words[wordIndex] & mask) == 0) {
+			words[wordIndex] |= mask;
+			size++;
+		}
+	}
+
+	public boolean contains(int id) {
+		int wordIndex = wordIndex(id);
+		if(wordIndex >= words.length)
+			return false;
+		return (words[wordIndex] & (1L << id)) != 0;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public static int intersectionSize(InternedEntitySet set1, InternedEntitySet set2) {
+		long[] words1 = set1.words;
+		long[] words2 = set2.words;
+		int length = Math.min(words1.length, words2.length);
+		int count = 0;
+		for(int i=0; i<length; i++) {
+			count += Long.bitCount(words1[i] & words2[i]);
+		}
+		return count;
+	}
+}
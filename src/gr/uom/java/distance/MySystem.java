@@ -12,15 +12,97 @@ public class MySystem {
     private Map<String,MyClass> classMap;
     private AssociationDetection associationDetection;
     private SystemObject systemObject;
+    private boolean includeStaticMembers;
+    private int modificationCount;
+    //the methods of the previous system that are reused, keyed by the name of their class
+    private Map<String,List<MyMethod>> reusableMethodMap;
 
     public MySystem(SystemObject systemObject, boolean includeStaticMembers) {
+    	this(systemObject, includeStaticMembers, null);
+    }
+
+    /**
+     * Creates the system incrementally from the system created by a previous run on the same SystemObject.
+     * The methods of a class are reused if the class has not been added, replaced or removed since the previous system was created,
+     * and its methods do not depend on such a class through their method invocations, field instructions, accessors or delegations.
+     * The attributes and the associations are always detected again, because they are cheap to compute.
+     */
+    public MySystem(SystemObject systemObject, boolean includeStaticMembers, MySystem previousSystem) {
     	this.systemObject = systemObject;
+    	this.includeStaticMembers = includeStaticMembers;
+    	this.modificationCount = systemObject.getModificationCount();
         this.classMap = new HashMap<String,MyClass>();
+        this.reusableMethodMap = new HashMap<String,List<MyMethod>>();
+        if(previousSystem != null && previousSystem.systemObject == systemObject && previousSystem.includeStaticMembers == includeStaticMembers)
+        	findReusableMethods(previousSystem);
         this.associationDetection = new AssociationDetection(systemObject);
         if(includeStaticMembers)
         	generateSystemWithStaticMembers();
         else
         	generateSystem();
+        this.reusableMethodMap = null;
+    }
+
+    private void findReusableMethods(MySystem previousSystem) {
+    	Set<String> modifiedClasses = systemObject.getClassesModifiedAfter(previousSystem.modificationCount);
+    	for(MyClass previousClass : previousSystem.classMap.values()) {
+    		ClassObject co = previousClass.getClassObject();
+    		if(!modifiedClasses.contains(co.getName()) && systemObject.getClassObject(co.getName()) == co &&
+    				(modifiedClasses.isEmpty() || !dependsOnModifiedClasses(co, modifiedClasses))) {
+    			reusableMethodMap.put(co.getName(), new ArrayList<MyMethod>(previousClass.getMethodList()));
+    		}
+    	}
+    }
+
+    private boolean dependsOnModifiedClasses(ClassObject co, Set<String> modifiedClasses) {
+    	ListIterator<MethodObject> methodIt = co.getMethodIterator();
+    	while(methodIt.hasNext()) {
+    		MethodObject mo = methodIt.next();
+    		if(dependsOnModifiedClasses(mo.generateMethodInvocation(), modifiedClasses))
+    			return true;
+    		for(MethodInvocationObject mio : mo.getMethodInvocations()) {
+    			if(dependsOnModifiedClasses(mio, modifiedClasses))
+    				return true;
+    		}
+    		for(FieldInstructionObject fio : mo.getFieldInstructions()) {
+    			if(modifiedClasses.contains(fio.getOwnerClass()))
+    				return true;
+    		}
+    	}
+    	return false;
+    }
+
+    //follows the chain of delegations, as the construction of the method bodies does
+    private boolean dependsOnModifiedClasses(MethodInvocationObject methodInvocation, Set<String> modifiedClasses) {
+    	Set<MethodInvocationObject> visitedMethodInvocations = new HashSet<MethodInvocationObject>();
+    	while(methodInvocation != null && visitedMethodInvocations.add(methodInvocation)) {
+    		if(modifiedClasses.contains(methodInvocation.getOriginClassName()))
+    			return true;
+    		FieldInstructionObject fieldInstruction = systemObject.containsGetter(methodInvocation);
+    		if(fieldInstruction == null)
+    			fieldInstruction = systemObject.containsSetter(methodInvocation);
+    		if(fieldInstruction == null)
+    			fieldInstruction = systemObject.containsCollectionAdder(methodInvocation);
+    		if(fieldInstruction != null && modifiedClasses.contains(fieldInstruction.getOwnerClass()))
+    			return true;
+    		methodInvocation = systemObject.containsDelegate(methodInvocation);
+    	}
+    	return false;
+    }
+
+    private void linkAttributeInstructions(MyMethod myMethod, boolean reused) {
+    	ListIterator<MyAttributeInstruction> attributeInstructionIterator = myMethod.getAttributeInstructionIterator();
+    	while(attributeInstructionIterator.hasNext()) {
+    		MyAttributeInstruction myInstruction = attributeInstructionIterator.next();
+    		MyClass ownerClass = classMap.get(myInstruction.getClassOrigin());
+    		MyAttribute accessedAttribute = ownerClass.getAttribute(myInstruction);
+    		if(accessedAttribute != null) {
+    			//the reference flag of a reused method is reset, because the associations are detected again
+    			if(accessedAttribute.isReference() || reused)
+    				myMethod.setAttributeInstructionReference(myInstruction, accessedAttribute.isReference());
+    			accessedAttribute.addMethod(myMethod);
+    		}
+    	}
     }
 
     private void generateSystem() {
@@ -56,6 +138,14 @@ public class MySystem {
         while(classIterator2.hasNext()) {
             ClassObject co = classIterator2.next();
             MyClass myClass = classMap.get(co.getName());
+            List<MyMethod> reusableMethods = reusableMethodMap.get(co.getName());
+            if(reusableMethods != null) {
+            	for(MyMethod myMethod : reusableMethods) {
+            		myClass.addMethod(myMethod);
+            		linkAttributeInstructions(myMethod, true);
+            	}
+            	continue;
+            }
             ListIterator<MethodObject> methodIt = co.getMethodIterator();
             while(methodIt.hasNext()) {
             	MethodObject mo = methodIt.next();
@@ -75,17 +165,7 @@ public class MySystem {
             				myMethod.setMethodBody(myMethodBody);
             			}
             			myClass.addMethod(myMethod);
-            			ListIterator<MyAttributeInstruction> attributeInstructionIterator = myMethod.getAttributeInstructionIterator();
-            			while(attributeInstructionIterator.hasNext()) {
-            				MyAttributeInstruction myInstruction = attributeInstructionIterator.next();
-            				MyClass ownerClass = classMap.get(myInstruction.getClassOrigin());
-            				MyAttribute accessedAttribute = ownerClass.getAttribute(myInstruction);
-            				if(accessedAttribute != null) {
-            					if(accessedAttribute.isReference())
-            						myMethod.setAttributeInstructionReference(myInstruction, true);
-            					accessedAttribute.addMethod(myMethod);
-            				}
-            			}
+            			linkAttributeInstructions(myMethod, false);
             		}
             	}
             }
@@ -123,6 +203,14 @@ public class MySystem {
         while(classIterator2.hasNext()) {
             ClassObject co = classIterator2.next();
             MyClass myClass = classMap.get(co.getName());
+            List<MyMethod> reusableMethods = reusableMethodMap.get(co.getName());
+            if(reusableMethods != null) {
+            	for(MyMethod myMethod : reusableMethods) {
+            		myClass.addMethod(myMethod);
+            		linkAttributeInstructions(myMethod, true);
+            	}
+            	continue;
+            }
             ListIterator<MethodObject> methodIt = co.getMethodIterator();
             while(methodIt.hasNext()) {
             	MethodObject mo = methodIt.next();
@@ -142,17 +230,7 @@ public class MySystem {
             				myMethod.setMethodBody(myMethodBody);
             			}
             			myClass.addMethod(myMethod);
-            			ListIterator<MyAttributeInstruction> attributeInstructionIterator = myMethod.getAttributeInstructionIterator();
-            			while(attributeInstructionIterator.hasNext()) {
-            				MyAttributeInstruction myInstruction = attributeInstructionIterator.next();
-            				MyClass ownerClass = classMap.get(myInstruction.getClassOrigin());
-            				MyAttribute accessedAttribute = ownerClass.getAttribute(myInstruction);
-            				if(accessedAttribute != null) {
-            					if(accessedAttribute.isReference())
-            						myMethod.setAttributeInstructionReference(myInstruction, true);
-            					accessedAttribute.addMethod(myMethod);
-            				}
-            			}
+            			linkAttributeInstructions(myMethod, false);
             		}
             	}
             }
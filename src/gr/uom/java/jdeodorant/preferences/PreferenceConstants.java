@@ -19,10 +19,12 @@ public class PreferenceConstants {
 	
 	public static final String P_ENABLE_ALIAS_ANALYSIS = "enableAliasAnalysisPreference";
 	
-	public static final String P_PROJECT_COMPILATION_UNIT_CACHE_SIZE = "projectCompilationUnitCacheSize";
+	public static final String P_PROJECT_COMPILATION_UNIT_CACHE_MEMORY_SIZE = "projectCompilationUnitCacheMemorySize";
 	
 	public static final String P_LIBRARY_COMPILATION_UNIT_CACHE_SIZE = "libraryCompilationUnitCacheSize";
 	
+	public static final String P_PDG_CACHE_SIZE = "pdgCacheSize";
+	
 	public static final String P_ENABLE_USAGE_REPORTING = "enableUsageReporting";
 	
 	public static final String P_ENABLE_SOURCE_CODE_REPORTING = "enableSourceCodeReporting";
@@ -30,4 +32,10 @@ public class PreferenceConstants {
 	public static final String P_MAXIMUM_NUMBER_OF_SOURCE_CLASS_MEMBERS_ACCESSED_BY_MOVE_METHOD_CANDIDATE = "maximumNumberOfSourceClassMembersAccessedByMoveMethodCandidatePreference";
 	
 	public static final String P_MAXIMUM_NUMBER_OF_SOURCE_CLASS_MEMBERS_ACCESSED_BY_EXTRACT_CLASS_CANDIDATE = "maximumNumberOfSourceClassMembersAccessedByExtractClassCandidatePreference";
+	
+	public static final String P_NUMBER_OF_WORKER_THREADS = "numberOfWorkerThreadsPreference";
+	
+	public static final String P_MAXIMUM_NUMBER_OF_MAPPING_STATES = "maximumNumberOfMappingStatesPreference";
+	
+	public static final String P_MAXIMUM_MAPPING_TIME = "maximumMappingTimePreference";
 }
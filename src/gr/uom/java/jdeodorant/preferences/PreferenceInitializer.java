@@ -24,12 +24,16 @@ public class PreferenceInitializer extends AbstractPreferenceInitializer {
 		store.setDefault(PreferenceConstants.P_MINIMUM_METHOD_SIZE, 0);
 		store.setDefault(PreferenceConstants.P_MAXIMUM_CALL_GRAPH_ANALYSIS_DEPTH, 3);
 		store.setDefault(PreferenceConstants.P_ENABLE_ALIAS_ANALYSIS, true);
-		store.setDefault(PreferenceConstants.P_PROJECT_COMPILATION_UNIT_CACHE_SIZE, 20);
+		store.setDefault(PreferenceConstants.P_PROJECT_COMPILATION_UNIT_CACHE_MEMORY_SIZE, 64);
 		store.setDefault(PreferenceConstants.P_LIBRARY_COMPILATION_UNIT_CACHE_SIZE, 50);
+		store.setDefault(PreferenceConstants.P_PDG_CACHE_SIZE, 50000);
 		store.setDefault(PreferenceConstants.P_ENABLE_USAGE_REPORTING, true);
 		store.setDefault(PreferenceConstants.P_ENABLE_SOURCE_CODE_REPORTING, false);
 		store.setDefault(PreferenceConstants.P_MAXIMUM_NUMBER_OF_SOURCE_CLASS_MEMBERS_ACCESSED_BY_MOVE_METHOD_CANDIDATE, 2);
 		store.setDefault(PreferenceConstants.P_MAXIMUM_NUMBER_OF_SOURCE_CLASS_MEMBERS_ACCESSED_BY_EXTRACT_CLASS_CANDIDATE, 2);
+		store.setDefault(PreferenceConstants.P_NUMBER_OF_WORKER_THREADS, 1);
+		store.setDefault(PreferenceConstants.P_MAXIMUM_NUMBER_OF_MAPPING_STATES, 0);
+		store.setDefault(PreferenceConstants.P_MAXIMUM_MAPPING_TIME, 0);
 	}
 
 }
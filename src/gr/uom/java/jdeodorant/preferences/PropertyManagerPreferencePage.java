@@ -35,12 +35,16 @@ public class PropertyManagerPreferencePage
 	private IntegerFieldEditor minimumMethodSizeFieldEditor;
 	private IntegerFieldEditor maximumCallGraphAnalysisDepthFieldEditor;
 	private BooleanFieldEditor enableAliasAnalysisFieldEditor;
-	private IntegerFieldEditor projectCompilationUnitCacheSizeFieldEditor;
+	private IntegerFieldEditor projectCompilationUnitCacheMemorySizeFieldEditor;
 	private IntegerFieldEditor libraryCompilationUnitCacheSizeFieldEditor;
+	private IntegerFieldEditor pdgCacheSizeFieldEditor;
 	private BooleanFieldEditor enableUsageReportingFieldEditor;
 	private BooleanFieldEditor enableSourceCodeReportingFieldEditor;
 	private IntegerFieldEditor maximumSourceClassAccessedMembersByMoveMethodCandidate;
 	private IntegerFieldEditor maximumSourceClassAccessedMembersByExtractClassCandidate;
+	private IntegerFieldEditor numberOfWorkerThreadsFieldEditor;
+	private IntegerFieldEditor maximumNumberOfMappingStatesFieldEditor;
+	private IntegerFieldEditor maximumMappingTimeFieldEditor;
 	
 	public PropertyManagerPreferencePage() {
 		super(GRID);
@@ -130,17 +134,49 @@ public class PropertyManagerPreferencePage
 		compilationUnitCachePreferenceGroup.setLayout(new GridLayout(1, false));
 		compilationUnitCachePreferenceGroup.setText("CompilationUnit Cache Preferences");
 		
-		projectCompilationUnitCacheSizeFieldEditor = new IntegerFieldEditor(
-				PreferenceConstants.P_PROJECT_COMPILATION_UNIT_CACHE_SIZE,
-				"&Project CompilationUnit cache size:", compilationUnitCachePreferenceGroup);
-		projectCompilationUnitCacheSizeFieldEditor.setEmptyStringAllowed(false);
-		addField(projectCompilationUnitCacheSizeFieldEditor);
+		projectCompilationUnitCacheMemorySizeFieldEditor = new IntegerFieldEditor(
+				PreferenceConstants.P_PROJECT_COMPILATION_UNIT_CACHE_MEMORY_SIZE,
+				"&Project CompilationUnit cache size (MB):", compilationUnitCachePreferenceGroup);
+		projectCompilationUnitCacheMemorySizeFieldEditor.setEmptyStringAllowed(false);
+		addField(projectCompilationUnitCacheMemorySizeFieldEditor);
 
 		libraryCompilationUnitCacheSizeFieldEditor = new IntegerFieldEditor(
 				PreferenceConstants.P_LIBRARY_COMPILATION_UNIT_CACHE_SIZE,
 				"&Library CompilationUnit cache size:", compilationUnitCachePreferenceGroup);
 		libraryCompilationUnitCacheSizeFieldEditor.setEmptyStringAllowed(false);
 		addField(libraryCompilationUnitCacheSizeFieldEditor);
+
+		pdgCacheSizeFieldEditor = new IntegerFieldEditor(
+				PreferenceConstants.P_PDG_CACHE_SIZE,
+				"&PDG cache size (PDG nodes, 0 to disable):", compilationUnitCachePreferenceGroup);
+		pdgCacheSizeFieldEditor.setEmptyStringAllowed(false);
+		addField(pdgCacheSizeFieldEditor);
+		
+		Group parallelAnalysisPreferenceGroup = new Group(composite, SWT.SHADOW_ETCHED_IN);
+		parallelAnalysisPreferenceGroup.setLayout(new GridLayout(1, false));
+		parallelAnalysisPreferenceGroup.setText("Parallel Analysis Preferences");
+		
+		numberOfWorkerThreadsFieldEditor = new IntegerFieldEditor(
+				PreferenceConstants.P_NUMBER_OF_WORKER_THREADS,
+				"&Number of worker threads (1 for sequential analysis):", parallelAnalysisPreferenceGroup);
+		numberOfWorkerThreadsFieldEditor.setEmptyStringAllowed(false);
+		addField(numberOfWorkerThreadsFieldEditor);
+		
+		Group duplicatedCodePreferenceGroup = new Group(composite, SWT.SHADOW_ETCHED_IN);
+		duplicatedCodePreferenceGroup.setLayout(new GridLayout(1, false));
+		duplicatedCodePreferenceGroup.setText("Duplicated Code Preferences");
+		
+		maximumNumberOfMappingStatesFieldEditor = new IntegerFieldEditor(
+				PreferenceConstants.P_MAXIMUM_NUMBER_OF_MAPPING_STATES,
+				"&Maximum number of explored mapping states (0 for exhaustive search):", duplicatedCodePreferenceGroup);
+		maximumNumberOfMappingStatesFieldEditor.setEmptyStringAllowed(false);
+		addField(maximumNumberOfMappingStatesFieldEditor);
+		
+		maximumMappingTimeFieldEditor = new IntegerFieldEditor(
+				PreferenceConstants.P_MAXIMUM_MAPPING_TIME,
+				"&Maximum mapping time per clone pair (sec, 0 for no limit):", duplicatedCodePreferenceGroup);
+		maximumMappingTimeFieldEditor.setEmptyStringAllowed(false);
+		addField(maximumMappingTimeFieldEditor);
 		
 		Group usageReportingGroup = new Group(composite, SWT.SHADOW_ETCHED_IN);
 		usageReportingGroup.setLayout(new GridLayout(1, false));
@@ -263,13 +299,13 @@ public class PropertyManagerPreferencePage
 			return;
 		}
 		try {
-			int projectCompilationUnitCacheSize = projectCompilationUnitCacheSizeFieldEditor.getIntValue();
-			if(projectCompilationUnitCacheSize >= 10) {
+			int projectCompilationUnitCacheMemorySize = projectCompilationUnitCacheMemorySizeFieldEditor.getIntValue();
+			if(projectCompilationUnitCacheMemorySize >= 16) {
 				setErrorMessage(null);
 				setValid(true);
 			}
 			else {
-				setErrorMessage("Cache size is recommended to be >= 10");
+				setErrorMessage("Cache size is recommended to be >= 16 MB");
 				setValid(false);
 				return;
 			}
@@ -296,6 +332,23 @@ public class PropertyManagerPreferencePage
 			setValid(false);
 			return;
 		}
+		try {
+			int pdgCacheSize = pdgCacheSizeFieldEditor.getIntValue();
+			if(pdgCacheSize >= 0) {
+				setErrorMessage(null);
+				setValid(true);
+			}
+			else {
+				setErrorMessage("PDG cache size must be >= 0");
+				setValid(false);
+				return;
+			}
+		}
+		catch(NumberFormatException e) {
+			setErrorMessage("PDG cache size must be an Integer");
+			setValid(false);
+			return;
+		}
 		try {
 			int sourceClassAccessedMembers = maximumSourceClassAccessedMembersByMoveMethodCandidate.getIntValue();
 			if(sourceClassAccessedMembers >= 0) {
@@ -330,6 +383,57 @@ public class PropertyManagerPreferencePage
 			setValid(false);
 			return;
 		}
+		try {
+			int numberOfWorkerThreads = numberOfWorkerThreadsFieldEditor.getIntValue();
+			if(numberOfWorkerThreads >= 1) {
+				setErrorMessage(null);
+				setValid(true);
+			}
+			else {
+				setErrorMessage("Number of worker threads must be >= 1");
+				setValid(false);
+				return;
+			}
+		}
+		catch(NumberFormatException e) {
+			setErrorMessage("Number of worker threads must be an Integer");
+			setValid(false);
+			return;
+		}
+		try {
+			int maximumNumberOfMappingStates = maximumNumberOfMappingStatesFieldEditor.getIntValue();
+			if(maximumNumberOfMappingStates >= 0) {
+				setErrorMessage(null);
+				setValid(true);
+			}
+			else {
+				setErrorMessage("Maximum number of explored mapping states must be >= 0");
+				setValid(false);
+				return;
+			}
+		}
+		catch(NumberFormatException e) {
+			setErrorMessage("Maximum number of explored mapping states must be an Integer");
+			setValid(false);
+			return;
+		}
+		try {
+			int maximumMappingTime = maximumMappingTimeFieldEditor.getIntValue();
+			if(maximumMappingTime >= 0) {
+				setErrorMessage(null);
+				setValid(true);
+			}
+			else {
+				setErrorMessage("Maximum mapping time must be >= 0");
+				setValid(false);
+				return;
+			}
+		}
+		catch(NumberFormatException e) {
+			setErrorMessage("Maximum mapping time must be an Integer");
+			setValid(false);
+			return;
+		}
 	}
 
 	public void propertyChange(PropertyChangeEvent event) {
@@ -1,5 +1,8 @@
 package gr.uom.java.jdeodorant.refactoring;
 
+import gr.uom.java.ast.CompilationUnitCache;
+import gr.uom.java.ast.LibraryClassStorage;
+
 import org.eclipse.jface.resource.ImageDescriptor;
 import org.eclipse.ui.plugin.AbstractUIPlugin;
 import org.osgi.framework.BundleContext;
@@ -37,6 +40,8 @@ public class Activator extends AbstractUIPlugin {
 	 * @see org.eclipse.ui.plugin.AbstractUIPlugin#stop(org.osgi.framework.BundleContext)
 	 */
 	public void stop(BundleContext context) throws Exception {
+		CompilationUnitCache.getInstance().saveProjectSnapshot();
+		LibraryClassStorage.getInstance().saveLibrarySummaries();
 		plugin = null;
 		super.stop(context);
 	}
@@ -0,0 +1,282 @@
+package gr.uom.java.jdeodorant.refactoring.manipulators;
+
+import gr.uom.java.ast.AbstractMethodDeclaration;
+import gr.uom.java.ast.ClassObject;
+import gr.uom.java.ast.CompilationUnitCache;
+import gr.uom.java.ast.decomposition.cfg.PDG;
+import gr.uom.java.ast.decomposition.cfg.PDGCache;
+import gr.uom.java.ast.decomposition.cfg.PDGObjectSliceUnion;
+import gr.uom.java.ast.decomposition.cfg.PDGObjectSliceUnionCollection;
+import gr.uom.java.ast.decomposition.cfg.PDGSliceUnion;
+import gr.uom.java.ast.decomposition.cfg.PDGSliceUnionCollection;
+import gr.uom.java.ast.decomposition.cfg.PlainVariable;
+import gr.uom.java.ast.util.CandidateListener;
+import gr.uom.java.ast.util.StatementExtractor;
+import gr.uom.java.jdeodorant.preferences.PreferenceConstants;
+import gr.uom.java.jdeodorant.refactoring.Activator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.jdt.core.ITypeRoot;
+import org.eclipse.jdt.core.dom.VariableDeclaration;
+import org.eclipse.jface.preference.IPreferenceStore;
+
+/**
+ * Identification of Extract Method refactoring opportunities (slice groups) for a list of methods.
+ * When more than one worker thread is configured, the methods of different compilation units are analyzed in parallel,
+ * and the slice groups are added to the result collection in the order of the methods, as soon as all previous methods are completed.
+ */
+public class ASTSliceGroupIdentification {
+	private List<ClassObject> classObjects;
+	private List<AbstractMethodDeclaration> methodObjects;
+	private CandidateListener<ASTSliceGroup> candidateListener;
+
+	public ASTSliceGroupIdentification() {
+		this.classObjects = new ArrayList<ClassObject>();
+		this.methodObjects = new ArrayList<AbstractMethodDeclaration>();
+	}
+
+	public void addMethod(ClassObject classObject, AbstractMethodDeclaration methodObject) {
+		classObjects.add(classObject);
+		methodObjects.add(methodObject);
+	}
+
+	public int getNumberOfMethods() {
+		return methodObjects.size();
+	}
+
+	/**
+	 * The listener is notified with the slice groups of every method as soon as the method is analyzed,
+	 * before the slice groups of the previous methods are completed in parallel mode.
+	 */
+	public void setCandidateListener(CandidateListener<ASTSliceGroup> candidateListener) {
+		this.candidateListener = candidateListener;
+	}
+
+	private void notifyCandidateListener(List<ASTSliceGroup> sliceGroups) {
+		if(candidateListener != null && !sliceGroups.isEmpty())
+			candidateListener.candidatesIdentified(sliceGroups);
+	}
+
+	/**
+	 * Adds the slice groups of all methods to extractedSliceGroups. In parallel mode the collection is modified by the worker threads
+	 * while holding its monitor. The progress monitor is advanced by one unit per method.
+	 */
+	public void identifySliceGroups(Collection<ASTSliceGroup> extractedSliceGroups, IProgressMonitor monitor) {
+		IPreferenceStore store = Activator.getDefault().getPreferenceStore();
+		int numberOfThreads = store.getInt(PreferenceConstants.P_NUMBER_OF_WORKER_THREADS);
+		if(numberOfThreads > 1 && methodObjects.size() > 1) {
+			identifySliceGroupsInParallel(extractedSliceGroups, numberOfThreads, monitor);
+		}
+		else {
+			for(int i=0; i<methodObjects.size(); i++) {
+				if(monitor != null && monitor.isCanceled())
+					throw new OperationCanceledException();
+				List<ASTSliceGroup> sliceGroups = getSliceGroups(classObjects.get(i), methodObjects.get(i));
+				extractedSliceGroups.addAll(sliceGroups);
+				notifyCandidateListener(sliceGroups);
+				if(monitor != null)
+					monitor.worked(1);
+			}
+		}
+	}
+
+	private void identifySliceGroupsInParallel(final Collection<ASTSliceGroup> extractedSliceGroups, int numberOfThreads, IProgressMonitor monitor) {
+		//the methods of the same compilation unit are analyzed by the same task, so that its AST is never accessed concurrently
+		Map<ITypeRoot, List<Integer>> methodIndexMap = new LinkedHashMap<ITypeRoot, List<Integer>>();
+		for(int i=0; i<methodObjects.size(); i++) {
+			ITypeRoot typeRoot = classObjects.get(i).getITypeRoot();
+			List<Integer> methodIndices = methodIndexMap.get(typeRoot);
+			if(methodIndices == null) {
+				methodIndices = new ArrayList<Integer>();
+				methodIndexMap.put(typeRoot, methodIndices);
+			}
+			methodIndices.add(i);
+		}
+		final OrderedSliceGroupCollector collector = new OrderedSliceGroupCollector(extractedSliceGroups, methodObjects.size());
+		ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+		try {
+			List<Future<?>> futures = new ArrayList<Future<?>>();
+			for(final List<Integer> methodIndices : methodIndexMap.values()) {
+				futures.add(executor.submit(new Runnable() {
+					public void run() {
+						for(int methodIndex : methodIndices) {
+							if(Thread.currentThread().isInterrupted())
+								return;
+							List<ASTSliceGroup> sliceGroups = getSliceGroups(classObjects.get(methodIndex), methodObjects.get(methodIndex));
+							collector.methodCompleted(methodIndex, sliceGroups);
+							notifyCandidateListener(sliceGroups);
+						}
+					}
+				}));
+			}
+			int reportedMethods = 0;
+			for(int i=0; i<futures.size(); i++) {
+				Future<?> future = futures.get(i);
+				boolean done = false;
+				while(!done) {
+					if(monitor != null && monitor.isCanceled())
+						throw new OperationCanceledException();
+					try {
+						future.get(100, TimeUnit.MILLISECONDS);
+						done = true;
+					} catch (TimeoutException e) {
+						//poll again for cancellation
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						throw new OperationCanceledException();
+					} catch (ExecutionException e) {
+						//a failed method is thrown as the sequential identification would throw it, instead of reporting an incomplete result
+						Throwable cause = e.getCause();
+						if(cause instanceof RuntimeException)
+							throw (RuntimeException)cause;
+						if(cause instanceof Error)
+							throw (Error)cause;
+						throw new IllegalStateException(cause);
+					}
+					//the progress monitor is only accessed by the calling thread
+					int completedMethods = collector.getNumberOfCompletedMethods();
+					if(monitor != null && completedMethods > reportedMethods)
+						monitor.worked(completedMethods - reportedMethods);
+					reportedMethods = completedMethods;
+				}
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	public static List<ASTSliceGroup> getSliceGroups(ClassObject classObject, AbstractMethodDeclaration methodObject) {
+		List<ASTSliceGroup> extractedSliceGroups = new ArrayList<ASTSliceGroup>();
+		if(methodObject.getMethodBody() != null) {
+			IPreferenceStore store = Activator.getDefault().getPreferenceStore();
+			int minimumMethodSize = store.getInt(PreferenceConstants.P_MINIMUM_METHOD_SIZE);
+			StatementExtractor statementExtractor = new StatementExtractor();
+			int numberOfStatements = statementExtractor.getTotalNumberOfStatements(methodObject.getMethodBody().getCompositeStatement().getStatement());
+			if(numberOfStatements >= minimumMethodSize) {
+				ITypeRoot typeRoot = classObject.getITypeRoot();
+				CompilationUnitCache.getInstance().lock(typeRoot);
+				try {
+					PDG pdg = PDGCache.getInstance().getPDG(classObject, methodObject, null);
+					for(VariableDeclaration declaration : pdg.getVariableDeclarationsInMethod()) {
+						PlainVariable variable = new PlainVariable(declaration);
+						PDGSliceUnionCollection sliceUnionCollection = new PDGSliceUnionCollection(pdg, variable);
+						double sumOfExtractedStatementsInGroup = 0.0;
+						double sumOfDuplicatedStatementsInGroup = 0.0;
+						double sumOfDuplicationRatioInGroup = 0.0;
+						int maximumNumberOfExtractedStatementsInGroup = 0;
+						int groupSize = sliceUnionCollection.getSliceUnions().size();
+						ASTSliceGroup sliceGroup = new ASTSliceGroup();
+						for(PDGSliceUnion sliceUnion : sliceUnionCollection.getSliceUnions()) {
+							ASTSlice slice = new ASTSlice(sliceUnion);
+							if(!slice.isVariableCriterionDeclarationStatementIsDeeperNestedThanExtractedMethodInvocationInsertionStatement()) {
+								int numberOfExtractedStatements = slice.getNumberOfSliceStatements();
+								int numberOfDuplicatedStatements = slice.getNumberOfDuplicatedStatements();
+								double duplicationRatio = (double)numberOfDuplicatedStatements/(double)numberOfExtractedStatements;
+								sumOfExtractedStatementsInGroup += numberOfExtractedStatements;
+								sumOfDuplicatedStatementsInGroup += numberOfDuplicatedStatements;
+								sumOfDuplicationRatioInGroup += duplicationRatio;
+								if(numberOfExtractedStatements > maximumNumberOfExtractedStatementsInGroup)
+									maximumNumberOfExtractedStatementsInGroup = numberOfExtractedStatements;
+								sliceGroup.addCandidate(slice);
+							}
+						}
+						if(!sliceGroup.getCandidates().isEmpty()) {
+							sliceGroup.setAverageNumberOfExtractedStatementsInGroup(sumOfExtractedStatementsInGroup/(double)groupSize);
+							sliceGroup.setAverageNumberOfDuplicatedStatementsInGroup(sumOfDuplicatedStatementsInGroup/(double)groupSize);
+							sliceGroup.setAverageDuplicationRatioInGroup(sumOfDuplicationRatioInGroup/(double)groupSize);
+							sliceGroup.setMaximumNumberOfExtractedStatementsInGroup(maximumNumberOfExtractedStatementsInGroup);
+							extractedSliceGroups.add(sliceGroup);
+						}
+					}
+					for(VariableDeclaration declaration : pdg.getVariableDeclarationsAndAccessedFieldsInMethod()) {
+						PlainVariable variable = new PlainVariable(declaration);
+						PDGObjectSliceUnionCollection objectSliceUnionCollection = new PDGObjectSliceUnionCollection(pdg, variable);
+						double sumOfExtractedStatementsInGroup = 0.0;
+						double sumOfDuplicatedStatementsInGroup = 0.0;
+						double sumOfDuplicationRatioInGroup = 0.0;
+						int maximumNumberOfExtractedStatementsInGroup = 0;
+						int groupSize = objectSliceUnionCollection.getSliceUnions().size();
+						ASTSliceGroup sliceGroup = new ASTSliceGroup();
+						for(PDGObjectSliceUnion objectSliceUnion : objectSliceUnionCollection.getSliceUnions()) {
+							ASTSlice slice = new ASTSlice(objectSliceUnion);
+							if(!slice.isVariableCriterionDeclarationStatementIsDeeperNestedThanExtractedMethodInvocationInsertionStatement()) {
+								int numberOfExtractedStatements = slice.getNumberOfSliceStatements();
+								int numberOfDuplicatedStatements = slice.getNumberOfDuplicatedStatements();
+								double duplicationRatio = (double)numberOfDuplicatedStatements/(double)numberOfExtractedStatements;
+								sumOfExtractedStatementsInGroup += numberOfExtractedStatements;
+								sumOfDuplicatedStatementsInGroup += numberOfDuplicatedStatements;
+								sumOfDuplicationRatioInGroup += duplicationRatio;
+								if(numberOfExtractedStatements > maximumNumberOfExtractedStatementsInGroup)
+									maximumNumberOfExtractedStatementsInGroup = numberOfExtractedStatements;
+								sliceGroup.addCandidate(slice);
+							}
+						}
+						if(!sliceGroup.getCandidates().isEmpty()) {
+							sliceGroup.setAverageNumberOfExtractedStatementsInGroup(sumOfExtractedStatementsInGroup/(double)groupSize);
+							sliceGroup.setAverageNumberOfDuplicatedStatementsInGroup(sumOfDuplicatedStatementsInGroup/(double)groupSize);
+							sliceGroup.setAverageDuplicationRatioInGroup(sumOfDuplicationRatioInGroup/(double)groupSize);
+							sliceGroup.setMaximumNumberOfExtractedStatementsInGroup(maximumNumberOfExtractedStatementsInGroup);
+							extractedSliceGroups.add(sliceGroup);
+						}
+					}
+				}
+				finally {
+					CompilationUnitCache.getInstance().releaseLock(typeRoot);
+				}
+			}
+		}
+		return extractedSliceGroups;
+	}
+
+	/**
+	 * Collects the slice groups of the methods completed by the worker threads and adds them to the result collection
+	 * in the order of the methods, so that the result is identical to the one of the sequential identification.
+	 */
+	private static class OrderedSliceGroupCollector {
+		private Collection<ASTSliceGroup> extractedSliceGroups;
+		private List<List<ASTSliceGroup>> completedSliceGroups;
+		private boolean[] completed;
+		private int nextMethodIndex;
+		private int numberOfCompletedMethods;
+
+		private OrderedSliceGroupCollector(Collection<ASTSliceGroup> extractedSliceGroups, int numberOfMethods) {
+			this.extractedSliceGroups = extractedSliceGroups;
+			this.completedSliceGroups = new ArrayList<List<ASTSliceGroup>>(numberOfMethods);
+			for(int i=0; i<numberOfMethods; i++) {
+				completedSliceGroups.add(null);
+			}
+			this.completed = new boolean[numberOfMethods];
+		}
+
+		private synchronized void methodCompleted(int methodIndex, List<ASTSliceGroup> sliceGroups) {
+			completedSliceGroups.set(methodIndex, sliceGroups);
+			completed[methodIndex] = true;
+			numberOfCompletedMethods++;
+			synchronized(extractedSliceGroups) {
+				while(nextMethodIndex < completed.length && completed[nextMethodIndex]) {
+					extractedSliceGroups.addAll(completedSliceGroups.get(nextMethodIndex));
+					completedSliceGroups.set(nextMethodIndex, null);
+					nextMethodIndex++;
+				}
+			}
+		}
+
+		private synchronized int getNumberOfCompletedMethods() {
+			return numberOfCompletedMethods;
+		}
+	}
+}
@@ -812,6 +812,10 @@ public class DuplicatedCode extends ViewPart {
 								ioe.printStackTrace();
 							}
 						}
+						if(mapper.isApproximate()) {
+							MessageDialog.openInformation(PlatformUI.getWorkbench().getActiveWorkbenchWindow().getShell(), MESSAGE_DIALOG_TITLE,
+									"The mapping of the clones was stopped by the maximum number of mapping states or the maximum mapping time, so it may not be the largest possible mapping.");
+						}
 						Refactoring refactoring = new ExtractCloneRefactoring(mapper.getSubTreeMappers());
 						MyRefactoringWizard wizard = new MyRefactoringWizard(refactoring, null);
 						RefactoringWizardOpenOperation op = new RefactoringWizardOpenOperation(wizard);
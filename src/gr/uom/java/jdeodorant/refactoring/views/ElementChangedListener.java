@@ -1,6 +1,7 @@
 package gr.uom.java.jdeodorant.refactoring.views;
 
 import gr.uom.java.ast.CompilationUnitCache;
+import gr.uom.java.ast.decomposition.cfg.PDGCache;
 
 import org.eclipse.jdt.core.ElementChangedEvent;
 import org.eclipse.jdt.core.ICompilationUnit;
@@ -39,13 +40,16 @@ public class ElementChangedListener implements IElementChangedListener {
 			ICompilationUnit compilationUnit = (ICompilationUnit)javaElement;
 			if(delta.getKind() == IJavaElementDelta.ADDED) {
 				CompilationUnitCache.getInstance().compilationUnitAdded(compilationUnit);
+				PDGCache.getInstance().clearCache();
 			}
 			else if(delta.getKind() == IJavaElementDelta.REMOVED) {
 				CompilationUnitCache.getInstance().compilationUnitRemoved(compilationUnit);
+				PDGCache.getInstance().clearCache();
 			}
 			else if(delta.getKind() == IJavaElementDelta.CHANGED) {
 				if((delta.getFlags() & IJavaElementDelta.F_FINE_GRAINED) != 0) {
 					CompilationUnitCache.getInstance().compilationUnitChanged(compilationUnit);
+					PDGCache.getInstance().clearCache();
 				}
 			}
 		}
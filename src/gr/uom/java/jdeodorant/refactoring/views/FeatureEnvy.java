@@ -116,6 +116,8 @@ public class FeatureEnvy extends ViewPart {
 	private ICompilationUnit selectedCompilationUnit;
 	private IType selectedType;
 	private CandidateRefactoring[] candidateRefactoringTable;
+	//the system of the last identification, the next identification reuses its unaffected methods
+	private MySystem lastSystem;
 	//private FeatureEnvyEvolution featureEnvyEvolution;
 
 	/*
@@ -711,6 +713,12 @@ public class FeatureEnvy extends ViewPart {
 
 	private CandidateRefactoring[] getTable() {
 		CandidateRefactoring[] table = null;
+		final IncrementalCandidatePublisher<MoveMethodCandidateRefactoring> publisher = new IncrementalCandidatePublisher<MoveMethodCandidateRefactoring>(Display.getDefault()) {
+			protected void publish(List<MoveMethodCandidateRefactoring> candidates) {
+				candidateRefactoringTable = candidates.toArray(new CandidateRefactoring[candidates.size()]);
+				tableViewer.refresh();
+			}
+		};
 		try {
 			IWorkbench wb = PlatformUI.getWorkbench();
 			IProgressService ps = wb.getProgressService();
@@ -757,13 +765,14 @@ public class FeatureEnvy extends ViewPart {
 					if(!classObject.isEnum() && !classObject.isInterface() && !classObject.isGeneratedByParserGenenator())
 						classNamesToBeExamined.add(classObject.getName());
 				}
-				MySystem system = new MySystem(systemObject, false);
+				MySystem system = new MySystem(systemObject, false, lastSystem);
+				lastSystem = system;
 				final DistanceMatrix distanceMatrix = new DistanceMatrix(system);
 				final List<MoveMethodCandidateRefactoring> moveMethodCandidateList = new ArrayList<MoveMethodCandidateRefactoring>();
 
 				ps.busyCursorWhile(new IRunnableWithProgress() {
 					public void run(IProgressMonitor monitor) throws InvocationTargetException, InterruptedException {
-						moveMethodCandidateList.addAll(distanceMatrix.getMoveMethodCandidateRefactoringsByAccess(classNamesToBeExamined, monitor));
+						moveMethodCandidateList.addAll(distanceMatrix.getMoveMethodCandidateRefactoringsByAccess(classNamesToBeExamined, publisher, monitor));
 					}
 				});
 
@@ -777,11 +786,17 @@ public class FeatureEnvy extends ViewPart {
 		} catch (InvocationTargetException e) {
 			e.printStackTrace();
 		} catch (InterruptedException e) {
-			e.printStackTrace();
+			//the identification was cancelled, the candidates identified so far are kept
+			List<MoveMethodCandidateRefactoring> candidates = publisher.getCandidates();
+			if(!candidates.isEmpty())
+				table = candidates.toArray(new CandidateRefactoring[candidates.size()]);
 		} catch (CompilationErrorDetectedException e) {
 			MessageDialog.openInformation(PlatformUI.getWorkbench().getActiveWorkbenchWindow().getShell(), MESSAGE_DIALOG_TITLE,
 					"Compilation errors were detected in the project. Fix the errors before using JDeodorant.");
 		}
+		finally {
+			publisher.close();
+		}
 
 		return table;	
 
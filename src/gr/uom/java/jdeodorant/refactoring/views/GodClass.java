@@ -11,6 +11,7 @@ import java.net.URL;
 import java.net.URLConnection;
 import java.net.URLEncoder;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -24,6 +25,7 @@ import gr.uom.java.ast.ClassObject;
 import gr.uom.java.ast.CompilationErrorDetectedException;
 import gr.uom.java.ast.CompilationUnitCache;
 import gr.uom.java.ast.SystemObject;
+import gr.uom.java.ast.util.CandidateListener;
 import gr.uom.java.distance.CandidateRefactoring;
 import gr.uom.java.distance.DistanceMatrix;
 import gr.uom.java.distance.Entity;
@@ -114,6 +116,8 @@ public class GodClass extends ViewPart {
 	private IPackageFragment selectedPackageFragment;
 	private ICompilationUnit selectedCompilationUnit;
 	private IType selectedType;
+	//the system of the last identification, the next identification reuses its unaffected methods
+	private MySystem lastSystem;
 
 	class ViewContentProvider implements ITreeContentProvider {
 		public void inputChanged(Viewer v, Object oldInput, Object newInput) {
@@ -723,6 +727,12 @@ public class GodClass extends ViewPart {
 
 	private ExtractClassCandidateGroup[] getTable() {
 		ExtractClassCandidateGroup[] table = null;
+		final IncrementalCandidatePublisher<ExtractClassCandidateGroup> publisher = new IncrementalCandidatePublisher<ExtractClassCandidateGroup>(Display.getDefault()) {
+			protected void publish(List<ExtractClassCandidateGroup> candidates) {
+				candidateRefactoringTable = candidates.toArray(new ExtractClassCandidateGroup[candidates.size()]);
+				treeViewer.refresh();
+			}
+		};
 		try {
 			IWorkbench wb = PlatformUI.getWorkbench();
 			IProgressService ps = wb.getProgressService();
@@ -768,13 +778,25 @@ public class GodClass extends ViewPart {
 					if(!classObject.isEnum() && !classObject.isInterface() && !classObject.isGeneratedByParserGenenator())
 						classNamesToBeExamined.add(classObject.getName());
 				}
-				MySystem system = new MySystem(systemObject, true);
+				MySystem system = new MySystem(systemObject, true, lastSystem);
+				lastSystem = system;
 				final DistanceMatrix distanceMatrix = new DistanceMatrix(system);
 				final List<ExtractClassCandidateRefactoring> extractClassCandidateList = new ArrayList<ExtractClassCandidateRefactoring>();
+				//the candidates of a source class are identified together, so every notification forms a complete group
+				final CandidateListener<ExtractClassCandidateRefactoring> groupingListener = new CandidateListener<ExtractClassCandidateRefactoring>() {
+					public void candidatesIdentified(List<ExtractClassCandidateRefactoring> candidates) {
+						ExtractClassCandidateGroup group = new ExtractClassCandidateGroup(candidates.get(0).getSourceEntity());
+						for(ExtractClassCandidateRefactoring candidate : candidates) {
+							group.addCandidate(candidate);
+						}
+						group.groupConcepts();
+						publisher.candidatesIdentified(Collections.singletonList(group));
+					}
+				};
 
 				ps.busyCursorWhile(new IRunnableWithProgress() {
 					public void run(IProgressMonitor monitor) throws InvocationTargetException, InterruptedException {
-						extractClassCandidateList.addAll(distanceMatrix.getExtractClassCandidateRefactorings(classNamesToBeExamined, monitor));
+						extractClassCandidateList.addAll(distanceMatrix.getExtractClassCandidateRefactorings(classNamesToBeExamined, groupingListener, monitor));
 					}
 				});
 				HashMap<String, ExtractClassCandidateGroup> groupedBySourceClassMap = new HashMap<String, ExtractClassCandidateGroup>();
@@ -802,11 +824,17 @@ public class GodClass extends ViewPart {
 		} catch (InvocationTargetException e) {
 			e.printStackTrace();
 		} catch (InterruptedException e) {
-			e.printStackTrace();
+			//the identification was cancelled, the candidates identified so far are kept
+			List<ExtractClassCandidateGroup> candidates = publisher.getCandidates();
+			if(!candidates.isEmpty())
+				table = candidates.toArray(new ExtractClassCandidateGroup[candidates.size()]);
 		} catch (CompilationErrorDetectedException e) {
 			MessageDialog.openInformation(PlatformUI.getWorkbench().getActiveWorkbenchWindow().getShell(), MESSAGE_DIALOG_TITLE,
 					"Compilation errors were detected in the project. Fix the errors before using JDeodorant.");
 		}
+		finally {
+			publisher.close();
+		}
 		return table;		
 	}
 
@@ -0,0 +1,65 @@
+package gr.uom.java.jdeodorant.refactoring.views;
+
+import gr.uom.java.ast.util.CandidateListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * Collects the refactoring candidates while the identification is running and publishes them to a view in the UI thread,
+ * at most once every PUBLISH_INTERVAL milliseconds, so that the first candidates are presented without waiting for the whole project.
+ * The candidates collected so far remain available if the identification is cancelled.
+ */
+public abstract class IncrementalCandidatePublisher<T> implements CandidateListener<T> {
+	private static final long PUBLISH_INTERVAL = 500;
+	private List<T> candidates;
+	private Display display;
+	private long lastPublishTime;
+	private boolean publishScheduled;
+	private boolean closed;
+
+	public IncrementalCandidatePublisher(Display display) {
+		this.candidates = new ArrayList<T>();
+		this.display = display;
+	}
+
+	public void candidatesIdentified(List<T> newCandidates) {
+		synchronized(this) {
+			candidates.addAll(newCandidates);
+			if(closed || publishScheduled || System.currentTimeMillis() - lastPublishTime < PUBLISH_INTERVAL)
+				return;
+			publishScheduled = true;
+		}
+		display.asyncExec(new Runnable() {
+			public void run() {
+				List<T> snapshot = null;
+				synchronized(IncrementalCandidatePublisher.this) {
+					publishScheduled = false;
+					lastPublishTime = System.currentTimeMillis();
+					if(!closed)
+						snapshot = new ArrayList<T>(candidates);
+				}
+				if(snapshot != null)
+					publish(snapshot);
+			}
+		});
+	}
+
+	public synchronized List<T> getCandidates() {
+		return new ArrayList<T>(candidates);
+	}
+
+	/**
+	 * Stops publishing, so that a pending publication does not overwrite the final results of the view.
+	 */
+	public synchronized void close() {
+		closed = true;
+	}
+
+	/**
+	 * Presents the candidates identified so far. It is always invoked in the UI thread.
+	 */
+	protected abstract void publish(List<T> candidates);
+}
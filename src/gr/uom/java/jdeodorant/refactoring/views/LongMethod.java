@@ -24,25 +24,17 @@ import gr.uom.java.ast.CompilationErrorDetectedException;
 import gr.uom.java.ast.CompilationUnitCache;
 import gr.uom.java.ast.MethodObject;
 import gr.uom.java.ast.SystemObject;
-import gr.uom.java.ast.decomposition.cfg.CFG;
-import gr.uom.java.ast.decomposition.cfg.PDG;
-import gr.uom.java.ast.decomposition.cfg.PDGObjectSliceUnion;
-import gr.uom.java.ast.decomposition.cfg.PDGObjectSliceUnionCollection;
-import gr.uom.java.ast.decomposition.cfg.PDGSliceUnion;
-import gr.uom.java.ast.decomposition.cfg.PDGSliceUnionCollection;
-import gr.uom.java.ast.decomposition.cfg.PlainVariable;
-import gr.uom.java.ast.util.StatementExtractor;
 import gr.uom.java.jdeodorant.preferences.PreferenceConstants;
 import gr.uom.java.jdeodorant.refactoring.Activator;
 import gr.uom.java.jdeodorant.refactoring.manipulators.ASTSlice;
 import gr.uom.java.jdeodorant.refactoring.manipulators.ASTSliceGroup;
+import gr.uom.java.jdeodorant.refactoring.manipulators.ASTSliceGroupIdentification;
 import gr.uom.java.jdeodorant.refactoring.manipulators.ExtractMethodRefactoring;
 
 import org.eclipse.core.commands.operations.IOperationHistoryListener;
 import org.eclipse.core.commands.operations.OperationHistoryEvent;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.runtime.IProgressMonitor;
-import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IJavaProject;
@@ -50,12 +42,10 @@ import org.eclipse.jdt.core.IMethod;
 import org.eclipse.jdt.core.IPackageFragment;
 import org.eclipse.jdt.core.IPackageFragmentRoot;
 import org.eclipse.jdt.core.IType;
-import org.eclipse.jdt.core.ITypeRoot;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.dom.TypeDeclaration;
-import org.eclipse.jdt.core.dom.VariableDeclaration;
 import org.eclipse.jdt.ui.JavaUI;
 import org.eclipse.jface.action.Action;
 import org.eclipse.jface.action.IToolBarManager;
@@ -686,6 +676,12 @@ public class LongMethod extends ViewPart {
 
 	private ASTSliceGroup[] getTable() {
 		ASTSliceGroup[] table = null;
+		final IncrementalCandidatePublisher<ASTSliceGroup> publisher = new IncrementalCandidatePublisher<ASTSliceGroup>(Display.getDefault()) {
+			protected void publish(List<ASTSliceGroup> candidates) {
+				sliceGroupTable = candidates.toArray(new ASTSliceGroup[candidates.size()]);
+				treeViewer.refresh();
+			}
+		};
 		try {
 			IWorkbench wb = PlatformUI.getWorkbench();
 			IProgressService ps = wb.getProgressService();
@@ -745,29 +741,29 @@ public class LongMethod extends ViewPart {
 								workSize += classObject.getNumberOfMethods();
 							}
 							monitor.beginTask("Identification of Extract Method refactoring opportunities", workSize);
+							ASTSliceGroupIdentification identification = new ASTSliceGroupIdentification();
 							for(ClassObject classObject : classObjectsToBeExamined) {
 								if(!classObject.isEnum() && !classObject.isInterface() && !classObject.isGeneratedByParserGenenator()) {
 									ListIterator<MethodObject> methodIterator = classObject.getMethodIterator();
 									while(methodIterator.hasNext()) {
-										if(monitor.isCanceled())
-											throw new OperationCanceledException();
 										MethodObject methodObject = methodIterator.next();
-										processMethod(extractedSliceGroups,classObject, methodObject);
-										monitor.worked(1);
+										identification.addMethod(classObject, methodObject);
 									}
 								}
 							}
+							identification.setCandidateListener(publisher);
+							identification.identifySliceGroups(extractedSliceGroups, monitor);
 						}
 						else if(!methodObjectsToBeExamined.isEmpty()) {
 							int workSize = methodObjectsToBeExamined.size();
 							monitor.beginTask("Identification of Extract Method refactoring opportunities", workSize);
+							ASTSliceGroupIdentification identification = new ASTSliceGroupIdentification();
 							for(AbstractMethodDeclaration methodObject : methodObjectsToBeExamined) {
-								if(monitor.isCanceled())
-									throw new OperationCanceledException();
 								ClassObject classObject = systemObject.getClassObject(methodObject.getClassName());
-								processMethod(extractedSliceGroups, classObject, methodObject);
-								monitor.worked(1);
+								identification.addMethod(classObject, methodObject);
 							}
+							identification.setCandidateListener(publisher);
+							identification.identifySliceGroups(extractedSliceGroups, monitor);
 						}
 						monitor.done();
 					}
@@ -781,90 +777,18 @@ public class LongMethod extends ViewPart {
 		} catch (InvocationTargetException e) {
 			e.printStackTrace();
 		} catch (InterruptedException e) {
-			e.printStackTrace();
+			//the identification was cancelled, the candidates identified so far are kept
+			List<ASTSliceGroup> candidates = publisher.getCandidates();
+			if(!candidates.isEmpty())
+				table = candidates.toArray(new ASTSliceGroup[candidates.size()]);
 		} catch (CompilationErrorDetectedException e) {
 			MessageDialog.openInformation(PlatformUI.getWorkbench().getActiveWorkbenchWindow().getShell(), MESSAGE_DIALOG_TITLE,
 					"Compilation errors were detected in the project. Fix the errors before using JDeodorant.");
 		}
-		return table;
-	}
-
-	private void processMethod(final List<ASTSliceGroup> extractedSliceGroups, ClassObject classObject, AbstractMethodDeclaration methodObject) {
-		if(methodObject.getMethodBody() != null) {
-			IPreferenceStore store = Activator.getDefault().getPreferenceStore();
-			int minimumMethodSize = store.getInt(PreferenceConstants.P_MINIMUM_METHOD_SIZE);
-			StatementExtractor statementExtractor = new StatementExtractor();
-			int numberOfStatements = statementExtractor.getTotalNumberOfStatements(methodObject.getMethodBody().getCompositeStatement().getStatement());
-			if(numberOfStatements >= minimumMethodSize) {
-				ITypeRoot typeRoot = classObject.getITypeRoot();
-				CompilationUnitCache.getInstance().lock(typeRoot);
-				CFG cfg = new CFG(methodObject);
-				PDG pdg = new PDG(cfg, classObject.getIFile(), classObject.getFieldsAccessedInsideMethod(methodObject), null);
-				for(VariableDeclaration declaration : pdg.getVariableDeclarationsInMethod()) {
-					PlainVariable variable = new PlainVariable(declaration);
-					PDGSliceUnionCollection sliceUnionCollection = new PDGSliceUnionCollection(pdg, variable);
-					double sumOfExtractedStatementsInGroup = 0.0;
-					double sumOfDuplicatedStatementsInGroup = 0.0;
-					double sumOfDuplicationRatioInGroup = 0.0;
-					int maximumNumberOfExtractedStatementsInGroup = 0;
-					int groupSize = sliceUnionCollection.getSliceUnions().size();
-					ASTSliceGroup sliceGroup = new ASTSliceGroup();
-					for(PDGSliceUnion sliceUnion : sliceUnionCollection.getSliceUnions()) {
-						ASTSlice slice = new ASTSlice(sliceUnion);
-						if(!slice.isVariableCriterionDeclarationStatementIsDeeperNestedThanExtractedMethodInvocationInsertionStatement()) {
-							int numberOfExtractedStatements = slice.getNumberOfSliceStatements();
-							int numberOfDuplicatedStatements = slice.getNumberOfDuplicatedStatements();
-							double duplicationRatio = (double)numberOfDuplicatedStatements/(double)numberOfExtractedStatements;
-							sumOfExtractedStatementsInGroup += numberOfExtractedStatements;
-							sumOfDuplicatedStatementsInGroup += numberOfDuplicatedStatements;
-							sumOfDuplicationRatioInGroup += duplicationRatio;
-							if(numberOfExtractedStatements > maximumNumberOfExtractedStatementsInGroup)
-								maximumNumberOfExtractedStatementsInGroup = numberOfExtractedStatements;
-							sliceGroup.addCandidate(slice);
-						}
-					}
-					if(!sliceGroup.getCandidates().isEmpty()) {
-						sliceGroup.setAverageNumberOfExtractedStatementsInGroup(sumOfExtractedStatementsInGroup/(double)groupSize);
-						sliceGroup.setAverageNumberOfDuplicatedStatementsInGroup(sumOfDuplicatedStatementsInGroup/(double)groupSize);
-						sliceGroup.setAverageDuplicationRatioInGroup(sumOfDuplicationRatioInGroup/(double)groupSize);
-						sliceGroup.setMaximumNumberOfExtractedStatementsInGroup(maximumNumberOfExtractedStatementsInGroup);
-						extractedSliceGroups.add(sliceGroup);
-					}
-				}
-				for(VariableDeclaration declaration : pdg.getVariableDeclarationsAndAccessedFieldsInMethod()) {
-					PlainVariable variable = new PlainVariable(declaration);
-					PDGObjectSliceUnionCollection objectSliceUnionCollection = new PDGObjectSliceUnionCollection(pdg, variable);
-					double sumOfExtractedStatementsInGroup = 0.0;
-					double sumOfDuplicatedStatementsInGroup = 0.0;
-					double sumOfDuplicationRatioInGroup = 0.0;
-					int maximumNumberOfExtractedStatementsInGroup = 0;
-					int groupSize = objectSliceUnionCollection.getSliceUnions().size();
-					ASTSliceGroup sliceGroup = new ASTSliceGroup();
-					for(PDGObjectSliceUnion objectSliceUnion : objectSliceUnionCollection.getSliceUnions()) {
-						ASTSlice slice = new ASTSlice(objectSliceUnion);
-						if(!slice.isVariableCriterionDeclarationStatementIsDeeperNestedThanExtractedMethodInvocationInsertionStatement()) {
-							int numberOfExtractedStatements = slice.getNumberOfSliceStatements();
-							int numberOfDuplicatedStatements = slice.getNumberOfDuplicatedStatements();
-							double duplicationRatio = (double)numberOfDuplicatedStatements/(double)numberOfExtractedStatements;
-							sumOfExtractedStatementsInGroup += numberOfExtractedStatements;
-							sumOfDuplicatedStatementsInGroup += numberOfDuplicatedStatements;
-							sumOfDuplicationRatioInGroup += duplicationRatio;
-							if(numberOfExtractedStatements > maximumNumberOfExtractedStatementsInGroup)
-								maximumNumberOfExtractedStatementsInGroup = numberOfExtractedStatements;
-							sliceGroup.addCandidate(slice);
-						}
-					}
-					if(!sliceGroup.getCandidates().isEmpty()) {
-						sliceGroup.setAverageNumberOfExtractedStatementsInGroup(sumOfExtractedStatementsInGroup/(double)groupSize);
-						sliceGroup.setAverageNumberOfDuplicatedStatementsInGroup(sumOfDuplicatedStatementsInGroup/(double)groupSize);
-						sliceGroup.setAverageDuplicationRatioInGroup(sumOfDuplicationRatioInGroup/(double)groupSize);
-						sliceGroup.setMaximumNumberOfExtractedStatementsInGroup(maximumNumberOfExtractedStatementsInGroup);
-						extractedSliceGroups.add(sliceGroup);
-					}
-				}
-				CompilationUnitCache.getInstance().releaseLock();
-			}
+		finally {
+			publisher.close();
 		}
+		return table;
 	}
 
 	private void saveResults() {
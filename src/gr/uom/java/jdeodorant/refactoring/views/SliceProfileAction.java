@@ -6,8 +6,8 @@ import gr.uom.java.ast.ClassObject;
 import gr.uom.java.ast.CompilationErrorDetectedException;
 import gr.uom.java.ast.CompilationUnitCache;
 import gr.uom.java.ast.SystemObject;
-import gr.uom.java.ast.decomposition.cfg.CFG;
 import gr.uom.java.ast.decomposition.cfg.PDG;
+import gr.uom.java.ast.decomposition.cfg.PDGCache;
 
 import java.lang.reflect.InvocationTargetException;
 
@@ -83,8 +83,7 @@ public class SliceProfileAction implements IObjectActionDelegate {
 									if(methodObject.getMethodBody() != null && classObject != null) {
 										ITypeRoot typeRoot = classObject.getITypeRoot();
 										CompilationUnitCache.getInstance().lock(typeRoot);
-										CFG cfg = new CFG(methodObject);
-										pdg = new PDG(cfg, classObject.getIFile(), classObject.getFieldsAccessedInsideMethod(methodObject), monitor);
+										pdg = PDGCache.getInstance().getPDG(classObject, methodObject, monitor);
 										CompilationUnitCache.getInstance().releaseLock();
 									}
 									else {